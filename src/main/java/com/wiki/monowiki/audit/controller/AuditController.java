@@ -7,6 +7,7 @@ import com.wiki.monowiki.audit.service.AuditQueryService;
 import com.wiki.monowiki.common.response.BasePageResponse;
 import com.wiki.monowiki.common.security.SecurityUtils;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -43,11 +44,13 @@ public class AuditController {
 	    @RequestParam(required = false) Instant from,
 	    @RequestParam(required = false) Instant to,
 	    @RequestParam(defaultValue = "0") int page,
-	    @RequestParam(defaultValue = "20") int size
+	    @RequestParam(defaultValue = "20") int size,
+	    @Parameter(description = "false skips the total count: the response has hasNext instead of total")
+	    @RequestParam(defaultValue = "true") boolean withTotal
     ) {
 	Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-	return BasePageResponse.fromPage(
-		service.search(spaceKey, articleId, actorId, actor, eventType, entityType, entityId, null, from, to, pageable),
+	return BasePageResponse.fromSlice(
+		service.search(spaceKey, articleId, actorId, actor, eventType, entityType, entityId, null, from, to, withTotal, pageable),
 		"Audit fetched"
 	);
     }
@@ -57,12 +60,14 @@ public class AuditController {
     public BasePageResponse<AuditEventResponse> recentActivity(
 	    @PathVariable String spaceKey,
 	    @RequestParam(defaultValue = "0") int page,
-	    @RequestParam(defaultValue = "20") int size
+	    @RequestParam(defaultValue = "20") int size,
+	    @Parameter(description = "false skips the total count: the response has hasNext instead of total")
+	    @RequestParam(defaultValue = "true") boolean withTotal
     ) {
 	Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
 	Boolean publicOnly = SecurityUtils.isViewer() ? Boolean.TRUE : null;
-	return BasePageResponse.fromPage(
-		service.search(spaceKey, null, null, null, null, null, null, publicOnly, null, null, pageable),
+	return BasePageResponse.fromSlice(
+		service.search(spaceKey, null, null, null, null, null, null, publicOnly, null, null, withTotal, pageable),
 		"Recent activity fetched"
 	);
     }
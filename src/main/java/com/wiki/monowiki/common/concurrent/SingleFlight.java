@@ -0,0 +1,63 @@
+package com.wiki.monowiki.common.concurrent;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical loads: the first caller for a key runs the loader, callers arriving while it runs
+ * wait for and share its result (or its exception). Nothing is kept once the load finishes, so this is not a cache.
+ */
+public class SingleFlight<K, V> {
+
+    /**
+     * @param loads     loader runs
+     * @param coalesced callers that shared another caller's load instead of running their own
+     * @param inFlight  loads running right now
+     */
+    public record Stats(long loads, long coalesced, int inFlight) {}
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public V run(K key, Supplier<V> loader) {
+	CompletableFuture<V> mine = new CompletableFuture<>();
+	CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+	if (Objects.nonNull(running)) {
+	    coalesced.increment();
+	    return await(running);
+	}
+
+	loads.increment();
+	try {
+	    V value = loader.get();
+	    mine.complete(value);
+	    return value;
+	} catch (RuntimeException | Error e) {
+	    mine.completeExceptionally(e);
+	    throw e;
+	} finally {
+	    inFlight.remove(key, mine);
+	}
+    }
+
+    public Stats stats() {
+	return new Stats(loads.sum(), coalesced.sum(), inFlight.size());
+    }
+
+    private static <V> V await(CompletableFuture<V> running) {
+	try {
+	    return running.join();
+	} catch (CompletionException e) {
+	    // rethrow what the loader threw, so waiters see the same error as the caller that ran it
+	    if (e.getCause() instanceof RuntimeException re) throw re;
+	    if (e.getCause() instanceof Error err) throw err;
+	    throw e;
+	}
+    }
+}
@@ -0,0 +1,14 @@
+package com.wiki.monowiki.common.paging;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * One keyset page: no total count, {@code nextCursor} is null on the last page.
+ */
+public record CursorPage<T>(List<T> content, String nextCursor) {
+
+    public boolean hasNext() {
+	return Objects.nonNull(nextCursor);
+    }
+}
@@ -0,0 +1,72 @@
+package com.wiki.monowiki.common.paging;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Position right after the last row of a keyset page: the value of the sort property (a timestamp) and the id that
+ * breaks ties. Clients only see it as an opaque token ({@code nextCursor}) and send it back unchanged.
+ *
+ * A cursor is only valid for the ordering it was issued for; the token carries that ordering so a mismatch is
+ * rejected instead of silently skipping or repeating rows.
+ */
+public record KeysetCursor(String property, Sort.Direction direction, Instant at, long id) {
+
+    private static final String VERSION = "k1";
+    private static final String ID = "id";
+
+    public String encode() {
+	String raw = String.join("|", VERSION, property, direction.name(), at.toString(), Long.toString(id));
+	return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return null for a blank token (first page)
+     * @throws IllegalArgumentException for a malformed token or one issued for a different ordering
+     */
+    public static KeysetCursor decode(String token, Sort.Order order) {
+	if (Objects.isNull(token) || token.isBlank()) return null;
+
+	KeysetCursor cursor;
+	try {
+	    String[] p = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8).split("\\|");
+	    if (p.length != 5 || !VERSION.equals(p[0])) throw new IllegalArgumentException();
+	    cursor = new KeysetCursor(p[1], Sort.Direction.valueOf(p[2]), Instant.parse(p[3]), Long.parseLong(p[4]));
+	} catch (RuntimeException e) {
+	    throw new IllegalArgumentException("Invalid cursor");
+	}
+
+	if (!cursor.property.equals(order.getProperty()) || cursor.direction != order.getDirection()) {
+	    throw new IllegalArgumentException("Cursor was issued for a different sort; start again without it");
+	}
+	return cursor;
+    }
+
+    /** The order plus id in the same direction, so every row has a unique position. */
+    public static Sort sort(Sort.Order order) {
+	return Sort.by(order, new Sort.Order(order.getDirection(), ID));
+    }
+
+    /** Spring Data keyset position for {@link #sort(Sort.Order)}; the start when cursor is null. */
+    public static KeysetScrollPosition scrollPosition(KeysetCursor cursor) {
+	if (Objects.isNull(cursor)) return ScrollPosition.keyset();
+	Map<String, Object> keys = new LinkedHashMap<>();
+	keys.put(cursor.property, cursor.at);
+	keys.put(ID, cursor.id);
+	return ScrollPosition.forward(keys);
+    }
+
+    public static KeysetCursor of(Sort.Order order, KeysetScrollPosition position) {
+	Map<String, ?> keys = position.getKeys();
+	return new KeysetCursor(order.getProperty(), order.getDirection(),
+		(Instant) keys.get(order.getProperty()), ((Number) keys.get(ID)).longValue());
+    }
+}
@@ -6,6 +6,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 
 import java.util.Collections;
@@ -16,7 +17,7 @@ import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
 @JsonInclude(NON_NULL)
 @Getter
 @NoArgsConstructor(force = true)
-@JsonPropertyOrder({"statusCode", "message", "messages", "error", "page", "size", "total", "data"})
+@JsonPropertyOrder({"statusCode", "message", "messages", "error", "page", "size", "total", "hasNext", "data"})
 public class BasePageResponse<S> extends BaseResponse<List<S>> {
 
     @Schema(description = "Start index of the paged data", example = "0")
@@ -28,15 +29,24 @@ public class BasePageResponse<S> extends BaseResponse<List<S>> {
     @Schema(description = "Total number of results in the paged data", example = "50")
     private final Long total;
 
+    @Schema(description = "Whether a next page exists; set instead of total when the request asked for withTotal=false", example = "true")
+    private final Boolean hasNext;
+
     @Schema(description = "Data in the response")
     private final List<S> data;
 
     public BasePageResponse(Integer statusCode, String message, Boolean error,
 	    Integer page, Integer size, Long total, List<S> data) {
+	this(statusCode, message, error, page, size, total, null, data);
+    }
+
+    public BasePageResponse(Integer statusCode, String message, Boolean error,
+	    Integer page, Integer size, Long total, Boolean hasNext, List<S> data) {
 	super(statusCode, message, error);
 	this.page = page;
 	this.size = size;
 	this.total = total;
+	this.hasNext = hasNext;
 	this.data = data;
     }
 
@@ -46,6 +56,7 @@ public class BasePageResponse<S> extends BaseResponse<List<S>> {
 	this.page = page;
 	this.size = size;
 	this.total = total;
+	this.hasNext = null;
 	this.data = data;
     }
 
@@ -61,6 +72,25 @@ public class BasePageResponse<S> extends BaseResponse<List<S>> {
 	);
     }
 
+    /**
+     * A Page keeps its total ({@link #fromPage}); any other Slice was read without a count query and reports hasNext.
+     */
+    public static <S> BasePageResponse<S> fromSlice(Slice<S> slice, String successMessage) {
+	if (slice instanceof Page<S> page) {
+	    return fromPage(page, successMessage);
+	}
+	return new BasePageResponse<>(
+		HttpStatus.OK.value(),
+		successMessage,
+		false,
+		slice.getNumber(),
+		slice.getSize(),
+		null,
+		slice.hasNext(),
+		slice.getContent()
+	);
+    }
+
     public static <S> BasePageResponse<S> empty(String message) {
 	return new BasePageResponse<>(
 		HttpStatus.OK.value(),
@@ -0,0 +1,56 @@
+package com.wiki.monowiki.common.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.wiki.monowiki.common.paging.CursorPage;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+
+@JsonInclude(NON_NULL)
+@Getter
+@NoArgsConstructor(force = true)
+@JsonPropertyOrder({"statusCode", "message", "messages", "error", "size", "nextCursor", "data"})
+public class CursorPageResponse<S> extends BaseResponse<List<S>> {
+
+    @Schema(description = "Maximum number of results in the paged data", example = "10")
+    private final Integer size;
+
+    @Schema(description = "Pass as cursor to fetch the next page; absent on the last page", example = "azF8Y3JlYXRlZEF0fERFU0N8MjAyNi0wMS0wMVQwMDowMDowMFp8NDI")
+    private final String nextCursor;
+
+    @Schema(description = "Data in the response")
+    private final List<S> data;
+
+    public CursorPageResponse(Integer statusCode, String message, Boolean error,
+	    Integer size, String nextCursor, List<S> data) {
+	super(statusCode, message, error);
+	this.size = size;
+	this.nextCursor = nextCursor;
+	this.data = data;
+    }
+
+    public CursorPageResponse(Integer statusCode, List<String> messages, Boolean error,
+	    Integer size, String nextCursor, List<S> data) {
+	super(statusCode, messages, error);
+	this.size = size;
+	this.nextCursor = nextCursor;
+	this.data = data;
+    }
+
+    public static <S> CursorPageResponse<S> fromCursorPage(CursorPage<S> page, int size, String successMessage) {
+	return new CursorPageResponse<>(
+		HttpStatus.OK.value(),
+		successMessage,
+		false,
+		size,
+		page.nextCursor(),
+		page.content()
+	);
+    }
+}
@@ -0,0 +1,48 @@
+package com.wiki.monowiki.common.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+
+@JsonInclude(NON_NULL)
+@Getter
+@NoArgsConstructor(force = true)
+@JsonPropertyOrder({"statusCode", "message", "messages", "error", "page", "size", "total", "facets", "data"})
+public class FacetedPageResponse<S, F> extends BasePageResponse<S> {
+
+    @Schema(description = "Counts over all results (not just this page), per facet value")
+    private final List<F> facets;
+
+    public FacetedPageResponse(Integer statusCode, String message, Boolean error,
+	    Integer page, Integer size, Long total, List<S> data, List<F> facets) {
+	super(statusCode, message, error, page, size, total, data);
+	this.facets = facets;
+    }
+
+    public FacetedPageResponse(Integer statusCode, List<String> messages, Boolean error,
+	    Integer page, Integer size, Long total, List<S> data, List<F> facets) {
+	super(statusCode, messages, error, page, size, total, data);
+	this.facets = facets;
+    }
+
+    public static <S, F> FacetedPageResponse<S, F> fromPage(Page<S> page, List<F> facets, String successMessage) {
+	return new FacetedPageResponse<>(
+		HttpStatus.OK.value(),
+		successMessage,
+		false,
+		page.getNumber(),
+		page.getSize(),
+		page.getTotalElements(),
+		page.getContent(),
+		facets
+	);
+    }
+}
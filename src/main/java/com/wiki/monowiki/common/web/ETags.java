@@ -0,0 +1,57 @@
+package com.wiki.monowiki.common.web;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Strong entity tags built from the state columns a response depends on, and If-None-Match matching.
+ *
+ * Controllers compute the tag from a metadata query before loading anything, so a matching If-None-Match is answered
+ * with 304 without loading or serializing the body. A tag read before the body can only be older than the body, never
+ * newer: the worst case is one extra 200, never a stale 304.
+ */
+public final class ETags {
+
+    private ETags() {}
+
+    /**
+     * Quoted strong tag from its parts, e.g. {@code "12-v3-PUBLISHED"}.
+     */
+    public static String strong(Object... parts) {
+	return Arrays.stream(parts).map(String::valueOf).collect(Collectors.joining("-", "\"", "\""));
+    }
+
+    /**
+     * Tag of the gzip-encoded body of the entity tagged {@code etag}, e.g. {@code "12-v3-PUBLISHED-gz"}: a strong
+     * tag may only label one byte representation, so the identity and gzip bodies need different ones.
+     */
+    public static String gzip(String etag) {
+	return etag.substring(0, etag.length() - 1) + "-gz\"";
+    }
+
+    /**
+     * Whether an If-None-Match header value lists {@code etag} or its {@link #gzip} variant (or is {@code *}).
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+	return matched(ifNoneMatch, etag).isPresent();
+    }
+
+    /**
+     * The listed tag that matched: {@code etag} or its {@link #gzip} variant, i.e. the tag of the representation the
+     * client holds, which a 304 sends back ({@code etag} for {@code *}). Uses the weak comparison RFC 9110
+     * prescribes for If-None-Match, so a {@code W/} prefix added by an intermediary still matches.
+     */
+    public static Optional<String> matched(String ifNoneMatch, String etag) {
+	if (Objects.isNull(ifNoneMatch) || Objects.isNull(etag)) return Optional.empty();
+	String gzip = gzip(etag);
+	for (String candidate : ifNoneMatch.split(",")) {
+	    String tag = candidate.trim();
+	    if (tag.equals("*")) return Optional.of(etag);
+	    if (tag.startsWith("W/")) tag = tag.substring(2);
+	    if (tag.equals(etag) || tag.equals(gzip)) return Optional.of(tag);
+	}
+	return Optional.empty();
+    }
+}
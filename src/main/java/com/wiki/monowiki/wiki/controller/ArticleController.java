@@ -2,10 +2,18 @@ package com.wiki.monowiki.wiki.controller;
 
 import com.wiki.monowiki.common.response.BasePageResponse;
 import com.wiki.monowiki.common.response.BaseResponse;
+import com.wiki.monowiki.common.response.CursorPageResponse;
+import com.wiki.monowiki.common.security.SecurityUtils;
+import com.wiki.monowiki.common.web.ETags;
+import com.wiki.monowiki.wiki.dto.ArticleDtos.ArticleReadStats;
 import com.wiki.monowiki.wiki.dto.ArticleDtos.ArticleResponse;
 import com.wiki.monowiki.wiki.dto.ArticleDtos.CreateArticleRequest;
+import com.wiki.monowiki.wiki.dto.ArticleDtos.TitleSuggestion;
 import com.wiki.monowiki.wiki.dto.ArticleDtos.UpdateTitleRequest;
 import com.wiki.monowiki.wiki.service.ArticleService;
+import com.wiki.monowiki.wiki.service.PublishedArticleResponseCache;
+import com.wiki.monowiki.wiki.service.PublishedArticleResponseCache.Entry;
+import com.wiki.monowiki.wiki.service.PublishedArticleResponseCache.Read;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -13,18 +21,28 @@ import jakarta.validation.Valid;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
 @RestController
 @Tag(name = "Articles", description = "Articles live inside a space and have statuses DRAFT / IN_REVIEW / PUBLISHED / ARCHIVED.")
 public class ArticleController {
 
     private final ArticleService articleService;
+    private final PublishedArticleResponseCache publishedArticles;
 
-    public ArticleController(ArticleService articleService) {
+    public ArticleController(ArticleService articleService, PublishedArticleResponseCache publishedArticles) {
 	this.articleService = articleService;
+	this.publishedArticles = publishedArticles;
     }
 
     @PreAuthorize("hasAnyRole('ADMIN','EDITOR')")
@@ -38,23 +56,91 @@ public class ArticleController {
     @GetMapping("/spaces/{spaceKey}/articles")
     @Operation(
 	    summary = "List articles in a space",
-	    description = "VIEWERs only see PUBLISHED articles. For ADMIN/EDITOR, includeArchived=true includes soft-deleted articles."
+	    description = "VIEWERs only see PUBLISHED articles. For ADMIN/EDITOR, includeArchived=true includes soft-deleted articles. "
+		    + "view=summary returns a short excerpt instead of the latest content and no comment counts (much smaller and faster). "
+		    + "Passing cursor (empty for the first page) switches to keyset paging: sort must be on createdAt or updatedAt, "
+		    + "page is ignored, no total is computed and nextCursor fetches the following page."
     )
-    public BasePageResponse<ArticleResponse> list(
+    public BaseResponse<?> list(
 	    @Parameter(description = "Space key", example = "ENG") @PathVariable String spaceKey,
 	    @Parameter(description = "Include ARCHIVED articles (ADMIN/EDITOR only). Ignored for VIEWER.")
 	    @RequestParam(defaultValue = "false") boolean includeArchived,
 	    @RequestParam(defaultValue = "0") int page,
 	    @RequestParam(defaultValue = "10") int size,
-	    @RequestParam(defaultValue = "createdAt,desc") String sort) {
+	    @RequestParam(defaultValue = "createdAt,desc") String sort,
+	    @Parameter(description = "full (latest content and comment counts) or summary (excerpt only)", example = "summary")
+	    @RequestParam(defaultValue = "full") String view,
+	    @Parameter(description = "Keyset paging: empty for the first page, then the previous response's nextCursor")
+	    @RequestParam(required = false) String cursor,
+	    @Parameter(description = "false skips the total count: the response has hasNext instead of total")
+	    @RequestParam(defaultValue = "true") boolean withTotal) {
+	boolean summary = "summary".equalsIgnoreCase(view.trim());
+	if (cursor != null) {
+	    Sort.Order order = parseSort(sort).iterator().next();
+	    return summary
+		    ? CursorPageResponse.fromCursorPage(articleService.listSummariesByCursor(spaceKey, includeArchived, order, cursor, size), size, "Articles fetched")
+		    : CursorPageResponse.fromCursorPage(articleService.listByCursor(spaceKey, includeArchived, order, cursor, size), size, "Articles fetched");
+	}
+
 	Pageable pageable = PageRequest.of(page, size, parseSort(sort));
-	return BasePageResponse.fromPage(articleService.list(spaceKey, includeArchived, pageable), "Articles fetched");
+	if (summary) {
+	    return BasePageResponse.fromSlice(articleService.listSummaries(spaceKey, includeArchived, withTotal, pageable), "Articles fetched");
+	}
+	return BasePageResponse.fromSlice(articleService.list(spaceKey, includeArchived, withTotal, pageable), "Articles fetched");
+    }
+
+    @GetMapping("/spaces/{spaceKey}/articles/suggest")
+    @Operation(
+	    summary = "Suggest article titles",
+	    description = "Search-as-you-type: titles with a word starting with the prefix; title-start matches first. VIEWERs only get PUBLISHED articles."
+    )
+    public BaseResponse<List<TitleSuggestion>> suggest(
+	    @Parameter(description = "Space key", example = "ENG") @PathVariable String spaceKey,
+	    @Parameter(description = "Typed prefix (case and accent insensitive)", example = "onbo") @RequestParam String prefix,
+	    @Parameter(description = "Maximum suggestions (1-50)") @RequestParam(defaultValue = "10") int limit) {
+	return new BaseResponse<>(HttpStatus.OK.value(), "Suggestions fetched", false, articleService.suggest(spaceKey, prefix, limit));
     }
 
     @GetMapping("/spaces/{spaceKey}/articles/{slug}")
-    @Operation(summary = "Get article by slug", description = "VIEWERs get 404 for non-PUBLISHED articles.")
-    public BaseResponse<ArticleResponse> get(@PathVariable String spaceKey, @PathVariable String slug) {
-	return new BaseResponse<>(HttpStatus.OK.value(), "Article fetched", false, articleService.getBySlug(spaceKey, slug));
+    @Operation(
+	    summary = "Get article by slug",
+	    description = "VIEWERs get 404 for non-PUBLISHED articles. PUBLISHED articles are served from a per-instance cache "
+		    + "of the serialized response, gzip-encoded when the client accepts it. Concurrent identical reads share one load. "
+		    + "Responses carry a strong ETag, a distinct one for gzip bodies; If-None-Match with either current tag returns 304 without loading the article."
+    )
+    public ResponseEntity<?> get(@PathVariable String spaceKey, @PathVariable String slug,
+	    @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+	    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+	Optional<Entry> cached = publishedArticles.get(spaceKey, slug);
+	if (cached.isPresent()) {
+	    Optional<String> matched = ETags.matched(ifNoneMatch, cached.get().etag());
+	    return matched.isPresent()
+		    ? notModified(matched.get())
+		    : serialized(cached.get(), acceptEncoding);
+	}
+
+	if (Objects.nonNull(ifNoneMatch)) {
+	    Optional<String> matched = articleService.currentETag(spaceKey, slug)
+		    .flatMap(current -> ETags.matched(ifNoneMatch, current));
+	    if (matched.isPresent()) {
+		return notModified(matched.get());
+	    }
+	}
+
+	Read read = publishedArticles.load(spaceKey, slug, SecurityUtils.isViewer(),
+		() -> articleService.currentETag(spaceKey, slug).orElse(null),
+		() -> new BaseResponse<>(HttpStatus.OK.value(), "Article fetched", false, articleService.getBySlug(spaceKey, slug)));
+	if (Objects.isNull(read.serialized())) {
+	    return revalidated(ResponseEntity.ok(), read.etag()).body(read.response());
+	}
+	return serialized(read.serialized(), acceptEncoding);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/articles/read-stats")
+    @Operation(summary = "Published article cache and read coalescing counters (ADMIN)", description = "Counters are per instance and reset on restart.")
+    public BaseResponse<ArticleReadStats> readStats() {
+	return new BaseResponse<>(HttpStatus.OK.value(), "Article read stats fetched", false, publishedArticles.stats());
     }
 
     @PreAuthorize("hasAnyRole('ADMIN','EDITOR')")
@@ -96,4 +182,28 @@ public class ArticleController {
 	    return Sort.by(Sort.Direction.DESC, "createdAt");
 	}
     }
+
+    // each encoding has its own strong tag (ETags.gzip); If-None-Match with either one revalidates
+    private static ResponseEntity<byte[]> serialized(Entry entry, String acceptEncoding) {
+	boolean gzip = entry.hasGzip() && PublishedArticleResponseCache.acceptsGzip(acceptEncoding);
+	ResponseEntity.BodyBuilder ok = revalidated(ResponseEntity.ok(), gzip ? ETags.gzip(entry.etag()) : entry.etag())
+		.contentType(MediaType.APPLICATION_JSON)
+		.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+	if (gzip) {
+	    return ok.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(entry.gzip());
+	}
+	return ok.body(entry.json());
+    }
+
+    private static ResponseEntity<Void> notModified(String etag) {
+	return revalidated(ResponseEntity.status(HttpStatus.NOT_MODIFIED), etag)
+		.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+		.build();
+    }
+
+    // clients may keep the article but must revalidate it on every use
+    private static ResponseEntity.BodyBuilder revalidated(ResponseEntity.BodyBuilder builder, String etag) {
+	builder.cacheControl(CacheControl.noCache().cachePrivate());
+	return Objects.isNull(etag) ? builder : builder.eTag(etag);
+    }
 }
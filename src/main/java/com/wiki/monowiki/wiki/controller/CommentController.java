@@ -2,19 +2,26 @@ package com.wiki.monowiki.wiki.controller;
 
 import com.wiki.monowiki.common.response.BasePageResponse;
 import com.wiki.monowiki.common.response.BaseResponse;
+import com.wiki.monowiki.common.web.ETags;
 import com.wiki.monowiki.wiki.dto.CommentDtos.CommentResponse;
 import com.wiki.monowiki.wiki.dto.CommentDtos.CreateCommentRequest;
 import com.wiki.monowiki.wiki.service.CommentService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Optional;
+
 @RestController
 @Tag(name = "Comments", description = "Comments are attached to a specific article version.")
 public class CommentController {
@@ -35,16 +42,30 @@ public class CommentController {
     }
 
     @GetMapping("/articles/{id}/versions/{no}/comments")
-    @Operation(summary = "List comments (VIEWER only if article is PUBLISHED)")
-    public BasePageResponse<CommentResponse> list(
+    @Operation(summary = "List comments (VIEWER only if article is PUBLISHED)", description = "If-None-Match with the current ETag returns 304.")
+    public ResponseEntity<BasePageResponse<CommentResponse>> list(
 	    @PathVariable Long id,
 	    @PathVariable Integer no,
 	    @RequestParam(defaultValue = "0") int page,
 	    @RequestParam(defaultValue = "50") int size,
-	    @RequestParam(defaultValue = "createdAt,asc") String sort
+	    @RequestParam(defaultValue = "createdAt,asc") String sort,
+	    @Parameter(description = "false skips the total count: the response has hasNext instead of total")
+	    @RequestParam(defaultValue = "true") boolean withTotal,
+	    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
+	Optional<String> etag = commentService.listETag(id, no);
+	if (etag.isPresent() && ETags.matches(ifNoneMatch, etag.get())) {
+	    return revalidated(ResponseEntity.status(HttpStatus.NOT_MODIFIED), etag).build();
+	}
 	Pageable pageable = PageRequest.of(page, size, parseSort(sort));
-	return BasePageResponse.fromPage(commentService.list(id, no, pageable), "Comments fetched");
+	return revalidated(ResponseEntity.ok(), etag)
+		.body(BasePageResponse.fromSlice(commentService.list(id, no, withTotal, pageable), "Comments fetched"));
+    }
+
+    // private: responses depend on the caller's role; no ETag means the request ends in 404
+    private static ResponseEntity.BodyBuilder revalidated(ResponseEntity.BodyBuilder builder, Optional<String> etag) {
+	etag.ifPresent(t -> builder.eTag(t).cacheControl(CacheControl.noCache().cachePrivate()));
+	return builder;
     }
 
     private Sort parseSort(String sort) {
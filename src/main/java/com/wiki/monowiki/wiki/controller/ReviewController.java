@@ -6,6 +6,7 @@ import com.wiki.monowiki.wiki.dto.ReviewDtos.RejectRequest;
 import com.wiki.monowiki.wiki.dto.ReviewDtos.ReviewRequestResponse;
 import com.wiki.monowiki.wiki.service.ReviewService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
@@ -34,8 +35,10 @@ public class ReviewController {
     @Operation(summary = "List review requests (ADMIN/EDITOR)")
     public BasePageResponse<ReviewRequestResponse> list(@RequestParam(defaultValue = "0") int page,
 	    @RequestParam(defaultValue = "10") int size,
-	    @RequestParam(required = false) String status) {
-	return BasePageResponse.fromPage(reviewService.list(page, size, status), "Review requests fetched");
+	    @RequestParam(required = false) String status,
+	    @Parameter(description = "false skips the total count: the response has hasNext instead of total")
+	    @RequestParam(defaultValue = "true") boolean withTotal) {
+	return BasePageResponse.fromSlice(reviewService.list(page, size, status, withTotal), "Review requests fetched");
     }
 
     @PreAuthorize("hasAnyRole('ADMIN','EDITOR')")
@@ -1,18 +1,30 @@
 package com.wiki.monowiki.wiki.controller;
 
-import com.wiki.monowiki.common.response.BasePageResponse;
-import com.wiki.monowiki.wiki.dto.ArticleDtos.ArticleResponse;
+import com.wiki.monowiki.common.response.BaseResponse;
+import com.wiki.monowiki.common.response.CursorPageResponse;
+import com.wiki.monowiki.common.response.FacetedPageResponse;
+import com.wiki.monowiki.wiki.dto.SearchDtos.CursorSearchResult;
+import com.wiki.monowiki.wiki.dto.SearchDtos.GlobalSearchResult;
+import com.wiki.monowiki.wiki.dto.SearchDtos.SearchCacheStats;
+import com.wiki.monowiki.wiki.dto.SearchDtos.SearchResult;
+import com.wiki.monowiki.wiki.dto.SearchDtos.SearchResultResponse;
+import com.wiki.monowiki.wiki.dto.SearchDtos.TagFacet;
+import com.wiki.monowiki.wiki.model.SearchMode;
+import com.wiki.monowiki.wiki.model.SearchSort;
 import com.wiki.monowiki.wiki.service.SearchService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 @Tag(name = "Search", description = "Search across article title and latest version content.")
 public class SearchController {
@@ -26,16 +38,82 @@ public class SearchController {
     @GetMapping("/search")
     @Operation(
 	    summary = "Search articles",
-	    description = "VIEWERs only see PUBLISHED articles. For ADMIN/EDITOR, set includeArchived=true to include soft-deleted articles."
+	    description = "VIEWERs only see PUBLISHED articles. For ADMIN/EDITOR, set includeArchived=true to include soft-deleted articles. "
+		    + "Without spaceKey, all spaces are searched in parallel and merged into one ranking. "
+		    + "Results carry a short snippet with highlight offsets; set includeContent=true for the full latest content. "
+		    + "tags narrows to articles carrying all given tag ids; single-space searches return per-tag counts in facets. "
+		    + "Passing cursor (empty for the first page) switches to keyset paging with sort=recent: page is ignored, "
+		    + "no total or facets are computed and nextCursor fetches the following page."
     )
-    public BasePageResponse<ArticleResponse> search(
-	    @Parameter(description = "Space key to search within", example = "ENG") @RequestParam String spaceKey,
+    public BaseResponse<?> search(
+	    @Parameter(description = "Space key to search within; omit to search all spaces", example = "ENG")
+	    @RequestParam(required = false) String spaceKey,
 	    @Parameter(description = "Query string (searched in title and latest content)", example = "onboarding") @RequestParam String q,
+	    @Parameter(description = "FULLTEXT (word match, ranked by relevance), SUBSTRING (legacy contains match, newest first) or FUZZY (typo-tolerant title match)")
+	    @RequestParam(defaultValue = "FULLTEXT") SearchMode mode,
+	    @Parameter(description = "relevance (best match first, FULLTEXT/FUZZY) or recent (last updated first)", example = "relevance")
+	    @RequestParam(defaultValue = "relevance") String sort,
+	    @Parameter(description = "FUZZY only: minimum word similarity (0..1); lower matches more loosely", example = "0.3")
+	    @RequestParam(defaultValue = "0.3") double similarity,
+	    @Parameter(description = "Tag ids; only articles carrying all of them match", example = "1,2")
+	    @RequestParam(required = false) List<Long> tags,
 	    @Parameter(description = "Include ARCHIVED articles (ADMIN/EDITOR only). Ignored for VIEWER.")
 	    @RequestParam(defaultValue = "false") boolean includeArchived,
+	    @Parameter(description = "Also return each article's full latest content (latestContent)")
+	    @RequestParam(defaultValue = "false") boolean includeContent,
 	    @RequestParam(defaultValue = "0") int page,
-	    @RequestParam(defaultValue = "10") int size) {
-	Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "updatedAt"));
-	return BasePageResponse.fromPage(searchService.search(spaceKey, q, includeArchived, pageable), "Search results fetched");
+	    @RequestParam(defaultValue = "10") int size,
+	    @Parameter(description = "Keyset paging (sort=recent): empty for the first page, then the previous response's nextCursor")
+	    @RequestParam(required = false) String cursor) {
+	if (cursor != null) {
+	    CursorSearchResult result = searchService.searchByCursor(spaceKey, q, mode, parseSort(sort), similarity, tags, includeArchived, includeContent, cursor, size);
+	    if (result.incompleteSpaces().isEmpty()) {
+		return CursorPageResponse.fromCursorPage(result.page(), size, "Search results fetched");
+	    }
+	    return new CursorPageResponse<>(
+		    HttpStatus.OK.value(),
+		    List.of("Search results fetched", "Incomplete: no answer in time from spaces " + String.join(", ", result.incompleteSpaces())),
+		    false,
+		    size,
+		    result.page().nextCursor(),
+		    result.page().content()
+	    );
+	}
+
+	Pageable pageable = PageRequest.of(page, size);
+	if (spaceKey != null && !spaceKey.isBlank()) {
+	    SearchResult result = searchService.search(spaceKey, q, mode, parseSort(sort), similarity, tags, includeArchived, includeContent, pageable);
+	    return FacetedPageResponse.fromPage(result.page(), result.facets(), "Search results fetched");
+	}
+
+	GlobalSearchResult result = searchService.searchAllSpaces(q, mode, parseSort(sort), similarity, tags, includeArchived, includeContent, pageable);
+	if (result.incompleteSpaces().isEmpty()) {
+	    return FacetedPageResponse.fromPage(result.page(), null, "Search results fetched");
+	}
+	return new FacetedPageResponse<>(
+		HttpStatus.OK.value(),
+		List.of("Search results fetched", "Incomplete: no answer in time from spaces " + String.join(", ", result.incompleteSpaces())),
+		false,
+		result.page().getNumber(),
+		result.page().getSize(),
+		result.page().getTotalElements(),
+		result.page().getContent(),
+		null
+	);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/search/cache")
+    @Operation(summary = "Search result cache counters (ADMIN)", description = "Counters are per instance and reset on restart.")
+    public BaseResponse<SearchCacheStats> cacheStats() {
+	return new BaseResponse<>(HttpStatus.OK.value(), "Search cache stats fetched", false, searchService.cacheStats());
+    }
+
+    private SearchSort parseSort(String sort) {
+	try {
+	    return SearchSort.valueOf(sort.trim().toUpperCase());
+	} catch (Exception e) {
+	    return SearchSort.RELEVANCE;
+	}
     }
 }
@@ -6,6 +6,7 @@ import com.wiki.monowiki.wiki.dto.SpaceDtos.CreateSpaceRequest;
 import com.wiki.monowiki.wiki.dto.SpaceDtos.SpaceResponse;
 import com.wiki.monowiki.wiki.service.SpaceService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.PageRequest;
@@ -38,10 +39,12 @@ public class SpaceController {
     public BasePageResponse<SpaceResponse> list(
 	    @RequestParam(defaultValue = "0") int page,
 	    @RequestParam(defaultValue = "10") int size,
-	    @RequestParam(defaultValue = "spaceKey,asc") String sort
+	    @RequestParam(defaultValue = "spaceKey,asc") String sort,
+	    @Parameter(description = "false skips the total count: the response has hasNext instead of total")
+	    @RequestParam(defaultValue = "true") boolean withTotal
     ) {
 	Pageable pageable = PageRequest.of(page, size, parseSort(sort));
-	return BasePageResponse.fromPage(spaceService.list(pageable), "Spaces fetched");
+	return BasePageResponse.fromSlice(spaceService.list(withTotal, pageable), "Spaces fetched");
     }
 
     @GetMapping("/{spaceKey}")
@@ -7,6 +7,7 @@ import com.wiki.monowiki.wiki.dto.TagDtos.CreateTagRequest;
 import com.wiki.monowiki.wiki.dto.TagDtos.TagResponse;
 import com.wiki.monowiki.wiki.service.TagService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.PageRequest;
@@ -38,10 +39,12 @@ public class TagController {
     public BasePageResponse<TagResponse> list(
 	    @RequestParam(defaultValue = "0") int page,
 	    @RequestParam(defaultValue = "20") int size,
-	    @RequestParam(defaultValue = "name,asc") String sort
+	    @RequestParam(defaultValue = "name,asc") String sort,
+	    @Parameter(description = "false skips the total count: the response has hasNext instead of total")
+	    @RequestParam(defaultValue = "true") boolean withTotal
     ) {
 	Pageable pageable = PageRequest.of(page, size, parseSort(sort));
-	return BasePageResponse.fromPage(tagService.list(pageable), "Tags fetched");
+	return BasePageResponse.fromSlice(tagService.list(withTotal, pageable), "Tags fetched");
     }
 
     @PreAuthorize("hasAnyRole('ADMIN','EDITOR')")
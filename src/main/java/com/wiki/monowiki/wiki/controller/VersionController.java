@@ -2,23 +2,37 @@ package com.wiki.monowiki.wiki.controller;
 
 import com.wiki.monowiki.common.response.BasePageResponse;
 import com.wiki.monowiki.common.response.BaseResponse;
+import com.wiki.monowiki.common.web.ETags;
 import com.wiki.monowiki.wiki.dto.VersionDtos.CreateVersionRequest;
+import com.wiki.monowiki.wiki.dto.VersionDtos.VersionDiffResponse;
 import com.wiki.monowiki.wiki.dto.VersionDtos.VersionResponse;
+import com.wiki.monowiki.wiki.dto.VersionDtos.VersionSummary;
 import com.wiki.monowiki.wiki.service.VersionService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.util.Optional;
+
 @RestController
 @Tag(name = "Versions", description = "Article versions. New versions can only be added while the article is DRAFT.")
 public class VersionController {
 
+    // private: responses depend on the caller's role
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable();
+
     private final VersionService versionService;
 
     public VersionController(VersionService versionService) {
@@ -34,21 +48,65 @@ public class VersionController {
     }
 
     @GetMapping("/articles/{id}/versions")
-    @Operation(summary = "List versions (VIEWER only if article is PUBLISHED)")
-    public BasePageResponse<VersionResponse> list(
+    @Operation(
+	    summary = "List versions (VIEWER only if article is PUBLISHED)",
+	    description = "Metadata only (number, author, time, length, hash, comment count); get a version for its content. "
+		    + "If-None-Match with the current ETag returns 304."
+    )
+    public ResponseEntity<BasePageResponse<VersionSummary>> list(
 	    @PathVariable Long id,
 	    @RequestParam(defaultValue = "0") int page,
 	    @RequestParam(defaultValue = "20") int size,
-	    @RequestParam(defaultValue = "versionNo,asc") String sort
+	    @RequestParam(defaultValue = "versionNo,asc") String sort,
+	    @Parameter(description = "false skips the total count: the response has hasNext instead of total")
+	    @RequestParam(defaultValue = "true") boolean withTotal,
+	    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
+	Optional<String> etag = versionService.listETag(id);
+	if (etag.isPresent() && ETags.matches(ifNoneMatch, etag.get())) {
+	    return conditional(HttpStatus.NOT_MODIFIED, etag, REVALIDATE).build();
+	}
 	Pageable pageable = PageRequest.of(page, size, parseSort(sort));
-	return BasePageResponse.fromPage(versionService.list(id, pageable), "Versions fetched");
+	return conditional(HttpStatus.OK, etag, REVALIDATE)
+		.body(BasePageResponse.fromSlice(versionService.list(id, withTotal, pageable), "Versions fetched"));
     }
 
     @GetMapping("/articles/{id}/versions/{no}")
-    @Operation(summary = "Get a version (VIEWER only if article is PUBLISHED)")
-    public BaseResponse<VersionResponse> get(@PathVariable Long id, @PathVariable Integer no) {
-	return new BaseResponse<>(HttpStatus.OK.value(), "Version fetched", false, versionService.get(id, no));
+    @Operation(
+	    summary = "Get a version (VIEWER only if article is PUBLISHED)",
+	    description = "Versions never change once added: responses may be cached for a year, and If-None-Match returns 304."
+    )
+    public ResponseEntity<BaseResponse<VersionResponse>> get(@PathVariable Long id, @PathVariable Integer no,
+	    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+	Optional<String> etag = versionService.versionETag(id, no);
+	if (etag.isPresent() && ETags.matches(ifNoneMatch, etag.get())) {
+	    return conditional(HttpStatus.NOT_MODIFIED, etag, IMMUTABLE).build();
+	}
+	return conditional(HttpStatus.OK, etag, IMMUTABLE)
+		.body(new BaseResponse<>(HttpStatus.OK.value(), "Version fetched", false, versionService.get(id, no)));
+    }
+
+    @GetMapping("/articles/{id}/versions/{from}/diff/{to}")
+    @Operation(
+	    summary = "Diff two versions (VIEWER only if article is PUBLISHED)",
+	    description = "Hunks of changed lines with context, and word-level changes for edited lines. "
+		    + "Like versions, diffs never change: responses may be cached for a year, and If-None-Match returns 304."
+    )
+    public ResponseEntity<BaseResponse<VersionDiffResponse>> diff(@PathVariable Long id, @PathVariable Integer from,
+	    @PathVariable Integer to, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+	Optional<String> etag = versionService.diffETag(id, from, to);
+	if (etag.isPresent() && ETags.matches(ifNoneMatch, etag.get())) {
+	    return conditional(HttpStatus.NOT_MODIFIED, etag, IMMUTABLE).build();
+	}
+	return conditional(HttpStatus.OK, etag, IMMUTABLE)
+		.body(new BaseResponse<>(HttpStatus.OK.value(), "Diff computed", false, versionService.diff(id, from, to)));
+    }
+
+    private static ResponseEntity.BodyBuilder conditional(HttpStatus status, Optional<String> etag, CacheControl cacheControl) {
+	ResponseEntity.BodyBuilder builder = ResponseEntity.status(status);
+	// no ETag: the request ends in 404, which must not be cached
+	etag.ifPresent(t -> builder.eTag(t).cacheControl(cacheControl));
+	return builder;
     }
 
     private Sort parseSort(String sort) {
@@ -0,0 +1,77 @@
+package com.wiki.monowiki.wiki.diff;
+
+import com.wiki.monowiki.wiki.diff.MyersDiff.Match;
+
+import java.util.List;
+
+/**
+ * Compact line delta that turns a base text into a target text, as stored in article_versions.delta.
+ *
+ * The delta is a sequence of operations on the base's lines: {@code =n} copies the next n lines, {@code -n} skips
+ * them, and {@code +len:text} inserts exactly len characters. E.g. {@code =12-1+17:a changed line\n=40}.
+ */
+public final class LineDelta {
+
+    private LineDelta() {}
+
+    public static String encode(String base, String target) {
+	List<String> from = Tokens.lines(base);
+	List<String> to = Tokens.lines(target);
+	int[][] ids = Tokens.ids(from, to);
+
+	StringBuilder delta = new StringBuilder();
+	int a = 0;
+	int b = 0;
+	for (Match m : MyersDiff.matches(ids[0], ids[1])) {
+	    edit(delta, to, a, m.a(), b, m.b());
+	    delta.append('=').append(m.length());
+	    a = m.a() + m.length();
+	    b = m.b() + m.length();
+	}
+	edit(delta, to, a, from.size(), b, to.size());
+	return delta.toString();
+    }
+
+    /**
+     * @throws IllegalArgumentException when the delta is malformed or does not fit the base
+     */
+    public static String apply(String base, String delta) {
+	List<String> from = Tokens.lines(base);
+	StringBuilder out = new StringBuilder(base.length() + delta.length());
+	int line = 0;
+	int i = 0;
+	try {
+	    while (i < delta.length()) {
+		char op = delta.charAt(i++);
+		int end = i;
+		while (end < delta.length() && Character.isDigit(delta.charAt(end))) end++;
+		int n = Integer.parseInt(delta, i, end, 10);
+		i = end;
+		switch (op) {
+		    case '=' -> {
+			for (int k = 0; k < n; k++) out.append(from.get(line++));
+		    }
+		    case '-' -> line += n;
+		    case '+' -> {
+			if (delta.charAt(i++) != ':') throw new IllegalArgumentException();
+			out.append(delta, i, i + n);
+			i += n;
+		    }
+		    default -> throw new IllegalArgumentException();
+		}
+	    }
+	} catch (RuntimeException e) {
+	    throw new IllegalArgumentException("Malformed version delta", e);
+	}
+	if (line != from.size()) throw new IllegalArgumentException("Version delta does not match its base");
+	return out.toString();
+    }
+
+    private static void edit(StringBuilder delta, List<String> to, int a, int aEnd, int b, int bEnd) {
+	if (aEnd > a) delta.append('-').append(aEnd - a);
+	if (bEnd > b) {
+	    String inserted = String.join("", to.subList(b, bEnd));
+	    delta.append('+').append(inserted.length()).append(':').append(inserted);
+	}
+    }
+}
@@ -0,0 +1,169 @@
+package com.wiki.monowiki.wiki.diff;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Shortest edit script between two token sequences (Myers, "An O(ND) Difference Algorithm and Its Variations"), in
+ * the linear space variant: each step finds the middle snake of the remaining box and recurses on both halves, so
+ * memory is O(N + M) however far apart the sequences are.
+ *
+ * Tokens are ints (see {@link Tokens}); equal tokens mean equal lines or words.
+ */
+public final class MyersDiff {
+
+    /**
+     * {@code length} tokens equal in both sequences, from {@code a} in the first and {@code b} in the second.
+     */
+    public record Match(int a, int b, int length) {}
+
+    private static final int FORWARD = 0;
+    private static final int BACKWARD = 1;
+
+    private final int[] a;
+    private final int[] b;
+    private final int[] vf;
+    private final int[] vb;
+    private final int offset;
+    private final List<Match> matches = new ArrayList<>();
+
+    private MyersDiff(int[] a, int[] b) {
+	this.a = a;
+	this.b = b;
+	int max = (a.length + b.length + 1) / 2 + 1;
+	this.offset = max + 1;
+	this.vf = new int[2 * max + 3];
+	this.vb = new int[2 * max + 3];
+    }
+
+    /**
+     * Matching runs of a longest common subsequence, in order; everything between them is deleted from {@code a}
+     * or inserted from {@code b}. Adjacent runs are merged.
+     */
+    public static List<Match> matches(int[] a, int[] b) {
+	return matches(a, b, Integer.MAX_VALUE).orElseThrow();
+    }
+
+    /**
+     * As {@link #matches(int[], int[])}, or empty when more than {@code maxEdits} tokens would have to be deleted
+     * or inserted. Finding that out costs O((N + M) * maxEdits), however different the sequences are.
+     */
+    public static Optional<List<Match>> matches(int[] a, int[] b, int maxEdits) {
+	MyersDiff diff = new MyersDiff(a, b);
+	return diff.diff(0, 0, a.length, b.length, maxEdits) ? Optional.of(diff.matches) : Optional.empty();
+    }
+
+    /**
+     * Only the outermost call gets a real {@code maxEdits}: the boxes it splits into need fewer edits in total.
+     */
+    private boolean diff(int left, int top, int right, int bottom, int maxEdits) {
+	// common prefix and suffix need no search
+	int prefix = 0;
+	while (left + prefix < right && top + prefix < bottom && a[left + prefix] == b[top + prefix]) prefix++;
+	match(left, top, prefix);
+	left += prefix;
+	top += prefix;
+	int suffix = 0;
+	while (right - suffix > left && bottom - suffix > top && a[right - suffix - 1] == b[bottom - suffix - 1]) suffix++;
+	right -= suffix;
+	bottom -= suffix;
+
+	if (Math.abs((right - left) - (bottom - top)) > maxEdits) return false;
+	if (left < right && top < bottom) {
+	    int[] snake = middleSnake(left, top, right, bottom, maxEdits);
+	    if (snake == null) return false;
+	    diff(left, top, snake[0], snake[1], Integer.MAX_VALUE);
+	    // the snake's diagonal part: forward snakes start with their insert / delete step, backward ones end with it
+	    int dx = snake[2] - snake[0];
+	    int dy = snake[3] - snake[1];
+	    int length = Math.min(dx, dy);
+	    if (snake[4] == FORWARD) {
+		match(snake[2] - length, snake[3] - length, length);
+	    } else {
+		match(snake[0], snake[1], length);
+	    }
+	    diff(snake[2], snake[3], right, bottom, Integer.MAX_VALUE);
+	}
+
+	match(right, bottom, suffix);
+	return true;
+    }
+
+    /**
+     * Middle snake of the box as {start x, start y, end x, end y, direction}: at most one insert / delete and a run
+     * of equal tokens, lying on an optimal path half way between both corners. The step comes first when found
+     * searching forward, last when found searching backward. Null when the box needs more than {@code maxEdits}
+     * deletes and inserts: a snake found in round d lies on a path of 2d - 1 (forward) or 2d (backward) edits.
+     */
+    private int[] middleSnake(int left, int top, int right, int bottom, int maxEdits) {
+	int width = right - left;
+	int height = bottom - top;
+	int delta = width - height;
+	boolean odd = (delta & 1) != 0;
+	int max = (width + height + 1) / 2;
+	int rounds = Math.min(max, maxEdits / 2 + maxEdits % 2);
+
+	vf[offset + 1] = left;
+	vb[offset + 1] = bottom;
+	for (int d = 0; d <= rounds; d++) {
+	    for (int k = d; k >= -d; k -= 2) {
+		int px;
+		int x;
+		if (k == -d || (k != d && vf[offset + k - 1] < vf[offset + k + 1])) {
+		    px = x = vf[offset + k + 1];
+		} else {
+		    px = vf[offset + k - 1];
+		    x = px + 1;
+		}
+		int y = top + (x - left) - k;
+		int py = (d == 0 || x != px) ? y : y - 1;
+		while (x < right && y < bottom && a[x] == b[y]) {
+		    x++;
+		    y++;
+		}
+		vf[offset + k] = x;
+		int c = k - delta;
+		if (odd && c >= -(d - 1) && c <= d - 1 && y >= vb[offset + c]) {
+		    return new int[]{px, py, x, y, FORWARD};
+		}
+	    }
+
+	    for (int c = d; c >= -d; c -= 2) {
+		int k = c + delta;
+		int py;
+		int y;
+		if (c == -d || (c != d && vb[offset + c - 1] > vb[offset + c + 1])) {
+		    py = y = vb[offset + c + 1];
+		} else {
+		    py = vb[offset + c - 1];
+		    y = py - 1;
+		}
+		int x = left + (y - top) + k;
+		int px = (d == 0 || y != py) ? x : x + 1;
+		while (x > left && y > top && a[x - 1] == b[y - 1]) {
+		    x--;
+		    y--;
+		}
+		vb[offset + c] = y;
+		if (!odd && k >= -d && k <= d && x <= vf[offset + k]) {
+		    return 2 * d > maxEdits ? null : new int[]{x, y, px, py, BACKWARD};
+		}
+	    }
+	}
+	if (rounds < max) return null;
+	throw new IllegalStateException("no middle snake");
+    }
+
+    private void match(int x, int y, int length) {
+	if (length <= 0) return;
+	if (!matches.isEmpty()) {
+	    Match last = matches.getLast();
+	    if (last.a() + last.length() == x && last.b() + last.length() == y) {
+		matches.set(matches.size() - 1, new Match(last.a(), last.b(), last.length() + length));
+		return;
+	    }
+	}
+	matches.add(new Match(x, y, length));
+    }
+}
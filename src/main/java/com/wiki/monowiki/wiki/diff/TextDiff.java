@@ -0,0 +1,185 @@
+package com.wiki.monowiki.wiki.diff;
+
+import com.wiki.monowiki.wiki.diff.MyersDiff.Match;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Line diff of two texts grouped into hunks, like a unified diff, with word-level changes for changed lines.
+ *
+ * Lines come from {@link MyersDiff} over {@link Tokens#lines}. Within each changed block, the i-th deleted line is
+ * paired with the i-th inserted one, and the pair is diffed again over {@link Tokens#words} when they have most of
+ * their text in common (an edited line rather than a replaced one).
+ */
+public final class TextDiff {
+
+    public enum Op { EQUAL, DELETE, INSERT }
+
+    public record Segment(Op op, String text) {}
+
+    /**
+     * @param text  the line without its line terminator
+     * @param words for a changed line paired with a similar one: its text split into EQUAL and DELETE (or INSERT)
+     *              segments; null otherwise
+     */
+    public record Line(Op op, String text, List<Segment> words) {}
+
+    /**
+     * @param fromLine 1-based line of the old text the hunk starts at; fromCount lines of it are in the hunk
+     * @param toLine   1-based line of the new text the hunk starts at; toCount lines of it are in the hunk
+     */
+    public record Hunk(int fromLine, int fromCount, int toLine, int toCount, List<Line> lines) {}
+
+    public record Result(int added, int removed, List<Hunk> hunks) {}
+
+    // one edit script entry, with its position in both texts
+    private record Step(Line line, int a, int b) {}
+
+    private TextDiff() {}
+
+    /**
+     * @param context unchanged lines kept around each change; changes closer than twice that share a hunk
+     */
+    public static Result diff(String from, String to, int context) {
+	return diff(from, to, context, Integer.MAX_VALUE).orElseThrow();
+    }
+
+    /**
+     * As {@link #diff(String, String, int)}, or empty when more than {@code maxEdits} lines were deleted or inserted.
+     * An edited line gets no word changes when more than {@code maxEdits} of its words were.
+     */
+    public static Optional<Result> diff(String from, String to, int context, int maxEdits) {
+	List<String> a = Tokens.lines(from);
+	List<String> b = Tokens.lines(to);
+	int[][] ids = Tokens.ids(a, b);
+	Optional<List<Match>> matches = MyersDiff.matches(ids[0], ids[1], maxEdits);
+	if (matches.isEmpty()) return Optional.empty();
+
+	List<Step> steps = new ArrayList<>();
+	int x = 0;
+	int y = 0;
+	for (Match m : matches.get()) {
+	    change(steps, a, b, x, m.a(), y, m.b(), maxEdits);
+	    for (int k = 0; k < m.length(); k++) {
+		steps.add(new Step(new Line(Op.EQUAL, strip(a.get(m.a() + k)), null), m.a() + k, m.b() + k));
+	    }
+	    x = m.a() + m.length();
+	    y = m.b() + m.length();
+	}
+	change(steps, a, b, x, a.size(), y, b.size(), maxEdits);
+
+	int added = 0;
+	int removed = 0;
+	for (Step s : steps) {
+	    if (s.line().op() == Op.INSERT) added++;
+	    if (s.line().op() == Op.DELETE) removed++;
+	}
+	return Optional.of(new Result(added, removed, hunks(steps, context)));
+    }
+
+    private static void change(List<Step> steps, List<String> a, List<String> b, int fromA, int toA, int fromB, int toB, int maxEdits) {
+	int deleted = toA - fromA;
+	int inserted = toB - fromB;
+	List<List<Segment>[]> words = new ArrayList<>();
+	for (int i = 0; i < Math.min(deleted, inserted); i++) {
+	    words.add(words(strip(a.get(fromA + i)), strip(b.get(fromB + i)), maxEdits));
+	}
+	for (int i = 0; i < deleted; i++) {
+	    List<Segment> w = i < words.size() ? words.get(i)[0] : null;
+	    steps.add(new Step(new Line(Op.DELETE, strip(a.get(fromA + i)), w), fromA + i, fromB));
+	}
+	for (int i = 0; i < inserted; i++) {
+	    List<Segment> w = i < words.size() ? words.get(i)[1] : null;
+	    steps.add(new Step(new Line(Op.INSERT, strip(b.get(fromB + i)), w), toA, fromB + i));
+	}
+    }
+
+    /**
+     * Segments of both lines, or nulls when less than half of the longer line is unchanged or it needs more than
+     * {@code maxEdits} word edits.
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Segment>[] words(String from, String to, int maxEdits) {
+	List<String> a = Tokens.words(from);
+	List<String> b = Tokens.words(to);
+	int[][] ids = Tokens.ids(a, b);
+	Optional<List<Match>> matches = MyersDiff.matches(ids[0], ids[1], maxEdits);
+	if (matches.isEmpty()) return new List[]{null, null};
+
+	List<Segment> deleted = new ArrayList<>();
+	List<Segment> inserted = new ArrayList<>();
+	int equal = 0;
+	int x = 0;
+	int y = 0;
+	for (Match m : matches.get()) {
+	    append(deleted, Op.DELETE, a, x, m.a());
+	    append(inserted, Op.INSERT, b, y, m.b());
+	    String same = String.join("", a.subList(m.a(), m.a() + m.length()));
+	    append(deleted, Op.EQUAL, same);
+	    append(inserted, Op.EQUAL, same);
+	    equal += same.length();
+	    x = m.a() + m.length();
+	    y = m.b() + m.length();
+	}
+	append(deleted, Op.DELETE, a, x, a.size());
+	append(inserted, Op.INSERT, b, y, b.size());
+
+	if (2 * equal < Math.max(from.length(), to.length())) return new List[]{null, null};
+	return new List[]{deleted, inserted};
+    }
+
+    private static void append(List<Segment> segments, Op op, List<String> tokens, int from, int to) {
+	if (from < to) append(segments, op, String.join("", tokens.subList(from, to)));
+    }
+
+    private static void append(List<Segment> segments, Op op, String text) {
+	if (text.isEmpty()) return;
+	if (!segments.isEmpty() && segments.getLast().op() == op) {
+	    segments.set(segments.size() - 1, new Segment(op, segments.getLast().text() + text));
+	} else {
+	    segments.add(new Segment(op, text));
+	}
+    }
+
+    private static List<Hunk> hunks(List<Step> steps, int context) {
+	List<Hunk> hunks = new ArrayList<>();
+	int i = 0;
+	while (i < steps.size()) {
+	    if (steps.get(i).line().op() == Op.EQUAL) {
+		i++;
+		continue;
+	    }
+	    int start = Math.max(0, i - context);
+	    int lastChange = i;
+	    // extend over changes separated by at most 2 * context unchanged lines
+	    for (int j = i; j < steps.size() && j - lastChange <= 2 * context; j++) {
+		if (steps.get(j).line().op() != Op.EQUAL) lastChange = j;
+	    }
+	    int end = Math.min(steps.size(), lastChange + context + 1);
+	    hunks.add(hunk(steps.subList(start, end)));
+	    i = end;
+	}
+	return hunks;
+    }
+
+    private static Hunk hunk(List<Step> steps) {
+	int fromCount = 0;
+	int toCount = 0;
+	List<Line> lines = new ArrayList<>(steps.size());
+	for (Step s : steps) {
+	    if (s.line().op() != Op.INSERT) fromCount++;
+	    if (s.line().op() != Op.DELETE) toCount++;
+	    lines.add(s.line());
+	}
+	Step first = steps.getFirst();
+	return new Hunk(first.a() + 1, fromCount, first.b() + 1, toCount, lines);
+    }
+
+    private static String strip(String line) {
+	if (line.endsWith("\r\n")) return line.substring(0, line.length() - 2);
+	if (line.endsWith("\n")) return line.substring(0, line.length() - 1);
+	return line;
+    }
+}
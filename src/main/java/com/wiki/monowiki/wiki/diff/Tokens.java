@@ -0,0 +1,67 @@
+package com.wiki.monowiki.wiki.diff;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits text into diff tokens and numbers them, so {@link MyersDiff} compares ints instead of strings.
+ */
+public final class Tokens {
+
+    private Tokens() {}
+
+    /**
+     * Lines including their line terminator, so joining the tokens gives back the exact text.
+     */
+    public static List<String> lines(String text) {
+	List<String> lines = new ArrayList<>();
+	int start = 0;
+	for (int i = 0; i < text.length(); i++) {
+	    if (text.charAt(i) == '\n') {
+		lines.add(text.substring(start, i + 1));
+		start = i + 1;
+	    }
+	}
+	if (start < text.length()) lines.add(text.substring(start));
+	return lines;
+    }
+
+    /**
+     * Words, whitespace runs and single other characters, so joining the tokens gives back the exact text.
+     */
+    public static List<String> words(String text) {
+	List<String> words = new ArrayList<>();
+	int i = 0;
+	while (i < text.length()) {
+	    int start = i;
+	    char c = text.charAt(i);
+	    if (Character.isLetterOrDigit(c)) {
+		while (i < text.length() && Character.isLetterOrDigit(text.charAt(i))) i++;
+	    } else if (Character.isWhitespace(c)) {
+		while (i < text.length() && Character.isWhitespace(text.charAt(i))) i++;
+	    } else {
+		i += Character.charCount(text.codePointAt(i));
+	    }
+	    words.add(text.substring(start, i));
+	}
+	return words;
+    }
+
+    /**
+     * Ids for both token lists from one numbering: equal tokens get equal ids.
+     */
+    public static int[][] ids(List<String> a, List<String> b) {
+	Map<String, Integer> numbering = new HashMap<>();
+	return new int[][]{number(a, numbering), number(b, numbering)};
+    }
+
+    private static int[] number(List<String> tokens, Map<String, Integer> numbering) {
+	int[] ids = new int[tokens.size()];
+	for (int i = 0; i < ids.length; i++) {
+	    ids[i] = numbering.computeIfAbsent(tokens.get(i), t -> numbering.size());
+	}
+	return ids;
+    }
+}
@@ -20,6 +20,40 @@ public class ArticleDtos {
 
     public record TagSummary(Long id, String name) {}
 
+    /**
+     * Counters of the published article cache and of read coalescing, per instance since startup.
+     *
+     * @param loads     reads that ran the service (cache misses and non-PUBLISHED articles)
+     * @param coalesced reads that waited for an identical in-flight load instead of running their own
+     */
+    public record ArticleReadStats(
+	    boolean cacheEnabled,
+	    long cachedArticles,
+	    long cacheHits,
+	    long cacheMisses,
+	    long loads,
+	    long coalesced
+    ) {}
+
+    /**
+     * view=summary list row: no content, only the stored excerpt of the latest version.
+     */
+    public record ArticleSummaryResponse(
+	    Long id,
+	    String spaceKey,
+	    String slug,
+	    String title,
+	    ArticleStatus status,
+	    Integer currentVersionNo,
+	    String excerpt,
+	    List<TagSummary> tags,
+	    String createdBy,
+	    Instant createdAt,
+	    Instant updatedAt
+    ) {}
+
+    public record TitleSuggestion(Long id, String slug, String title, ArticleStatus status) {}
+
     public record ArticleResponse(
 	    Long id,
 	    String spaceKey,
@@ -15,6 +15,8 @@ public class ReviewDtos {
 	    String spaceKey,
 	    ArticleStatus articleStatus,
 	    ReviewStatus status,
+	    Integer versionNo,
+	    Integer baseVersionNo,
 	    String requestedBy,
 	    Instant requestedAt,
 	    String reviewedBy,
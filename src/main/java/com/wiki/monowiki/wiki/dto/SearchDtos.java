@@ -0,0 +1,79 @@
+package com.wiki.monowiki.wiki.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.wiki.monowiki.common.paging.CursorPage;
+import com.wiki.monowiki.wiki.dto.ArticleDtos.TagSummary;
+import com.wiki.monowiki.wiki.model.ArticleStatus;
+import org.springframework.data.domain.Page;
+
+import java.time.Instant;
+import java.util.List;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+
+public class SearchDtos {
+
+    /**
+     * A matched range inside {@code snippet}: {@code snippet.substring(start, start + length)}.
+     */
+    public record Highlight(int start, int length) {}
+
+    /**
+     * Like ArticleResponse, but carries a bounded snippet around the best match instead of the whole content.
+     * latestContent is only filled when the caller asks for it (includeContent=true).
+     */
+    public record SearchResultResponse(
+	    Long id,
+	    String spaceKey,
+	    String slug,
+	    String title,
+	    ArticleStatus status,
+	    Integer currentVersionNo,
+	    String snippet,
+	    List<Highlight> highlights,
+	    @JsonInclude(NON_NULL) String latestContent,
+	    List<TagSummary> tags,
+	    long currentVersionCommentCount,
+	    String createdBy,
+	    Instant createdAt,
+	    Instant updatedAt
+    ) {}
+
+    /**
+     * @param count matching articles (across all pages) carrying the tag
+     */
+    public record TagFacet(Long id, String name, int count) {}
+
+    /**
+     * @param facets tags on the matching articles, most common first; null while tag bitmaps are still loading
+     */
+    public record SearchResult(
+	    Page<SearchResultResponse> page,
+	    @JsonInclude(NON_NULL) List<TagFacet> facets
+    ) {}
+
+    public record SearchCacheStats(
+	    boolean enabled,
+	    long size,
+	    long hits,
+	    long misses,
+	    double hitRate,
+	    long evictions
+    ) {}
+
+    /**
+     * Keyset page of search results; incompleteSpaces as for GlobalSearchResult (always empty for one space).
+     */
+    public record CursorSearchResult(
+	    CursorPage<SearchResultResponse> page,
+	    List<String> incompleteSpaces
+    ) {}
+
+    /**
+     * @param incompleteSpaces space keys left out because they failed or missed the request deadline
+     */
+    public record GlobalSearchResult(
+	    Page<SearchResultResponse> page,
+	    List<String> incompleteSpaces
+    ) {}
+}
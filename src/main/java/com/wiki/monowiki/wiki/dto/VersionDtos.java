@@ -1,9 +1,15 @@
 package com.wiki.monowiki.wiki.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.wiki.monowiki.wiki.diff.TextDiff.Op;
+import com.wiki.monowiki.wiki.diff.TextDiff.Segment;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
 import java.time.Instant;
+import java.util.List;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
 
 public class VersionDtos {
 
@@ -19,4 +25,58 @@ public class VersionDtos {
 	    String createdBy,
 	    Instant createdAt
     ) {}
+
+    /**
+     * Version history entry, without the content (GET /articles/{id}/versions/{no} returns it).
+     *
+     * @param contentLength length of the content in chars; null for some versions stored before it was recorded
+     * @param contentHash   SHA-256 (hex) of the content; equal hashes mean equal content
+     */
+    public record VersionSummary(
+	    Long id,
+	    Long articleId,
+	    Integer versionNo,
+	    String createdBy,
+	    Instant createdAt,
+	    Integer contentLength,
+	    String contentHash,
+	    long commentCount
+    ) {}
+
+    /**
+     * Line diff from version fromVersionNo to toVersionNo, as hunks of changed lines with context.
+     *
+     * @param tooDifferent the versions differ in more lines than app.versions.diff.max-edits: no hunks, and the
+     *                     line counts are null
+     */
+    public record VersionDiffResponse(
+	    Long articleId,
+	    Integer fromVersionNo,
+	    Integer toVersionNo,
+	    Integer linesAdded,
+	    Integer linesRemoved,
+	    boolean tooDifferent,
+	    List<DiffHunk> hunks
+    ) {}
+
+    /**
+     * @param fromLine 1-based line of the old version the hunk starts at, fromCount lines of it in the hunk
+     * @param toLine   1-based line of the new version the hunk starts at, toCount lines of it in the hunk
+     */
+    public record DiffHunk(
+	    int fromLine,
+	    int fromCount,
+	    int toLine,
+	    int toCount,
+	    List<DiffLine> lines
+    ) {}
+
+    /**
+     * @param words only for an edited line: its text as EQUAL and DELETE (or INSERT) segments
+     */
+    public record DiffLine(
+	    Op op,
+	    String text,
+	    @JsonInclude(NON_NULL) List<Segment> words
+    ) {}
 }
@@ -48,6 +48,28 @@ public class Article {
     @Builder.Default
     private Integer currentVersionNo = 0;
 
+    /**
+     * Row of the current version (articles.current_version_id); null only before version #1 is saved.
+     */
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "current_version_id")
+    private ArticleVersion currentVersion;
+
+    /**
+     * Start of the current version's content (see ExcerptUtil); lets listings skip article_versions.content.
+     */
+    @Column(nullable = false, length = 300)
+    @Builder.Default
+    private String excerpt = "";
+
+    /**
+     * Bumped with every tag added to / removed from the article (part of its ETag); written only by
+     * ArticleRepository.bumpTagsVersion, so tag changes leave updatedAt alone.
+     */
+    @Column(name = "tags_version", nullable = false, insertable = false, updatable = false)
+    @Builder.Default
+    private Integer tagsVersion = 0;
+
     @Column(nullable = false, length = 80)
     private String createdBy;
 
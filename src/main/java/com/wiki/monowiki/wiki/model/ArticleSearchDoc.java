@@ -0,0 +1,56 @@
+package com.wiki.monowiki.wiki.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Search read model: one row per article with everything search needs.
+ *
+ * Written by SearchDocumentService from the wiki services; search_vector is computed by a DB trigger
+ * and intentionally not mapped.
+ *
+ * tag_ids is only written on insert and by ArticleSearchDocRepository's atomic array updates, never by an entity
+ * UPDATE: a document loaded before a concurrent tag change would otherwise write its stale tags back.
+ */
+@Entity
+@Table(name = "article_search_doc")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArticleSearchDoc {
+
+    @Id
+    @Column(name = "article_id")
+    private Long articleId;
+
+    @Column(name = "space_id", nullable = false)
+    private Long spaceId;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.NAMED_ENUM)
+    @Column(nullable = false, columnDefinition = "article_status")
+    private ArticleStatus status;
+
+    @Column(nullable = false, length = 200)
+    private String title;
+
+    @Column(nullable = false, columnDefinition = "text")
+    @Builder.Default
+    private String content = "";
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "tag_ids", nullable = false, updatable = false, columnDefinition = "bigint[]")
+    @Builder.Default
+    private List<Long> tagIds = new ArrayList<>();
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
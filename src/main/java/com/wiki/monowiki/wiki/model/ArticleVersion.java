@@ -29,8 +29,30 @@ public class ArticleVersion {
     @Column(name = "version_no", nullable = false)
     private Integer versionNo;
 
-    @Column(nullable = false, columnDefinition = "text")
-    private String content;
+    /**
+     * SHA-256 (hex) of the full content, whether stored as a blob or a delta; null only for delta rows older than V19.
+     */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    /**
+     * Length of the full content in chars (see V21); null for versions stored without a text blob before V21.
+     */
+    @Column(name = "content_length")
+    private Integer contentLength;
+
+    /**
+     * Full content (see V19); null when stored as {@link #delta}. Read through VersionContents, never directly.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "blob_hash")
+    private ContentBlob blob;
+
+    /**
+     * LineDelta that turns version {@code versionNo + 1}'s content into this one's (see V18).
+     */
+    @Column(columnDefinition = "text")
+    private String delta;
 
     @Column(nullable = false, length = 80)
     private String createdBy;
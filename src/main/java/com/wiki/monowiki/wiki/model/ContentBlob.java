@@ -0,0 +1,42 @@
+package com.wiki.monowiki.wiki.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+
+/**
+ * One distinct version body, keyed by the SHA-256 of its content (see V19). Written and reference counted only
+ * through ContentBlobRepository's native statements.
+ *
+ * The body is in exactly one of {@link #content} and {@link #compressed} (see V20); VersionContents decodes it only
+ * when the content is returned.
+ */
+@Entity
+@Immutable
+@Table(name = "content_blobs")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContentBlob {
+
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(columnDefinition = "text")
+    private String content;
+
+    @Column(columnDefinition = "bytea")
+    private byte[] compressed;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+}
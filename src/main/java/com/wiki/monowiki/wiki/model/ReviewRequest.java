@@ -34,6 +34,19 @@ public class ReviewRequest {
     @Builder.Default
     private ReviewStatus status = ReviewStatus.PENDING;
 
+    /**
+     * The version submitted for review (see V22); null for requests older than V22.
+     */
+    @Column(name = "version_no")
+    private Integer versionNo;
+
+    /**
+     * The version published when this one was submitted, i.e. what the review changes; null when the article had
+     * not been published.
+     */
+    @Column(name = "base_version_no")
+    private Integer baseVersionNo;
+
     @Column(nullable = false, length = 80)
     private String requestedBy;
 
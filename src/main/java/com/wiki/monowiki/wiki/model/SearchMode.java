@@ -0,0 +1,10 @@
+package com.wiki.monowiki.wiki.model;
+
+/**
+ * FULLTEXT matches whole words (stemmed) and ranks by relevance.
+ * SUBSTRING keeps the legacy case-insensitive "contains" match on title and latest content.
+ * FUZZY matches titles by trigram word similarity (partial words, misspellings).
+ */
+public enum SearchMode {
+    FULLTEXT, SUBSTRING, FUZZY
+}
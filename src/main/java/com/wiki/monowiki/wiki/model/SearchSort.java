@@ -0,0 +1,6 @@
+package com.wiki.monowiki.wiki.model;
+
+public enum SearchSort {
+    RELEVANCE,
+    RECENT
+}
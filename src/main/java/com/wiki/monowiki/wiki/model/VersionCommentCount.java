@@ -0,0 +1,33 @@
+package com.wiki.monowiki.wiki.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * Number of comments on one article version, maintained by CommentService (see V16).
+ */
+@Entity
+@Table(name = "version_comment_counts")
+@IdClass(VersionCommentCount.Key.class)
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class VersionCommentCount {
+
+    @Id
+    @Column(name = "article_id", nullable = false)
+    private Long articleId;
+
+    @Id
+    @Column(name = "version_no", nullable = false)
+    private Integer versionNo;
+
+    @Column(name = "comment_count", nullable = false)
+    private long commentCount;
+
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class Key implements Serializable {
+	private Long articleId;
+	private Integer versionNo;
+    }
+}
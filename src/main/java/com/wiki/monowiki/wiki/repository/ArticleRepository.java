@@ -3,12 +3,21 @@ package com.wiki.monowiki.wiki.repository;
 import com.wiki.monowiki.wiki.model.Article;
 import com.wiki.monowiki.wiki.model.ArticleStatus;
 import com.wiki.monowiki.wiki.model.Space;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ArticleRepository extends JpaRepository<Article, Long> {
@@ -19,57 +28,126 @@ public interface ArticleRepository extends JpaRepository<Article, Long> {
 
     Page<Article> findBySpaceAndStatus(Space space, ArticleStatus status, Pageable pageable);
 
+    // Slice variants skip the count query (withTotal=false)
+    Slice<Article> findSliceBySpace(Space space, Pageable pageable);
+
+    Slice<Article> findSliceBySpaceAndStatusNot(Space space, ArticleStatus status, Pageable pageable);
+
+    Slice<Article> findSliceBySpaceAndStatus(Space space, ArticleStatus status, Pageable pageable);
+
     Optional<Article> findBySpaceAndSlug(Space space, String slug);
 
     boolean existsBySpaceAndSlug(Space space, String slug);
 
-    @Query("""
-        select a from Article a
-        join ArticleVersion v
-          on v.article = a and v.versionNo = a.currentVersionNo
-        where a.space.spaceKey = :spaceKey
-          and (lower(a.title) like lower(concat('%', :q, '%'))
-               or lower(v.content) like lower(concat('%', :q, '%')))
-        """)
-    Page<Article> searchLatestInSpace(@Param("spaceKey") String spaceKey,
-            @Param("q") String q,
-            Pageable pageable);
+    @EntityGraph(attributePaths = "space")
+    Optional<Article> findWithSpaceById(Long id);
 
     /**
-     * Search across latest version but exclude soft-deleted (ARCHIVED) articles.
-     *
-     * Uses cast(status as string) to avoid PostgreSQL enum type-cast issues for literals.
+     * Columns of a summary list row; the projection queries below select only these (never version content).
      */
+    interface SummaryRow {
+	Long getId();
+	String getSlug();
+	String getTitle();
+	ArticleStatus getStatus();
+	Integer getCurrentVersionNo();
+	String getExcerpt();
+	String getCreatedBy();
+	Instant getCreatedAt();
+	Instant getUpdatedAt();
+    }
+
+    Page<SummaryRow> findSummaryBySpace(Space space, Pageable pageable);
+
+    Page<SummaryRow> findSummaryBySpaceAndStatus(Space space, ArticleStatus status, Pageable pageable);
+
+    Page<SummaryRow> findSummaryBySpaceAndStatusNot(Space space, ArticleStatus status, Pageable pageable);
+
+    Slice<SummaryRow> findSummarySliceBySpace(Space space, Pageable pageable);
+
+    Slice<SummaryRow> findSummarySliceBySpaceAndStatus(Space space, ArticleStatus status, Pageable pageable);
+
+    Slice<SummaryRow> findSummarySliceBySpaceAndStatusNot(Space space, ArticleStatus status, Pageable pageable);
+
+    // keyset (cursor) pages: no count query, the sort must end in a unique property (see KeysetCursor)
+    Window<Article> findBySpace(Space space, ScrollPosition position, Sort sort, Limit limit);
+
+    Window<Article> findBySpaceAndStatus(Space space, ArticleStatus status, ScrollPosition position, Sort sort, Limit limit);
+
+    Window<Article> findBySpaceAndStatusNot(Space space, ArticleStatus status, ScrollPosition position, Sort sort, Limit limit);
+
+    Window<SummaryRow> findSummaryBySpace(Space space, ScrollPosition position, Sort sort, Limit limit);
+
+    Window<SummaryRow> findSummaryBySpaceAndStatus(Space space, ArticleStatus status, ScrollPosition position, Sort sort, Limit limit);
+
+    Window<SummaryRow> findSummaryBySpaceAndStatusNot(Space space, ArticleStatus status, ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(attributePaths = "space")
+    List<Article> findWithSpaceByIdIn(Collection<Long> ids);
+
+    @Modifying
+    @Query("update Article a set a.tagsVersion = a.tagsVersion + 1 where a.id = :id")
+    void bumpTagsVersion(Long id);
+
+    /**
+     * Columns an article response's ETag is computed from; one row, no content or tags.
+     */
+    interface ETagState {
+	Long getId();
+	ArticleStatus getStatus();
+	Integer getCurrentVersionNo();
+	Instant getUpdatedAt();
+	Integer getTagsVersion();
+	Long getCommentCount();
+    }
+
     @Query("""
-        select a from Article a
-        join ArticleVersion v
-          on v.article = a and v.versionNo = a.currentVersionNo
-        where a.space.spaceKey = :spaceKey
-          and cast(a.status as string) <> 'ARCHIVED'
-          and (lower(a.title) like lower(concat('%', :q, '%'))
-               or lower(v.content) like lower(concat('%', :q, '%')))
-        """)
-    Page<Article> searchLatestNonArchivedInSpace(@Param("spaceKey") String spaceKey,
-            @Param("q") String q,
-            Pageable pageable);
+	    select a.id as id, a.status as status, a.currentVersionNo as currentVersionNo, a.updatedAt as updatedAt,
+	           a.tagsVersion as tagsVersion, coalesce(k.commentCount, 0) as commentCount
+	    from Article a
+	    left join VersionCommentCount k on k.articleId = a.id and k.versionNo = a.currentVersionNo
+	    where a.space.id = :spaceId and a.slug = :slug
+	    """)
+    Optional<ETagState> findETagStateBySpaceIdAndSlug(Long spaceId, String slug);
 
     /**
-     * IMPORTANT:
-     * Avoid comparing enum to enum literal in JPQL because Hibernate generates a PostgreSQL enum cast
-     * like 'PUBLISHED'::ArticleStatus which fails when DB enum type name differs.
-     *
-     * By casting the enum column to string, we compare to plain 'PUBLISHED' and no enum type cast is emitted.
+     * Status and version count; version and comment ETags are computed from these (versions never change).
      */
+    interface VersionState {
+	ArticleStatus getStatus();
+	Integer getCurrentVersionNo();
+    }
+
+    Optional<VersionState> findVersionStateById(Long id);
+
+    interface CommentState extends VersionState {
+	Long getCommentCount();
+    }
+
+    interface CommentListState extends CommentState {
+	Long getLastCommentId();
+    }
+
+    // counted from version_comments rather than the counter, which may drift until reconciled
     @Query("""
-        select a from Article a
-        join ArticleVersion v
-          on v.article = a and v.versionNo = a.currentVersionNo
-        where a.space.spaceKey = :spaceKey
-          and cast(a.status as string) = 'PUBLISHED'
-          and (lower(a.title) like lower(concat('%', :q, '%'))
-               or lower(v.content) like lower(concat('%', :q, '%')))
-        """)
-    Page<Article> searchLatestPublishedInSpace(@Param("spaceKey") String spaceKey,
-            @Param("q") String q,
-            Pageable pageable);
+	    select a.status as status, a.currentVersionNo as currentVersionNo,
+	           (select count(c) from VersionComment c where c.article.id = a.id and c.versionNo = :versionNo) as commentCount,
+	           (select coalesce(max(c.id), 0) from VersionComment c where c.article.id = a.id and c.versionNo = :versionNo) as lastCommentId
+	    from Article a
+	    where a.id = :id
+	    """)
+    Optional<CommentListState> findCommentState(Long id, Integer versionNo);
+
+    // comment count over all versions: the version history lists each version's count
+    @Query("""
+	    select a.status as status, a.currentVersionNo as currentVersionNo,
+	           (select coalesce(sum(k.commentCount), 0) from VersionCommentCount k where k.articleId = a.id) as commentCount
+	    from Article a
+	    where a.id = :id
+	    """)
+    Optional<CommentState> findHistoryState(Long id);
+
+    // keyset batches for the title suggest index rebuild
+    @EntityGraph(attributePaths = "space")
+    List<Article> findTop500ByStatusNotAndIdGreaterThanOrderByIdAsc(ArticleStatus status, Long afterId);
 }
@@ -0,0 +1,30 @@
+package com.wiki.monowiki.wiki.repository;
+
+import com.wiki.monowiki.wiki.model.ArticleSearchDoc;
+import com.wiki.monowiki.wiki.model.ArticleStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface ArticleSearchDocRepository extends JpaRepository<ArticleSearchDoc, Long>, ArticleSearchQueries {
+
+    // keyset batches for the in-memory index rebuild
+    List<ArticleSearchDoc> findTop500ByStatusAndArticleIdGreaterThanOrderByArticleIdAsc(ArticleStatus status, Long afterId);
+
+    // tag_ids changes are single statements, so concurrent tag changes and document refreshes cannot undo them
+    @Modifying
+    @Query(value = """
+	    update article_search_doc set tag_ids = array_append(tag_ids, :tagId)
+	    where article_id = :articleId and not (:tagId = any(tag_ids))
+	    """, nativeQuery = true)
+    int addTag(Long articleId, Long tagId);
+
+    @Modifying
+    @Query(value = """
+	    update article_search_doc set tag_ids = array_remove(tag_ids, :tagId)
+	    where article_id = :articleId and :tagId = any(tag_ids)
+	    """, nativeQuery = true)
+    int removeTag(Long articleId, Long tagId);
+}
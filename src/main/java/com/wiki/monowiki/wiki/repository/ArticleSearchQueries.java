@@ -0,0 +1,65 @@
+package com.wiki.monowiki.wiki.repository;
+
+import com.wiki.monowiki.wiki.model.SearchMode;
+import com.wiki.monowiki.wiki.model.SearchSort;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Search over the article_search_doc read model.
+ *
+ * Implemented with plain SQL (see ArticleSearchQueriesImpl) because tsvector operators have no JPQL equivalent
+ * and the WHERE clause is composed from the criteria instead of one query method per combination.
+ */
+public interface ArticleSearchQueries {
+
+    /** Wraps each FULLTEXT match in a snippet; control characters cannot collide with article text that matters. */
+    char MARK_START = '\u0002';
+    char MARK_END = '\u0003';
+
+    enum Visibility {
+	PUBLISHED_ONLY, NON_ARCHIVED, ALL
+    }
+
+    /**
+     * @param similarity FUZZY only: minimum pg_trgm word similarity (0..1) between the query and a title word
+     * @param tagIds     only articles carrying all of these tags match; empty for no tag filter
+     */
+    record Criteria(Long spaceId, String q, SearchMode mode, SearchSort sort, Visibility visibility, double similarity, List<Long> tagIds) {}
+
+    /**
+     * @param score relevance (ts_rank for FULLTEXT, word similarity for FUZZY), 0 for SUBSTRING
+     */
+    record Hit(Long articleId, double score, Instant updatedAt) {}
+
+    /**
+     * Pageable sort is ignored: RELEVANCE orders FULLTEXT and FUZZY by score, everything else is newest first.
+     * Must run inside a transaction: FUZZY sets its similarity threshold transaction-locally.
+     */
+    Page<Hit> search(Criteria criteria, Pageable pageable);
+
+    /**
+     * Keyset page in RECENT order ((updated_at, article_id) descending, whatever the criteria's sort): up to
+     * {@code limit} hits strictly after {@code after}, from the start when it is null. No count query.
+     * Same transaction rule as {@link #search}.
+     */
+    List<Hit> searchAfter(Criteria criteria, Hit after, int limit);
+
+    /**
+     * Ids of every article {@link #search} would match, unranked (for facet counts). Same transaction rule.
+     */
+    RoaringBitmap matchingIds(Criteria criteria);
+
+    /**
+     * Bounded excerpt of each article's latest content around its best match, keyed by article id.
+     * FULLTEXT excerpts come from ts_headline with matches wrapped in MARK_START / MARK_END. SUBSTRING returns an
+     * unmarked window around the first occurrence of q, FUZZY (a title match) the start of the content.
+     */
+    Map<Long, String> snippets(Collection<Long> articleIds, String q, SearchMode mode);
+}
@@ -0,0 +1,188 @@
+package com.wiki.monowiki.wiki.repository;
+
+import com.wiki.monowiki.wiki.model.SearchMode;
+import com.wiki.monowiki.wiki.model.SearchSort;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public class ArticleSearchQueriesImpl implements ArticleSearchQueries {
+
+    private static final String TS_QUERY = "websearch_to_tsquery('english', :q)";
+
+    // ts_headline parses the whole input, so very long articles are only searched for a snippet in their first part
+    private static final int SNIPPET_SCAN_CHARS = 100_000;
+    private static final int SNIPPET_WINDOW_CHARS = 240;
+    private static final String HEADLINE_OPTIONS = "StartSel=" + MARK_START + ", StopSel=" + MARK_END
+	    + ", MaxWords=35, MinWords=15, MaxFragments=1";
+
+    private static final RowMapper<Hit> HIT_MAPPER = (rs, i) -> new Hit(
+	    rs.getLong("article_id"),
+	    rs.getDouble("score"),
+	    rs.getTimestamp("updated_at").toInstant()
+    );
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public ArticleSearchQueriesImpl(NamedParameterJdbcTemplate jdbc) {
+	this.jdbc = jdbc;
+    }
+
+    @Override
+    public Page<Hit> search(Criteria criteria, Pageable pageable) {
+	MapSqlParameterSource params = new MapSqlParameterSource()
+		.addValue("spaceId", criteria.spaceId())
+		.addValue("limit", pageable.getPageSize())
+		.addValue("offset", pageable.getOffset());
+	String where = where(criteria, params);
+	applySimilarity(criteria);
+
+	List<Hit> hits = jdbc.query(
+		"select d.article_id, " + score(criteria.mode()) + " as score, d.updated_at"
+			+ " from article_search_doc d"
+			+ " where " + where
+			+ " order by " + order(criteria)
+			+ " limit :limit offset :offset",
+		params, HIT_MAPPER);
+
+	return PageableExecutionUtils.getPage(hits, pageable,
+		() -> jdbc.queryForObject("select count(*) from article_search_doc d where " + where, params, Long.class));
+    }
+
+    @Override
+    public List<Hit> searchAfter(Criteria criteria, Hit after, int limit) {
+	MapSqlParameterSource params = new MapSqlParameterSource()
+		.addValue("spaceId", criteria.spaceId())
+		.addValue("limit", limit);
+	String where = where(criteria, params);
+	if (Objects.nonNull(after)) {
+	    params.addValue("afterAt", OffsetDateTime.ofInstant(after.updatedAt(), ZoneOffset.UTC))
+		    .addValue("afterId", after.articleId());
+	    where += " and (d.updated_at, d.article_id) < (:afterAt, :afterId)";
+	}
+	applySimilarity(criteria);
+
+	return jdbc.query(
+		"select d.article_id, " + score(criteria.mode()) + " as score, d.updated_at"
+			+ " from article_search_doc d"
+			+ " where " + where
+			+ " order by d.updated_at desc, d.article_id desc"
+			+ " limit :limit",
+		params, HIT_MAPPER);
+    }
+
+    @Override
+    public RoaringBitmap matchingIds(Criteria criteria) {
+	MapSqlParameterSource params = new MapSqlParameterSource("spaceId", criteria.spaceId());
+	String where = where(criteria, params);
+	applySimilarity(criteria);
+
+	RoaringBitmap ids = new RoaringBitmap();
+	jdbc.query("select d.article_id from article_search_doc d where " + where, params,
+		rs -> {
+		    ids.add(Math.toIntExact(rs.getLong(1)));
+		});
+	return ids;
+    }
+
+    @Override
+    public Map<Long, String> snippets(Collection<Long> articleIds, String q, SearchMode mode) {
+	Map<Long, String> out = new HashMap<>();
+	if (articleIds.isEmpty()) return out;
+
+	MapSqlParameterSource params = new MapSqlParameterSource()
+		.addValue("ids", articleIds)
+		.addValue("q", q)
+		.addValue("scan", SNIPPET_SCAN_CHARS)
+		.addValue("window", SNIPPET_WINDOW_CHARS)
+		.addValue("before", SNIPPET_WINDOW_CHARS / 3)
+		.addValue("options", HEADLINE_OPTIONS);
+
+	String snippet = switch (mode) {
+	    case FULLTEXT -> "ts_headline('english', left(d.content, :scan), " + TS_QUERY + ", :options)";
+	    case SUBSTRING -> "substr(d.content, greatest(1, strpos(lower(d.content), lower(:q)) - :before), :window)";
+	    case FUZZY -> "left(d.content, :window)";
+	};
+
+	jdbc.query("select d.article_id, " + snippet + " as snippet from article_search_doc d where d.article_id in (:ids)",
+		params, rs -> {
+		    out.put(rs.getLong("article_id"), rs.getString("snippet"));
+		});
+	return out;
+    }
+
+    private void applySimilarity(Criteria c) {
+	if (c.mode() != SearchMode.FUZZY) return;
+	// the <% operator (and its GIN trigram index) uses this setting as its cut-off
+	jdbc.queryForObject("select set_config('pg_trgm.word_similarity_threshold', :threshold, true)",
+		new MapSqlParameterSource("threshold", String.valueOf(c.similarity())), String.class);
+    }
+
+    private String where(Criteria c, MapSqlParameterSource params) {
+	StringBuilder sql = new StringBuilder("d.space_id = :spaceId");
+
+	switch (c.visibility()) {
+	    case PUBLISHED_ONLY -> sql.append(" and d.status = 'PUBLISHED'");
+	    case NON_ARCHIVED -> sql.append(" and d.status <> 'ARCHIVED'");
+	    case ALL -> { }
+	}
+
+	if (!c.tagIds().isEmpty()) {
+	    // served by the GIN index on tag_ids
+	    params.addValue("tagIds", c.tagIds());
+	    sql.append(" and d.tag_ids @> cast(array[:tagIds] as bigint[])");
+	}
+
+	switch (c.mode()) {
+	    case SUBSTRING -> {
+		params.addValue("pattern", "%" + escapeLike(c.q()) + "%");
+		sql.append(" and (d.title ilike :pattern or d.content ilike :pattern)");
+	    }
+	    case FUZZY -> {
+		params.addValue("q", c.q());
+		sql.append(" and :q <% d.title");
+	    }
+	    case FULLTEXT -> {
+		params.addValue("q", c.q());
+		sql.append(" and d.search_vector @@ ").append(TS_QUERY);
+	    }
+	}
+	return sql.toString();
+    }
+
+    /**
+     * Normalization 1 divides by 1 + log(document length), the closest ts_rank gets to BM25's length normalization.
+     */
+    private String score(SearchMode mode) {
+	return switch (mode) {
+	    case SUBSTRING -> "0";
+	    case FUZZY -> "word_similarity(:q, d.title)";
+	    case FULLTEXT -> "ts_rank(d.search_vector, " + TS_QUERY + ", 1)";
+	};
+    }
+
+    private String order(Criteria c) {
+	return (c.mode() == SearchMode.SUBSTRING || c.sort() == SearchSort.RECENT)
+		? "d.updated_at desc, d.article_id desc"
+		: "score desc, d.updated_at desc, d.article_id desc";
+    }
+
+    /**
+     * The user's text is a literal, not a pattern: '%' and '_' must not act as wildcards.
+     */
+    private static String escapeLike(String q) {
+	return q.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
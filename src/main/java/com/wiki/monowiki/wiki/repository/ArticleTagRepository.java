@@ -4,14 +4,33 @@ import com.wiki.monowiki.wiki.model.Article;
 import com.wiki.monowiki.wiki.model.ArticleTag;
 import com.wiki.monowiki.wiki.model.Tag;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ArticleTagRepository extends JpaRepository<ArticleTag, Long> {
 
     boolean existsByArticleAndTag(Article article, Tag tag);
 
-    void deleteByArticleAndTag(Article article, Tag tag);
+    long deleteByArticleAndTag(Article article, Tag tag);
 
     List<ArticleTag> findByArticle(Article article);
+
+    interface TagOfArticle {
+	Long getArticleId();
+	Long getTagId();
+	String getTagName();
+    }
+
+    @Query("""
+	    select t.article.id as articleId, g.id as tagId, g.name as tagName
+	    from ArticleTag t join t.tag g
+	    where t.article.id in :articleIds
+	    order by t.id
+	    """)
+    List<TagOfArticle> findTagsByArticleIdIn(Collection<Long> articleIds);
+
+    /** Keyset batch for the tag bitmap rebuild; only ids of article and tag are read (no proxy initialization). */
+    List<ArticleTag> findTop500ByIdGreaterThanOrderByIdAsc(Long id);
 }
@@ -2,17 +2,67 @@ package com.wiki.monowiki.wiki.repository;
 
 import com.wiki.monowiki.wiki.model.Article;
 import com.wiki.monowiki.wiki.model.ArticleVersion;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ArticleVersionRepository extends JpaRepository<ArticleVersion, Long> {
 
-    Page<ArticleVersion> findByArticle(Article article, Pageable pageable);
+    /**
+     * One version history row: everything but the content, which is fetched per version.
+     */
+    interface VersionSummaryRow {
+	Long getId();
+	Integer getVersionNo();
+	String getCreatedBy();
+	Instant getCreatedAt();
+	Integer getContentLength();
+	String getContentHash();
+	Long getCommentCount();
+    }
+
+    String SUMMARY_QUERY = """
+	    select v.id as id, v.versionNo as versionNo, v.createdBy as createdBy, v.createdAt as createdAt,
+	           v.contentLength as contentLength, v.contentHash as contentHash, coalesce(k.commentCount, 0) as commentCount
+	    from ArticleVersion v
+	    left join VersionCommentCount k on k.articleId = v.article.id and k.versionNo = v.versionNo
+	    where v.article.id = :articleId
+	    """;
+
+    @Query(value = SUMMARY_QUERY, countQuery = "select count(v) from ArticleVersion v where v.article.id = :articleId")
+    Page<VersionSummaryRow> findSummariesByArticleId(Long articleId, Pageable pageable);
+
+    @Query(SUMMARY_QUERY)
+    Slice<VersionSummaryRow> findSummarySliceByArticleId(Long articleId, Pageable pageable);
 
     Optional<ArticleVersion> findByArticleAndVersionNo(Article article, Integer versionNo);
 
+    Optional<ArticleVersion> findByArticleIdAndVersionNo(Long articleId, Integer versionNo);
+
     Optional<ArticleVersion> findTopByArticleOrderByVersionNoDesc(Article article);
+
+    // the versions after a delta-stored one, up to the next row with full content
+    List<ArticleVersion> findByArticleAndVersionNoGreaterThanOrderByVersionNoAsc(Article article, Integer versionNo, Limit limit);
+
+    // the current version is never a delta, so its content is always in a blob
+    interface CurrentContent {
+	Long getArticleId();
+	String getContent();
+	byte[] getCompressed();
+    }
+
+    @Query("""
+	    select a.id as articleId, b.content as content, b.compressed as compressed
+	    from Article a join a.currentVersion v join v.blob b
+	    where a.id in :articleIds
+	    """)
+    List<CurrentContent> findCurrentContentByArticleIdIn(Collection<Long> articleIds);
 }
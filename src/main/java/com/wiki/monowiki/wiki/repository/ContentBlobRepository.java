@@ -0,0 +1,67 @@
+package com.wiki.monowiki.wiki.repository;
+
+import com.wiki.monowiki.wiki.model.ContentBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface ContentBlobRepository extends JpaRepository<ContentBlob, String> {
+
+    /**
+     * Adds a reference, storing the body if it is new. Atomic: concurrent saves of the same body serialize on the
+     * blob row.
+     */
+    @Modifying
+    @Query(value = """
+	    insert into content_blobs (hash, content, ref_count)
+	    values (:hash, :content, 1)
+	    on conflict (hash)
+	    do update set ref_count = content_blobs.ref_count + 1
+	    """, nativeQuery = true)
+    void retain(String hash, String content);
+
+    /**
+     * {@link #retain} for a body stored compressed.
+     */
+    @Modifying
+    @Query(value = """
+	    insert into content_blobs (hash, compressed, ref_count)
+	    values (:hash, :compressed, 1)
+	    on conflict (hash)
+	    do update set ref_count = content_blobs.ref_count + 1
+	    """, nativeQuery = true)
+    void retainCompressed(String hash, byte[] compressed);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "update content_blobs set ref_count = ref_count - 1 where hash = :hash", nativeQuery = true)
+    void release(String hash);
+
+    @Modifying
+    @Query(value = "delete from content_blobs where hash = :hash and ref_count <= 0", nativeQuery = true)
+    int deleteIfUnreferenced(String hash);
+
+    interface PlainBody {
+	String getHash();
+	String getContent();
+    }
+
+    // uncompressed bodies due for compression, in hash order from afterHash
+    @Query(value = """
+	    select hash, content
+	    from content_blobs
+	    where content is not null and length(content) >= :minChars and hash > :afterHash
+	    order by hash
+	    limit :batchSize
+	    """, nativeQuery = true)
+    List<PlainBody> findUncompressed(int minChars, String afterHash, int batchSize);
+
+    // no-op when the row is gone or already compressed
+    @Modifying
+    @Query(value = """
+	    update content_blobs set compressed = :compressed, content = null
+	    where hash = :hash and content is not null
+	    """, nativeQuery = true)
+    int storeCompressed(String hash, byte[] compressed);
+}
@@ -4,11 +4,29 @@ import com.wiki.monowiki.wiki.model.ReviewRequest;
 import com.wiki.monowiki.wiki.model.ReviewStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
 
 public interface ReviewRequestRepository extends JpaRepository<ReviewRequest, Long> {
 
     Page<ReviewRequest> findByStatus(ReviewStatus status, Pageable pageable);
 
+    Slice<ReviewRequest> findSliceByStatus(ReviewStatus status, Pageable pageable);
+
+    Slice<ReviewRequest> findSliceBy(Pageable pageable);
+
     boolean existsByArticleIdAndStatus(Long articleId, ReviewStatus status);
+
+    // the article's last published version
+    @Query("""
+	    select r.versionNo
+	    from ReviewRequest r
+	    where r.article.id = :articleId and r.status = :status and r.versionNo is not null
+	    order by r.reviewedAt desc, r.id desc
+	    limit 1
+	    """)
+    Optional<Integer> findLastVersionNo(Long articleId, ReviewStatus status);
 }
\ No newline at end of file
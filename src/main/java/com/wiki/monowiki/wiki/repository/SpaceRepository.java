@@ -1,6 +1,8 @@
 package com.wiki.monowiki.wiki.repository;
 
 import com.wiki.monowiki.wiki.model.Space;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.Optional;
@@ -10,4 +12,6 @@ public interface SpaceRepository extends JpaRepository<Space, Long> {
     Optional<Space> findBySpaceKey(String spaceKey);
 
     boolean existsBySpaceKey(String spaceKey);
+
+    Slice<Space> findSliceBy(Pageable pageable);
 }
@@ -1,8 +1,12 @@
 package com.wiki.monowiki.wiki.repository;
 
 import com.wiki.monowiki.wiki.model.Tag;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface TagRepository extends JpaRepository<Tag, Long> {
     boolean existsByNameIgnoreCase(String name);
+
+    Slice<Tag> findSliceBy(Pageable pageable);
 }
@@ -0,0 +1,71 @@
+package com.wiki.monowiki.wiki.repository;
+
+import com.wiki.monowiki.wiki.model.VersionCommentCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface VersionCommentCountRepository extends JpaRepository<VersionCommentCount, VersionCommentCount.Key> {
+
+    /**
+     * Atomic: concurrent comments on the same version serialize on the counter row instead of losing updates.
+     */
+    @Modifying
+    @Query(value = """
+	    insert into version_comment_counts (article_id, version_no, comment_count)
+	    values (:articleId, :versionNo, 1)
+	    on conflict (article_id, version_no)
+	    do update set comment_count = version_comment_counts.comment_count + 1
+	    """, nativeQuery = true)
+    void increment(Long articleId, Integer versionNo);
+
+    interface CommentCount {
+	Long getArticleId();
+	long getCount();
+    }
+
+    @Query("""
+	    select k.articleId as articleId, k.commentCount as count
+	    from VersionCommentCount k, Article a
+	    where a.id = k.articleId and a.id in :articleIds and k.versionNo = a.currentVersionNo
+	    """)
+    List<CommentCount> findCurrentVersionCountsByArticleIdIn(Collection<Long> articleIds);
+
+    /**
+     * Corrects every counter that differs from version_comments (or is missing) by adding the difference both had in
+     * this statement's snapshot, instead of overwriting: increments from comments that commit meanwhile are kept rather
+     * than rolled back to the count the statement saw.
+     *
+     * @return number of counters corrected
+     */
+    @Modifying
+    @Query(value = """
+	    insert into version_comment_counts (article_id, version_no, comment_count)
+	    select c.article_id, c.version_no, count(*) - coalesce(max(k.comment_count), 0)
+	    from version_comments c
+	    left join version_comment_counts k on k.article_id = c.article_id and k.version_no = c.version_no
+	    group by c.article_id, c.version_no
+	    having count(*) <> coalesce(max(k.comment_count), 0)
+	    on conflict (article_id, version_no)
+	    do update set comment_count = version_comment_counts.comment_count + excluded.comment_count
+	    """, nativeQuery = true)
+    int reconcileCounted();
+
+    /**
+     * Drops counters of versions that have no comments at all.
+     *
+     * @return number of counters removed
+     */
+    @Modifying
+    @Query(value = """
+	    delete from version_comment_counts k
+	    where not exists (
+	        select 1 from version_comments c
+	        where c.article_id = k.article_id and c.version_no = k.version_no
+	    )
+	    """, nativeQuery = true)
+    int deleteUncounted();
+}
@@ -0,0 +1,261 @@
+package com.wiki.monowiki.wiki.search;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The Snowball English ("Porter2") stemmer, i.e. the algorithm behind Postgres' {@code english_stem} dictionary.
+ *
+ * Words are expected lower-cased and free of apostrophes, which is what {@link Tokenizer} produces.
+ * Each step picks the longest matching suffix and gives up if its condition fails, as Snowball's {@code among} does.
+ */
+final class EnglishStemmer {
+
+    private static final Map<String, String> EXCEPTIONS = Map.ofEntries(
+	    Map.entry("skis", "ski"), Map.entry("skies", "sky"), Map.entry("dying", "die"),
+	    Map.entry("lying", "lie"), Map.entry("tying", "tie"), Map.entry("idly", "idl"),
+	    Map.entry("gently", "gentl"), Map.entry("ugly", "ugli"), Map.entry("early", "earli"),
+	    Map.entry("only", "onli"), Map.entry("singly", "singl"), Map.entry("sky", "sky"),
+	    Map.entry("news", "news"), Map.entry("howe", "howe"), Map.entry("atlas", "atlas"),
+	    Map.entry("cosmos", "cosmos"), Map.entry("bias", "bias"), Map.entry("andes", "andes")
+    );
+
+    /** Left alone once step 1a has run. */
+    private static final Set<String> INVARIANT_AFTER_1A = Set.of(
+	    "inning", "outing", "canning", "herring", "earring", "proceed", "exceed", "succeed"
+    );
+
+    private static final String[] REGION_PREFIXES = {"gener", "commun", "arsen"};
+
+    private static final String[] STEP_1A = {"sses", "ied", "ies", "us", "ss", "s"};
+    private static final String[] STEP_1B = {"eedly", "ingly", "edly", "eed", "ing", "ed"};
+    private static final String[] STEP_1B_TAIL = {"at", "bl", "iz", "bb", "dd", "ff", "gg", "mm", "nn", "pp", "rr", "tt"};
+    private static final String[] STEP_2 = {
+	    "ization", "ational", "fulness", "ousness", "iveness", "tional", "biliti", "lessli", "entli", "ation",
+	    "alism", "aliti", "ousli", "iviti", "fulli", "enci", "anci", "abli", "izer", "ator", "alli", "bli", "ogi", "li"
+    };
+    private static final String[] STEP_3 = {"ational", "tional", "alize", "icate", "iciti", "ative", "ical", "ness", "ful"};
+    private static final String[] STEP_4 = {
+	    "ement", "ance", "ence", "able", "ible", "ment", "ant", "ent", "ism", "ate", "iti", "ous", "ive", "ize", "ion",
+	    "al", "er", "ic"
+    };
+
+    private final StringBuilder b;
+    private int p1;
+    private int p2;
+
+    private EnglishStemmer(String word) {
+	this.b = new StringBuilder(word);
+    }
+
+    static String stem(String word) {
+	String exception = EXCEPTIONS.get(word);
+	if (exception != null) return exception;
+	if (word.length() < 3) return word;
+	return new EnglishStemmer(word).run();
+    }
+
+    private String run() {
+	boolean yFound = prelude();
+	markRegions();
+	step1a();
+	if (!INVARIANT_AFTER_1A.contains(b.toString())) {
+	    step1b();
+	    step1c();
+	    step2();
+	    step3();
+	    step4();
+	    step5();
+	}
+	String out = b.toString();
+	return yFound ? out.replace('Y', 'y') : out;
+    }
+
+    /** Marks consonant y's as {@code Y} so they don't count as vowels. */
+    private boolean prelude() {
+	boolean found = false;
+	for (int i = 0; i < b.length(); i++) {
+	    if (b.charAt(i) == 'y' && (i == 0 || isVowel(b.charAt(i - 1)))) {
+		b.setCharAt(i, 'Y');
+		found = true;
+	    }
+	}
+	return found;
+    }
+
+    private void markRegions() {
+	p1 = b.length();
+	p2 = b.length();
+	int start = -1;
+	for (String prefix : REGION_PREFIXES) {
+	    if (b.indexOf(prefix) == 0) start = prefix.length();
+	}
+	if (start < 0) start = regionAfter(0);
+	if (start < 0) return;
+	p1 = start;
+	int second = regionAfter(p1);
+	if (second >= 0) p2 = second;
+    }
+
+    /** Position after the first non-vowel that follows a vowel, searching from {@code from}; -1 when there is none. */
+    private int regionAfter(int from) {
+	int i = from;
+	while (i < b.length() && !isVowel(b.charAt(i))) i++;
+	while (i < b.length() && isVowel(b.charAt(i))) i++;
+	return i < b.length() ? i + 1 : -1;
+    }
+
+    private void step1a() {
+	String suffix = longest(STEP_1A);
+	if (suffix == null) return;
+	int start = b.length() - suffix.length();
+	switch (suffix) {
+	    case "sses" -> replace(suffix, "ss");
+	    case "ied", "ies" -> replace(suffix, start > 1 ? "i" : "ie");
+	    case "s" -> {
+		if (hasVowel(0, start - 1)) b.setLength(start);
+	    }
+	    default -> { }
+	}
+    }
+
+    private void step1b() {
+	String suffix = longest(STEP_1B);
+	if (suffix == null) return;
+	int start = b.length() - suffix.length();
+	if (suffix.startsWith("eed")) {
+	    if (start >= p1) replace(suffix, "ee");
+	    return;
+	}
+	if (!hasVowel(0, start)) return;
+	b.setLength(start);
+
+	String tail = longest(STEP_1B_TAIL);
+	if (tail != null && tail.charAt(0) != tail.charAt(1)) {
+	    b.append('e');
+	} else if (tail != null) {
+	    b.setLength(b.length() - 1);
+	} else if (p1 == b.length() && endsInShortSyllable(b.length())) {
+	    b.append('e');
+	}
+    }
+
+    private void step1c() {
+	int n = b.length();
+	if (n > 2 && (b.charAt(n - 1) == 'y' || b.charAt(n - 1) == 'Y') && !isVowel(b.charAt(n - 2))) {
+	    b.setCharAt(n - 1, 'i');
+	}
+    }
+
+    private void step2() {
+	String suffix = longest(STEP_2);
+	if (suffix == null || b.length() - suffix.length() < p1) return;
+	switch (suffix) {
+	    case "tional" -> replace(suffix, "tion");
+	    case "enci" -> replace(suffix, "ence");
+	    case "anci" -> replace(suffix, "ance");
+	    case "abli" -> replace(suffix, "able");
+	    case "entli" -> replace(suffix, "ent");
+	    case "izer", "ization" -> replace(suffix, "ize");
+	    case "ational", "ation", "ator" -> replace(suffix, "ate");
+	    case "alism", "aliti", "alli" -> replace(suffix, "al");
+	    case "fulness", "fulli" -> replace(suffix, "ful");
+	    case "ousli", "ousness" -> replace(suffix, "ous");
+	    case "iveness", "iviti" -> replace(suffix, "ive");
+	    case "biliti", "bli" -> replace(suffix, "ble");
+	    case "lessli" -> replace(suffix, "less");
+	    case "ogi" -> {
+		if (charBefore(suffix) == 'l') replace(suffix, "og");
+	    }
+	    case "li" -> {
+		if ("cdeghkmnrt".indexOf(charBefore(suffix)) >= 0) replace(suffix, "");
+	    }
+	    default -> { }
+	}
+    }
+
+    private void step3() {
+	String suffix = longest(STEP_3);
+	if (suffix == null || b.length() - suffix.length() < p1) return;
+	switch (suffix) {
+	    case "tional" -> replace(suffix, "tion");
+	    case "ational" -> replace(suffix, "ate");
+	    case "alize" -> replace(suffix, "al");
+	    case "icate", "iciti", "ical" -> replace(suffix, "ic");
+	    case "ful", "ness" -> replace(suffix, "");
+	    case "ative" -> {
+		if (b.length() - suffix.length() >= p2) replace(suffix, "");
+	    }
+	    default -> { }
+	}
+    }
+
+    private void step4() {
+	String suffix = longest(STEP_4);
+	if (suffix == null || b.length() - suffix.length() < p2) return;
+	if (suffix.equals("ion")) {
+	    char c = charBefore(suffix);
+	    if (c == 's' || c == 't') replace(suffix, "");
+	} else {
+	    replace(suffix, "");
+	}
+    }
+
+    private void step5() {
+	int n = b.length();
+	if (n == 0) return;
+	int start = n - 1;
+	char last = b.charAt(start);
+	if (last == 'e' && (start >= p2 || (start >= p1 && !endsInShortSyllable(start)))) {
+	    b.setLength(start);
+	} else if (last == 'l' && start >= p2 && start > 0 && b.charAt(start - 1) == 'l') {
+	    b.setLength(start);
+	}
+    }
+
+    /**
+     * Whether {@code b[0, end)} ends in a short syllable: non-vowel, vowel, then a non-vowel other than w, x or Y;
+     * or a vowel at the start of the word followed by a non-vowel.
+     */
+    private boolean endsInShortSyllable(int end) {
+	if (end >= 3) {
+	    char c = b.charAt(end - 1);
+	    return !isVowel(c) && c != 'w' && c != 'x' && c != 'Y' && isVowel(b.charAt(end - 2)) && !isVowel(b.charAt(end - 3));
+	}
+	return end == 2 && isVowel(b.charAt(0)) && !isVowel(b.charAt(1));
+    }
+
+    private String longest(String[] suffixes) {
+	String best = null;
+	for (String s : suffixes) {
+	    if ((best == null || s.length() > best.length()) && endsWith(s)) best = s;
+	}
+	return best;
+    }
+
+    private boolean endsWith(String s) {
+	int n = b.length();
+	return n >= s.length() && b.indexOf(s, n - s.length()) == n - s.length();
+    }
+
+    private char charBefore(String suffix) {
+	int i = b.length() - suffix.length() - 1;
+	return i >= 0 ? b.charAt(i) : 0;
+    }
+
+    private void replace(String suffix, String with) {
+	b.setLength(b.length() - suffix.length());
+	b.append(with);
+    }
+
+    private boolean hasVowel(int from, int to) {
+	for (int i = from; i < to; i++) {
+	    if (isVowel(b.charAt(i))) return true;
+	}
+	return false;
+    }
+
+    private static boolean isVowel(char c) {
+	return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u' || c == 'y';
+    }
+}
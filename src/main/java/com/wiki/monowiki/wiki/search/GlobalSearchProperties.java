@@ -0,0 +1,20 @@
+package com.wiki.monowiki.wiki.search;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param parallelism spaces searched concurrently by one cross-space search (each DB task holds a pool connection)
+ * @param timeout     per-request deadline; spaces that have not answered by then are left out of the response
+ * @param queueSize   space tasks of all running searches that may wait for a thread; beyond it a space is left out at
+ *                    once rather than queued behind work that would miss its deadline anyway
+ */
+@ConfigurationProperties(prefix = "app.search.global")
+public record GlobalSearchProperties(
+	@DefaultValue("4") int parallelism,
+	@DefaultValue("2s") Duration timeout,
+	@DefaultValue("256") int queueSize
+) {
+}
@@ -0,0 +1,99 @@
+package com.wiki.monowiki.wiki.search;
+
+import com.wiki.monowiki.wiki.search.Tokenizer.Token;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Parsed query, following the same syntax as websearch_to_tsquery:
+ * plain words are AND-ed, {@code "quoted text"} is a phrase, {@code or} joins alternatives and a leading
+ * {@code -} excludes. A word that tokenizes into several terms (e.g. {@code wi-fi}) is treated as a phrase.
+ *
+ * @param required clauses that must all match; each clause matches when any of its phrases does
+ * @param excluded clauses that must not match
+ */
+public record IndexQuery(List<List<List<Token>>> required, List<List<List<Token>>> excluded) {
+
+    public boolean isEmpty() {
+	return required.isEmpty() && excluded.isEmpty();
+    }
+
+    /** Distinct terms of the positive clauses (the ones that contribute to scoring). */
+    public Set<String> scoringTerms() {
+	Set<String> out = new LinkedHashSet<>();
+	for (List<List<Token>> clause : required) {
+	    for (List<Token> phrase : clause) {
+		for (Token t : phrase) out.add(t.term());
+	    }
+	}
+	return out;
+    }
+
+    public static IndexQuery parse(String q) {
+	List<List<List<Token>>> required = new ArrayList<>();
+	List<List<List<Token>>> excluded = new ArrayList<>();
+	if (q == null || q.isBlank()) return new IndexQuery(required, excluded);
+
+	List<List<Token>> current = null;
+	boolean currentNegated = false;
+	boolean pendingOr = false;
+
+	int i = 0;
+	while (i < q.length()) {
+	    char c = q.charAt(i);
+	    if (Character.isWhitespace(c)) {
+		i++;
+		continue;
+	    }
+
+	    boolean negated = false;
+	    if (c == '-') {
+		negated = true;
+		i++;
+		if (i >= q.length()) break;
+		c = q.charAt(i);
+	    }
+
+	    String raw;
+	    if (c == '"') {
+		int end = q.indexOf('"', i + 1);
+		if (end < 0) end = q.length();
+		raw = q.substring(i + 1, end);
+		i = end + 1;
+	    } else {
+		int end = i;
+		while (end < q.length() && !Character.isWhitespace(q.charAt(end)) && q.charAt(end) != '"') end++;
+		raw = q.substring(i, end);
+		i = end;
+		if (!negated && raw.toLowerCase(Locale.ROOT).equals("or")) {
+		    pendingOr = current != null;
+		    continue;
+		}
+	    }
+
+	    List<Token> phrase = relative(Tokenizer.tokens(raw));
+	    if (phrase.isEmpty()) continue;
+
+	    if (pendingOr && !negated && !currentNegated) {
+		current.add(phrase);
+	    } else {
+		current = new ArrayList<>();
+		current.add(phrase);
+		currentNegated = negated;
+		(negated ? excluded : required).add(current);
+	    }
+	    pendingOr = false;
+	}
+	return new IndexQuery(required, excluded);
+    }
+
+    private static List<Token> relative(List<Token> tokens) {
+	if (tokens.isEmpty()) return tokens;
+	int base = tokens.getFirst().position();
+	return tokens.stream().map(t -> new Token(t.term(), t.position() - base)).toList();
+    }
+}
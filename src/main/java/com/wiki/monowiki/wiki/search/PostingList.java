@@ -0,0 +1,109 @@
+package com.wiki.monowiki.wiki.search;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable, compressed posting list for one term in one field.
+ *
+ * Layout per entry (ascending doc id): varint(docId delta), varint(tf), tf x varint(position delta).
+ * Updates are copy-on-write; an article touches only the lists of its own terms.
+ */
+final class PostingList {
+
+    static final PostingList EMPTY = new PostingList(new byte[0], 0);
+
+    record Entry(long docId, int[] positions) {}
+
+    private final byte[] data;
+    private final int docCount;
+
+    private PostingList(byte[] data, int docCount) {
+	this.data = data;
+	this.docCount = docCount;
+    }
+
+    int docCount() {
+	return docCount;
+    }
+
+    int sizeInBytes() {
+	return data.length;
+    }
+
+    boolean isEmpty() {
+	return docCount == 0;
+    }
+
+    List<Entry> entries() {
+	List<Entry> out = new ArrayList<>(docCount);
+	int[] cursor = {0};
+	long docId = 0;
+	for (int i = 0; i < docCount; i++) {
+	    docId += readVarLong(cursor);
+	    int tf = (int) readVarLong(cursor);
+	    int[] positions = new int[tf];
+	    int position = 0;
+	    for (int p = 0; p < tf; p++) {
+		position += (int) readVarLong(cursor);
+		positions[p] = position;
+	    }
+	    out.add(new Entry(docId, positions));
+	}
+	return out;
+    }
+
+    PostingList with(long docId, int[] positions) {
+	List<Entry> entries = entries();
+	int i = 0;
+	while (i < entries.size() && entries.get(i).docId() < docId) i++;
+	if (i < entries.size() && entries.get(i).docId() == docId) {
+	    entries.set(i, new Entry(docId, positions));
+	} else {
+	    entries.add(i, new Entry(docId, positions));
+	}
+	return encode(entries);
+    }
+
+    PostingList without(long docId) {
+	List<Entry> entries = entries();
+	return entries.removeIf(e -> e.docId() == docId) ? encode(entries) : this;
+    }
+
+    static PostingList encode(List<Entry> sortedEntries) {
+	if (sortedEntries.isEmpty()) return EMPTY;
+	ByteArrayOutputStream out = new ByteArrayOutputStream(sortedEntries.size() * 4);
+	long previousDoc = 0;
+	for (Entry e : sortedEntries) {
+	    writeVarLong(out, e.docId() - previousDoc);
+	    previousDoc = e.docId();
+	    writeVarLong(out, e.positions().length);
+	    int previousPosition = 0;
+	    for (int p : e.positions()) {
+		writeVarLong(out, (long) p - previousPosition);
+		previousPosition = p;
+	    }
+	}
+	return new PostingList(out.toByteArray(), sortedEntries.size());
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long v) {
+	while ((v & ~0x7FL) != 0) {
+	    out.write((int) ((v & 0x7F) | 0x80));
+	    v >>>= 7;
+	}
+	out.write((int) v);
+    }
+
+    private long readVarLong(int[] cursor) {
+	long result = 0;
+	int shift = 0;
+	while (true) {
+	    byte b = data[cursor[0]++];
+	    result |= (long) (b & 0x7F) << shift;
+	    if ((b & 0x80) == 0) return result;
+	    shift += 7;
+	}
+    }
+}
@@ -0,0 +1,181 @@
+package com.wiki.monowiki.wiki.search;
+
+import com.wiki.monowiki.wiki.model.SearchSort;
+import com.wiki.monowiki.wiki.repository.ArticleSearchQueries.Hit;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongPredicate;
+
+/**
+ * In-process inverted index of PUBLISHED articles, one {@link SpaceSegment} per space.
+ *
+ * Membership only changes on review approval (article becomes PUBLISHED) and archive (leaves PUBLISHED);
+ * published content is immutable, so those two transitions are the only incremental updates needed.
+ * {@link #search} returns empty whenever the index cannot answer authoritatively (disabled, still rebuilding,
+ * or the space was dropped by the memory cap) and the caller falls back to the database.
+ *
+ * The index is per JVM: each instance keeps itself current from its own committed transactions.
+ */
+@Component
+@Slf4j
+public class PublishedArticleIndex {
+
+    private final SearchIndexProperties properties;
+    private final ConcurrentMap<Long, SpaceSegment> segments = new ConcurrentHashMap<>();
+    private final Set<Long> overCapacitySpaces = ConcurrentHashMap.newKeySet();
+
+    /** Updates seen while a rebuild is running; replayed onto the rebuilt segments before they go live. */
+    private final List<Runnable> pendingDuringRebuild = new ArrayList<>();
+    private boolean rebuilding;
+    private volatile boolean ready;
+
+    public PublishedArticleIndex(SearchIndexProperties properties) {
+	this.properties = properties;
+    }
+
+    public boolean isEnabled() {
+	return properties.enabled();
+    }
+
+    public boolean isReady() {
+	return ready;
+    }
+
+    /**
+     * Only the top {@code offset + size} matches are kept (bounded heap), the rest are only counted.
+     * Articles rejected by {@code filter} do not match.
+     */
+    public Optional<Page<Hit>> search(Long spaceId, String q, SearchSort sort, Pageable pageable, LongPredicate filter) {
+	if (!canAnswer(spaceId)) {
+	    return Optional.empty();
+	}
+
+	IndexQuery query = IndexQuery.parse(q);
+	SpaceSegment segment = segments.get(spaceId);
+	if (segment == null || query.isEmpty()) {
+	    return Optional.of(Page.empty(pageable));
+	}
+
+	int k = (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize());
+	SpaceSegment.TopHits top = segment.top(query, sort, k, filter);
+
+	List<SpaceSegment.Match> ranked = top.ranked();
+	int from = (int) Math.min(pageable.getOffset(), ranked.size());
+	List<Hit> content = ranked.subList(from, ranked.size()).stream()
+		.map(m -> new Hit(m.articleId(), m.score(), m.updatedAt()))
+		.toList();
+	return Optional.of(new PageImpl<>(content, pageable, top.total()));
+    }
+
+    /**
+     * Ids of all articles {@link #search} would match, for facet counts.
+     */
+    public Optional<RoaringBitmap> matchingIds(Long spaceId, String q, LongPredicate filter) {
+	if (!canAnswer(spaceId)) {
+	    return Optional.empty();
+	}
+
+	IndexQuery query = IndexQuery.parse(q);
+	SpaceSegment segment = segments.get(spaceId);
+	if (segment == null || query.isEmpty()) {
+	    return Optional.of(new RoaringBitmap());
+	}
+	return Optional.of(segment.matching(query, filter));
+    }
+
+    public void put(Long spaceId, Long articleId, String title, String content, Instant updatedAt) {
+	if (!properties.enabled()) return;
+	if (deferIfRebuilding(() -> put(spaceId, articleId, title, content, updatedAt))) return;
+	if (overCapacitySpaces.contains(spaceId)) return;
+
+	// an article never moves between spaces, but keep the index consistent if it ever did
+	segments.forEach((id, s) -> {
+	    if (!id.equals(spaceId)) s.remove(articleId);
+	});
+	segments.computeIfAbsent(spaceId, id -> new SpaceSegment()).put(articleId, title, content, updatedAt);
+	enforceCap(spaceId);
+    }
+
+    public void remove(Long articleId) {
+	if (!properties.enabled()) return;
+	if (deferIfRebuilding(() -> remove(articleId))) return;
+	segments.values().forEach(s -> s.remove(articleId));
+    }
+
+    /**
+     * Starts a rebuild: until {@link #replaceAll} runs, searches fall back to the database and updates are queued.
+     */
+    public synchronized void beginRebuild() {
+	rebuilding = true;
+	ready = false;
+	pendingDuringRebuild.clear();
+    }
+
+    /**
+     * Swaps in freshly built segments (largest-first spaces are dropped to stay under the memory cap),
+     * replays updates that arrived during the rebuild and marks the index ready.
+     */
+    public synchronized void replaceAll(Map<Long, SpaceSegment> rebuilt) {
+	segments.clear();
+	overCapacitySpaces.clear();
+
+	List<Map.Entry<Long, SpaceSegment>> bySize = new ArrayList<>(rebuilt.entrySet());
+	bySize.sort(Comparator.comparingLong(e -> e.getValue().approxBytes()));
+	long total = 0;
+	for (Map.Entry<Long, SpaceSegment> e : bySize) {
+	    long bytes = e.getValue().approxBytes();
+	    if (total + bytes > properties.maxBytes()) {
+		overCapacitySpaces.add(e.getKey());
+		log.warn("Search index: spaceId={} ({} bytes) exceeds the memory cap, searches there use the database", e.getKey(), bytes);
+		continue;
+	    }
+	    segments.put(e.getKey(), e.getValue());
+	    total += bytes;
+	}
+
+	rebuilding = false;
+	List<Runnable> replay = List.copyOf(pendingDuringRebuild);
+	pendingDuringRebuild.clear();
+	replay.forEach(Runnable::run);
+
+	ready = true;
+	log.info("Search index ready: {} spaces, {} articles, ~{} bytes", segments.size(), indexedArticles(), approxBytes());
+    }
+
+    public long approxBytes() {
+	return segments.values().stream().mapToLong(SpaceSegment::approxBytes).sum();
+    }
+
+    public int indexedArticles() {
+	return segments.values().stream().mapToInt(SpaceSegment::size).sum();
+    }
+
+    private boolean canAnswer(Long spaceId) {
+	return properties.enabled() && ready && !overCapacitySpaces.contains(spaceId);
+    }
+
+    private synchronized boolean deferIfRebuilding(Runnable update) {
+	if (!rebuilding) return false;
+	pendingDuringRebuild.add(update);
+	return true;
+    }
+
+    private void enforceCap(Long spaceId) {
+	long total = approxBytes();
+	if (total <= properties.maxBytes()) return;
+
+	segments.remove(spaceId);
+	overCapacitySpaces.add(spaceId);
+	log.warn("Search index: memory cap {} bytes reached ({}), spaceId={} now searched in the database until the next rebuild",
+		properties.maxBytes(), total, spaceId);
+    }
+}
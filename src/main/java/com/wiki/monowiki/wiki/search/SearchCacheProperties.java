@@ -0,0 +1,20 @@
+package com.wiki.monowiki.wiki.search;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param enabled    cache single-space search result pages in memory
+ * @param maxBytes   rough bound on the memory held by cached pages (snippets, includeContent bodies, facets); beyond it
+ *                   the least valuable entries are evicted (W-TinyLFU)
+ * @param ttl        upper bound on staleness for changes made by other instances, which never reach this cache's events
+ */
+@ConfigurationProperties(prefix = "app.search.cache")
+public record SearchCacheProperties(
+	@DefaultValue("true") boolean enabled,
+	@DefaultValue("33554432") long maxBytes,
+	@DefaultValue("5m") Duration ttl
+) {
+}
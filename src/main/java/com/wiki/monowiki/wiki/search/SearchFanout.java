@@ -0,0 +1,93 @@
+package com.wiki.monowiki.wiki.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs one task per space on a fixed-size pool with a bounded queue and collects what finishes before the deadline.
+ *
+ * A task that misses the deadline is abandoned, not interrupted: each task is handed the time left until the deadline
+ * and must bound its own work with it (e.g. as a transaction timeout, so the database cancels the query).
+ *
+ * Deliberately not an Executor bean: Spring Boot would then stop providing the default executor used by @Async.
+ */
+@Component
+@Slf4j
+public class SearchFanout implements DisposableBean {
+
+    /**
+     * @param completed  results by task name, in submission order
+     * @param incomplete names of tasks that failed or missed the deadline
+     */
+    public record Outcome<T>(Map<String, T> completed, List<String> incomplete) {}
+
+    private final ExecutorService executor;
+    private final long timeoutNanos;
+
+    public SearchFanout(GlobalSearchProperties properties) {
+	AtomicInteger n = new AtomicInteger();
+	int threads = Math.max(1, properties.parallelism());
+	this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+		new ArrayBlockingQueue<>(Math.max(1, properties.queueSize())), r -> {
+	    Thread t = new Thread(r, "search-fanout-" + n.incrementAndGet());
+	    t.setDaemon(true);
+	    return t;
+	});
+	this.timeoutNanos = properties.timeout().toNanos();
+    }
+
+    /**
+     * @param tasks by name; each is given the time left until the deadline when it starts
+     */
+    public <T> Outcome<T> run(Map<String, Function<Duration, T>> tasks) {
+	long deadline = System.nanoTime() + timeoutNanos;
+
+	Map<String, CompletableFuture<T>> futures = new LinkedHashMap<>();
+	tasks.forEach((name, task) -> futures.put(name, submit(task, deadline)));
+
+	Map<String, T> completed = new LinkedHashMap<>();
+	List<String> incomplete = new ArrayList<>();
+	for (Map.Entry<String, CompletableFuture<T>> e : futures.entrySet()) {
+	    try {
+		long remaining = Math.max(0, deadline - System.nanoTime());
+		completed.put(e.getKey(), e.getValue().get(remaining, TimeUnit.NANOSECONDS));
+	    } catch (TimeoutException ex) {
+		// drops it if still queued; a running task is stopped by its own timeout
+		e.getValue().cancel(false);
+		incomplete.add(e.getKey());
+	    } catch (ExecutionException | CancellationException ex) {
+		log.warn("Fan-out task '{}' failed: {}", e.getKey(), ex.getMessage());
+		incomplete.add(e.getKey());
+	    } catch (InterruptedException ex) {
+		Thread.currentThread().interrupt();
+		incomplete.add(e.getKey());
+	    }
+	}
+	return new Outcome<>(completed, incomplete);
+    }
+
+    private <T> CompletableFuture<T> submit(Function<Duration, T> task, long deadline) {
+	try {
+	    return CompletableFuture.supplyAsync(() -> {
+		long left = deadline - System.nanoTime();
+		// queued behind slower spaces past the deadline: not worth starting
+		if (left <= 0) throw new CancellationException("deadline passed before start");
+		return task.apply(Duration.ofNanos(left));
+	    }, executor);
+	} catch (RejectedExecutionException e) {
+	    return CompletableFuture.failedFuture(e);
+	}
+    }
+
+    @Override
+    public void destroy() {
+	executor.shutdownNow();
+    }
+}
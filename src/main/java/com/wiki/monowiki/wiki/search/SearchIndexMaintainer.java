@@ -0,0 +1,185 @@
+package com.wiki.monowiki.wiki.search;
+
+import com.wiki.monowiki.audit.service.WikiAuditEvent;
+import com.wiki.monowiki.wiki.model.Article;
+import com.wiki.monowiki.wiki.model.ArticleSearchDoc;
+import com.wiki.monowiki.wiki.model.ArticleTag;
+import com.wiki.monowiki.wiki.model.ArticleStatus;
+import com.wiki.monowiki.wiki.repository.ArticleRepository;
+import com.wiki.monowiki.wiki.repository.ArticleSearchDocRepository;
+import com.wiki.monowiki.wiki.repository.ArticleTagRepository;
+import com.wiki.monowiki.wiki.search.TitleSuggestIndex.Suggestion;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+
+import static org.springframework.transaction.event.TransactionPhase.AFTER_COMMIT;
+
+/**
+ * Keeps the in-memory search structures in sync: full rebuild on startup, then incremental updates from
+ * committed wiki events.
+ *
+ * - {@link PublishedArticleIndex}: loaded from article_search_doc; changes on review approval and archive.
+ * - {@link TitleSuggestIndex}: loaded from articles; changes on create, title update, review and (un)archive.
+ * - {@link TagBitmapIndex}: loaded from article_tags; changes on tag add / remove.
+ * - {@link SearchResultCache}: every event drops the cached pages of its space, after the indexes above are updated
+ *   so a page cached right after the drop cannot come from a stale index.
+ */
+@Component
+@Slf4j
+public class SearchIndexMaintainer {
+
+    private static final int REBUILD_BATCH = 500;
+
+    private final PublishedArticleIndex index;
+    private final TitleSuggestIndex suggestions;
+    private final ArticleSearchDocRepository docs;
+    private final ArticleRepository articles;
+    private final TagBitmapIndex tagBitmaps;
+    private final ArticleTagRepository articleTags;
+    private final SearchResultCache resultCache;
+
+    public SearchIndexMaintainer(PublishedArticleIndex index, TitleSuggestIndex suggestions,
+	    ArticleSearchDocRepository docs, ArticleRepository articles,
+	    TagBitmapIndex tagBitmaps, ArticleTagRepository articleTags, SearchResultCache resultCache) {
+	this.index = index;
+	this.suggestions = suggestions;
+	this.docs = docs;
+	this.articles = articles;
+	this.tagBitmaps = tagBitmaps;
+	this.articleTags = articleTags;
+	this.resultCache = resultCache;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+	rebuildSuggestions();
+	rebuildTags();
+	if (index.isEnabled()) rebuild();
+    }
+
+    public void rebuildTags() {
+	long started = System.nanoTime();
+	tagBitmaps.beginRebuild();
+
+	Map<Long, RoaringBitmap> byTag = new HashMap<>();
+	long afterId = 0;
+	int loaded = 0;
+	List<ArticleTag> batch;
+	do {
+	    batch = articleTags.findTop500ByIdGreaterThanOrderByIdAsc(afterId);
+	    for (ArticleTag t : batch) {
+		byTag.computeIfAbsent(t.getTag().getId(), id -> new RoaringBitmap()).add(TagBitmapIndex.bit(t.getArticle().getId()));
+		afterId = t.getId();
+	    }
+	    loaded += batch.size();
+	} while (batch.size() == REBUILD_BATCH);
+
+	tagBitmaps.replaceAll(byTag);
+	log.info("Tag bitmaps rebuilt from {} article tags in {} ms", loaded, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public void rebuildSuggestions() {
+	long started = System.nanoTime();
+	suggestions.beginRebuild();
+
+	Map<String, List<Suggestion>> bySpace = new HashMap<>();
+	long afterId = 0;
+	int loaded = 0;
+	List<Article> batch;
+	do {
+	    batch = articles.findTop500ByStatusNotAndIdGreaterThanOrderByIdAsc(ArticleStatus.ARCHIVED, afterId);
+	    for (Article a : batch) {
+		bySpace.computeIfAbsent(a.getSpace().getSpaceKey(), k -> new ArrayList<>()).add(suggestion(a));
+		afterId = a.getId();
+	    }
+	    loaded += batch.size();
+	} while (batch.size() == REBUILD_BATCH);
+
+	suggestions.replaceAll(bySpace).forEach(this::refreshSuggestion);
+	log.info("Title suggest index rebuilt from {} articles in {} ms", loaded, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public void rebuild() {
+	long started = System.nanoTime();
+	index.beginRebuild();
+
+	Map<Long, SpaceSegment.Builder> builders = new HashMap<>();
+	long afterId = 0;
+	int loaded = 0;
+	List<ArticleSearchDoc> batch;
+	do {
+	    batch = docs.findTop500ByStatusAndArticleIdGreaterThanOrderByArticleIdAsc(ArticleStatus.PUBLISHED, afterId);
+	    for (ArticleSearchDoc d : batch) {
+		builders.computeIfAbsent(d.getSpaceId(), id -> new SpaceSegment.Builder())
+			.add(d.getArticleId(), d.getTitle(), d.getContent(), d.getUpdatedAt());
+		afterId = d.getArticleId();
+	    }
+	    loaded += batch.size();
+	} while (batch.size() == REBUILD_BATCH);
+
+	Map<Long, SpaceSegment> segments = new HashMap<>();
+	builders.forEach((spaceId, b) -> segments.put(spaceId, b.build()));
+	index.replaceAll(segments);
+
+	log.info("Search index rebuilt from {} published articles in {} ms", loaded, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(phase = AFTER_COMMIT)
+    public void onEvent(WikiAuditEvent e) {
+	if (Objects.nonNull(e.articleId())) updateIndexes(e);
+	// results also show tags and comment counts, so any change in the space can alter a cached page
+	if (Objects.nonNull(e.spaceKey())) resultCache.invalidate(e.spaceKey());
+    }
+
+    private void updateIndexes(WikiAuditEvent e) {
+	try {
+	    switch (e.eventType()) {
+		case ARTICLE_CREATED, ARTICLE_TITLE_UPDATED, ARTICLE_ARCHIVED, ARTICLE_UNARCHIVED,
+		     REVIEW_SUBMITTED, REVIEW_APPROVED, REVIEW_REJECTED -> refreshSuggestion(e.articleId());
+		case TAG_ADDED_TO_ARTICLE -> tagBitmaps.add(e.entityId(), e.articleId());
+		case TAG_REMOVED_FROM_ARTICLE -> tagBitmaps.remove(e.entityId(), e.articleId());
+		default -> {
+		    // versions and comments do not change title, status or tags
+		}
+	    }
+
+	    if (index.isEnabled()) updatePublishedIndex(e);
+	} catch (RuntimeException ex) {
+	    // the change is committed; a stale in-memory entry must not fail the request (next rebuild fixes it)
+	    log.warn("Search index update failed for articleId={} event={}", e.articleId(), e.eventType(), ex);
+	}
+    }
+
+    private void updatePublishedIndex(WikiAuditEvent e) {
+	switch (e.eventType()) {
+	    case REVIEW_APPROVED -> docs.findById(e.articleId())
+		    .filter(d -> d.getStatus() == ArticleStatus.PUBLISHED)
+		    .ifPresent(d -> index.put(d.getSpaceId(), d.getArticleId(), d.getTitle(), d.getContent(), d.getUpdatedAt()));
+	    case ARTICLE_ARCHIVED -> index.remove(e.articleId());
+	    default -> {
+		// other events never change the set or content of PUBLISHED articles
+	    }
+	}
+    }
+
+    private void refreshSuggestion(Long articleId) {
+	Optional<Article> a = articles.findWithSpaceById(articleId);
+	if (a.isEmpty() || a.get().getStatus() == ArticleStatus.ARCHIVED) {
+	    suggestions.remove(articleId);
+	} else {
+	    suggestions.put(a.get().getSpace().getSpaceKey(), suggestion(a.get()));
+	}
+    }
+
+    private static Suggestion suggestion(Article a) {
+	return new Suggestion(a.getId(), a.getSlug(), a.getTitle(), a.getStatus());
+    }
+}
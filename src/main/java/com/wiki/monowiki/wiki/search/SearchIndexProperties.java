@@ -0,0 +1,15 @@
+package com.wiki.monowiki.wiki.search;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param enabled  serve VIEWER full-text queries from the in-process index of PUBLISHED articles
+ * @param maxBytes approximate memory cap; a space that would push the index past it falls back to the database
+ */
+@ConfigurationProperties(prefix = "app.search.index")
+public record SearchIndexProperties(
+	@DefaultValue("false") boolean enabled,
+	@DefaultValue("134217728") long maxBytes
+) {
+}
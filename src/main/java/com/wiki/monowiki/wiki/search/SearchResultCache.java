@@ -0,0 +1,127 @@
+package com.wiki.monowiki.wiki.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.wiki.monowiki.wiki.dto.ArticleDtos.TagSummary;
+import com.wiki.monowiki.wiki.dto.SearchDtos.SearchCacheStats;
+import com.wiki.monowiki.wiki.dto.SearchDtos.SearchResult;
+import com.wiki.monowiki.wiki.dto.SearchDtos.SearchResultResponse;
+import com.wiki.monowiki.wiki.dto.SearchDtos.TagFacet;
+import com.wiki.monowiki.wiki.model.SearchMode;
+import com.wiki.monowiki.wiki.model.SearchSort;
+import com.wiki.monowiki.wiki.repository.ArticleSearchQueries.Visibility;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache of single-space search result pages, bounded by their approximate size in bytes: an includeContent page holds
+ * whole article bodies and weighs accordingly.
+ *
+ * Entries are keyed by the space's current generation. Invalidating a space bumps the generation before dropping its
+ * entries, so a search that started before the change can only store its (stale) page under the old generation,
+ * where no later lookup will find it.
+ */
+@Component
+public class SearchResultCache {
+
+    public record Key(
+	    String spaceKey,
+	    long generation,
+	    String q,
+	    SearchMode mode,
+	    SearchSort sort,
+	    double similarity,
+	    List<Long> tagIds,
+	    Visibility visibility,
+	    boolean includeContent,
+	    int page,
+	    int size
+    ) {}
+
+    private final boolean enabled;
+    private final Cache<Key, SearchResult> cache;
+    private final ConcurrentMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public SearchResultCache(SearchCacheProperties props) {
+	this.enabled = props.enabled();
+	this.cache = Caffeine.newBuilder()
+		.maximumWeight(props.maxBytes())
+		.weigher((Key k, SearchResult r) -> weight(r))
+		.expireAfterWrite(props.ttl())
+		.recordStats()
+		.build();
+    }
+
+    /**
+     * Builds the key for a search in the space's current generation. Every search mode matches case-insensitively,
+     * so queries differing only in case share an entry; FULLTEXT and FUZZY also ignore extra whitespace.
+     */
+    public Key key(String spaceKey, String q, SearchMode mode, SearchSort sort, double similarity, List<Long> tagIds,
+	    Visibility visibility, boolean includeContent, int page, int size) {
+	return new Key(spaceKey, generation(spaceKey).get(), normalize(q, mode), mode, sort, similarity, tagIds, visibility,
+		includeContent, page, size);
+    }
+
+    public SearchResult get(Key key, Supplier<SearchResult> loader) {
+	if (!enabled) return loader.get();
+	// not cache.get(key, loader): a slow search must not block other keys hashing to the same bin
+	SearchResult cached = cache.getIfPresent(key);
+	if (Objects.nonNull(cached)) return cached;
+
+	SearchResult loaded = loader.get();
+	if (generation(key.spaceKey()).get() == key.generation()) {
+	    cache.put(key, loaded);
+	}
+	return loaded;
+    }
+
+    public void invalidate(String spaceKey) {
+	generation(spaceKey).incrementAndGet();
+	cache.asMap().keySet().removeIf(k -> k.spaceKey().equals(spaceKey));
+    }
+
+    public SearchCacheStats stats() {
+	CacheStats s = cache.stats();
+	return new SearchCacheStats(enabled, cache.estimatedSize(), s.hitCount(), s.missCount(), s.hitRate(), s.evictionCount());
+    }
+
+    private AtomicLong generation(String spaceKey) {
+	return generations.computeIfAbsent(spaceKey, k -> new AtomicLong());
+    }
+
+    // chars are 2 bytes; a rough 48 bytes of overhead per object, 256 per hit
+    private static int weight(SearchResult r) {
+	long bytes = 128;
+	for (SearchResultResponse hit : r.page().getContent()) {
+	    bytes += 256 + 2L * (chars(hit.spaceKey()) + chars(hit.slug()) + chars(hit.title()) + chars(hit.snippet())
+		    + chars(hit.latestContent()) + chars(hit.createdBy()));
+	    if (Objects.nonNull(hit.highlights())) bytes += 48L * hit.highlights().size();
+	    if (Objects.nonNull(hit.tags())) {
+		for (TagSummary t : hit.tags()) bytes += 48 + 2L * chars(t.name());
+	    }
+	}
+	if (Objects.nonNull(r.facets())) {
+	    for (TagFacet f : r.facets()) bytes += 48 + 2L * chars(f.name());
+	}
+	return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private static int chars(String s) {
+	return Objects.isNull(s) ? 0 : s.length();
+    }
+
+    static String normalize(String q, SearchMode mode) {
+	if (Objects.isNull(q)) return "";
+	String lower = q.toLowerCase(Locale.ROOT);
+	// SUBSTRING matches q literally, spaces included
+	return mode == SearchMode.SUBSTRING ? lower : lower.trim().replaceAll("\\s+", " ");
+    }
+}
@@ -0,0 +1,70 @@
+package com.wiki.monowiki.wiki.search;
+
+import com.wiki.monowiki.wiki.dto.SearchDtos.Highlight;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.wiki.monowiki.wiki.repository.ArticleSearchQueries.MARK_END;
+import static com.wiki.monowiki.wiki.repository.ArticleSearchQueries.MARK_START;
+
+/**
+ * Turns raw excerpts from ArticleSearchQueries.snippets into display text plus highlight offsets.
+ */
+public final class Snippets {
+
+    public static final int MAX_LENGTH = 400;
+
+    public record Snippet(String text, List<Highlight> highlights) {
+	public static final Snippet EMPTY = new Snippet("", List.of());
+    }
+
+    private Snippets() {}
+
+    /** Strips MARK_START / MARK_END, recording what they enclosed. */
+    public static Snippet fromMarked(String marked) {
+	if (marked == null) return Snippet.EMPTY;
+
+	StringBuilder text = new StringBuilder(marked.length());
+	List<Highlight> highlights = new ArrayList<>();
+	int start = -1;
+	for (int i = 0; i < marked.length(); i++) {
+	    char c = marked.charAt(i);
+	    if (c == MARK_START) {
+		start = text.length();
+	    } else if (c == MARK_END) {
+		if (start >= 0 && text.length() > start) highlights.add(new Highlight(start, text.length() - start));
+		start = -1;
+	    } else {
+		text.append(c);
+	    }
+	}
+	return bounded(text.toString(), highlights);
+    }
+
+    /** Highlights every case-insensitive occurrence of {@code q} in a plain window. */
+    public static Snippet fromWindow(String window, String q) {
+	if (window == null) return Snippet.EMPTY;
+
+	List<Highlight> highlights = new ArrayList<>();
+	if (q != null && !q.isEmpty()) {
+	    for (int i = 0; i + q.length() <= window.length(); ) {
+		if (window.regionMatches(true, i, q, 0, q.length())) {
+		    highlights.add(new Highlight(i, q.length()));
+		    i += q.length();
+		} else {
+		    i++;
+		}
+	    }
+	}
+	return bounded(window, highlights);
+    }
+
+    private static Snippet bounded(String text, List<Highlight> highlights) {
+	if (text.length() <= MAX_LENGTH) return new Snippet(text, List.copyOf(highlights));
+	List<Highlight> kept = highlights.stream()
+		.filter(h -> h.start() + h.length() <= MAX_LENGTH)
+		.toList();
+	return new Snippet(text.substring(0, MAX_LENGTH), kept);
+    }
+}
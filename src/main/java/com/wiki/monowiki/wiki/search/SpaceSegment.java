@@ -0,0 +1,387 @@
+package com.wiki.monowiki.wiki.search;
+
+import com.wiki.monowiki.wiki.model.SearchSort;
+import com.wiki.monowiki.wiki.search.Tokenizer.Token;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Inverted index of the PUBLISHED articles of one space.
+ *
+ * Title and body have separate term dictionaries so a phrase never spans fields. Readers share a read lock;
+ * an article add/remove rewrites only the posting lists of that article's terms under the write lock.
+ *
+ * Relevance is BM25F over the two fields (title hits weigh {@link #TITLE_WEIGHT} times a body hit). The statistics
+ * it needs (document frequency per term, summed field lengths) are maintained on every add/remove, so a query
+ * never scans the segment to compute them.
+ */
+final class SpaceSegment {
+
+    /** Rough per-entry JVM overhead (map node, key object, list header) used for the memory estimate. */
+    private static final int TERM_OVERHEAD_BYTES = 96;
+    private static final int DOC_OVERHEAD_BYTES = 128;
+    private static final int DF_OVERHEAD_BYTES = 48;
+
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+    static final double TITLE_WEIGHT = 3.0;
+
+    private static final Comparator<Match> BY_RECENCY =
+	    Comparator.comparing(Match::updatedAt).thenComparingLong(Match::articleId);
+    private static final Comparator<Match> BY_RELEVANCE =
+	    Comparator.comparingDouble(Match::score).thenComparing(BY_RECENCY);
+
+    record Match(long articleId, double score, Instant updatedAt) {}
+
+    /**
+     * @param ranked best-first, at most k entries
+     * @param total  number of matching articles
+     */
+    record TopHits(List<Match> ranked, int total) {}
+
+    private record Doc(Instant updatedAt, int titleLength, int bodyLength, String[] titleTerms, String[] bodyTerms) {}
+
+    /** Decoded postings of the query's terms, per field; loaded once per query. */
+    private record Postings(Map<String, Map<Long, int[]>> title, Map<String, Map<Long, int[]>> body) {}
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, PostingList> titlePostings;
+    private final Map<String, PostingList> bodyPostings;
+    private final Map<Long, Doc> docs;
+    private final Map<String, Integer> docFreq = new HashMap<>();
+    private long totalTitleLength;
+    private long totalBodyLength;
+    private long approxBytes;
+
+    SpaceSegment() {
+	this(new HashMap<>(), new HashMap<>(), new HashMap<>());
+    }
+
+    private SpaceSegment(Map<String, PostingList> titlePostings, Map<String, PostingList> bodyPostings, Map<Long, Doc> docs) {
+	this.titlePostings = titlePostings;
+	this.bodyPostings = bodyPostings;
+	this.docs = docs;
+	for (Map.Entry<String, PostingList> e : titlePostings.entrySet()) approxBytes += termBytes(e.getKey()) + e.getValue().sizeInBytes();
+	for (Map.Entry<String, PostingList> e : bodyPostings.entrySet()) approxBytes += termBytes(e.getKey()) + e.getValue().sizeInBytes();
+	for (Doc d : docs.values()) addStats(d);
+    }
+
+    /**
+     * Bulk loader for the startup rebuild: collects postings in memory and encodes each list once,
+     * instead of rewriting a growing list per article.
+     */
+    static final class Builder {
+	private final Map<String, List<PostingList.Entry>> title = new HashMap<>();
+	private final Map<String, List<PostingList.Entry>> body = new HashMap<>();
+	private final Map<Long, Doc> docs = new HashMap<>();
+
+	/** Articles must be added in ascending id order. */
+	Builder add(long articleId, String title, String content, Instant updatedAt) {
+	    List<Token> titleTokens = Tokenizer.tokens(title);
+	    List<Token> bodyTokens = Tokenizer.tokens(content);
+	    Map<String, int[]> titleTerms = positionsByTerm(titleTokens);
+	    Map<String, int[]> bodyTerms = positionsByTerm(bodyTokens);
+	    titleTerms.forEach((term, positions) -> this.title.computeIfAbsent(term, k -> new ArrayList<>()).add(new PostingList.Entry(articleId, positions)));
+	    bodyTerms.forEach((term, positions) -> this.body.computeIfAbsent(term, k -> new ArrayList<>()).add(new PostingList.Entry(articleId, positions)));
+	    docs.put(articleId, doc(updatedAt, titleTokens, bodyTokens, titleTerms, bodyTerms));
+	    return this;
+	}
+
+	SpaceSegment build() {
+	    Map<String, PostingList> t = new HashMap<>(title.size() * 2);
+	    title.forEach((term, entries) -> t.put(term, PostingList.encode(entries)));
+	    Map<String, PostingList> b = new HashMap<>(body.size() * 2);
+	    body.forEach((term, entries) -> b.put(term, PostingList.encode(entries)));
+	    return new SpaceSegment(t, b, docs);
+	}
+    }
+
+    void put(long articleId, String title, String content, Instant updatedAt) {
+	List<Token> titleTokens = Tokenizer.tokens(title);
+	List<Token> bodyTokens = Tokenizer.tokens(content);
+	Map<String, int[]> titleTerms = positionsByTerm(titleTokens);
+	Map<String, int[]> bodyTerms = positionsByTerm(bodyTokens);
+
+	lock.writeLock().lock();
+	try {
+	    removeLocked(articleId);
+	    titleTerms.forEach((term, positions) -> addPosting(titlePostings, term, articleId, positions));
+	    bodyTerms.forEach((term, positions) -> addPosting(bodyPostings, term, articleId, positions));
+	    Doc doc = doc(updatedAt, titleTokens, bodyTokens, titleTerms, bodyTerms);
+	    docs.put(articleId, doc);
+	    addStats(doc);
+	} finally {
+	    lock.writeLock().unlock();
+	}
+    }
+
+    boolean remove(long articleId) {
+	lock.writeLock().lock();
+	try {
+	    return removeLocked(articleId);
+	} finally {
+	    lock.writeLock().unlock();
+	}
+    }
+
+    int size() {
+	lock.readLock().lock();
+	try {
+	    return docs.size();
+	} finally {
+	    lock.readLock().unlock();
+	}
+    }
+
+    long approxBytes() {
+	lock.readLock().lock();
+	try {
+	    return approxBytes;
+	} finally {
+	    lock.readLock().unlock();
+	}
+    }
+
+    /**
+     * Ranks matching articles accepted by {@code filter} and keeps only the best {@code k} in a bounded heap;
+     * the rest are counted, not sorted.
+     */
+    TopHits top(IndexQuery query, SearchSort sort, int k, LongPredicate filter) {
+	Comparator<Match> better = sort == SearchSort.RECENT ? BY_RECENCY : BY_RELEVANCE;
+	PriorityQueue<Match> heap = new PriorityQueue<>(Math.max(1, Math.min(k, 1024)), better);
+
+	lock.readLock().lock();
+	try {
+	    Postings p = load(query);
+	    Map<String, Double> idf = new HashMap<>();
+	    for (String term : query.scoringTerms()) idf.put(term, idf(term));
+	    double avgTitle = docs.isEmpty() ? 1 : Math.max(1.0, (double) totalTitleLength / docs.size());
+	    double avgBody = docs.isEmpty() ? 1 : Math.max(1.0, (double) totalBodyLength / docs.size());
+
+	    int total = 0;
+	    for (Long id : candidates(query, p)) {
+		if (!matches(query, id, p, filter)) continue;
+		total++;
+
+		Doc doc = docs.get(id);
+		double score = 0;
+		for (Map.Entry<String, Double> e : idf.entrySet()) {
+		    double tf = TITLE_WEIGHT * frequency(p.title(), e.getKey(), id) / (1 - B + B * doc.titleLength() / avgTitle)
+			    + frequency(p.body(), e.getKey(), id) / (1 - B + B * doc.bodyLength() / avgBody);
+		    score += e.getValue() * tf * (K1 + 1) / (tf + K1);
+		}
+
+		Match m = new Match(id, score, doc.updatedAt());
+		if (heap.size() < k) {
+		    heap.add(m);
+		} else if (k > 0 && better.compare(m, heap.peek()) > 0) {
+		    heap.poll();
+		    heap.add(m);
+		}
+	    }
+
+	    List<Match> ranked = new ArrayList<>(heap);
+	    ranked.sort(better.reversed());
+	    return new TopHits(ranked, total);
+	} finally {
+	    lock.readLock().unlock();
+	}
+    }
+
+    /**
+     * Every matching article accepted by {@code filter}, unranked.
+     */
+    RoaringBitmap matching(IndexQuery query, LongPredicate filter) {
+	RoaringBitmap out = new RoaringBitmap();
+	lock.readLock().lock();
+	try {
+	    Postings p = load(query);
+	    for (Long id : candidates(query, p)) {
+		if (matches(query, id, p, filter)) out.add(TagBitmapIndex.bit(id));
+	    }
+	    return out;
+	} finally {
+	    lock.readLock().unlock();
+	}
+    }
+
+    /** BM25 idf over the whole segment; a term counts once per article whether it is in the title, the body or both. */
+    private double idf(String term) {
+	int df = docFreq.getOrDefault(term, 0);
+	return Math.log(1 + (docs.size() - df + 0.5) / (df + 0.5));
+    }
+
+    // ---------- helpers ----------
+
+    private boolean removeLocked(long articleId) {
+	Doc doc = docs.remove(articleId);
+	if (doc == null) return false;
+	for (String term : doc.titleTerms()) removePosting(titlePostings, term, articleId);
+	for (String term : doc.bodyTerms()) removePosting(bodyPostings, term, articleId);
+	removeStats(doc);
+	return true;
+    }
+
+    private void addStats(Doc doc) {
+	totalTitleLength += doc.titleLength();
+	totalBodyLength += doc.bodyLength();
+	approxBytes += docBytes(doc);
+	for (String term : distinctTerms(doc)) {
+	    if (docFreq.merge(term, 1, Integer::sum) == 1) approxBytes += DF_OVERHEAD_BYTES;
+	}
+    }
+
+    private void removeStats(Doc doc) {
+	totalTitleLength -= doc.titleLength();
+	totalBodyLength -= doc.bodyLength();
+	approxBytes -= docBytes(doc);
+	for (String term : distinctTerms(doc)) {
+	    if (docFreq.merge(term, -1, Integer::sum) == 0) {
+		docFreq.remove(term);
+		approxBytes -= DF_OVERHEAD_BYTES;
+	    }
+	}
+    }
+
+    private static Set<String> distinctTerms(Doc doc) {
+	Set<String> terms = new HashSet<>(Arrays.asList(doc.titleTerms()));
+	terms.addAll(Arrays.asList(doc.bodyTerms()));
+	return terms;
+    }
+
+    private static Doc doc(Instant updatedAt, List<Token> titleTokens, List<Token> bodyTokens,
+	    Map<String, int[]> titleTerms, Map<String, int[]> bodyTerms) {
+	return new Doc(updatedAt, titleTokens.size(), bodyTokens.size(),
+		titleTerms.keySet().toArray(String[]::new), bodyTerms.keySet().toArray(String[]::new));
+    }
+
+    private void addPosting(Map<String, PostingList> postings, String term, long articleId, int[] positions) {
+	PostingList before = postings.get(term);
+	PostingList after = (before == null ? PostingList.EMPTY : before).with(articleId, positions);
+	postings.put(term, after);
+	approxBytes += before == null
+		? termBytes(term) + after.sizeInBytes()
+		: after.sizeInBytes() - before.sizeInBytes();
+    }
+
+    private void removePosting(Map<String, PostingList> postings, String term, long articleId) {
+	PostingList before = postings.get(term);
+	if (before == null) return;
+	PostingList after = before.without(articleId);
+	if (after.isEmpty()) {
+	    postings.remove(term);
+	    approxBytes -= before.sizeInBytes() + termBytes(term);
+	} else {
+	    postings.put(term, after);
+	    approxBytes += after.sizeInBytes() - before.sizeInBytes();
+	}
+    }
+
+    private static long termBytes(String term) {
+	return TERM_OVERHEAD_BYTES + 2L * term.length();
+    }
+
+    private static long docBytes(Doc doc) {
+	return DOC_OVERHEAD_BYTES + 8L * (doc.titleTerms().length + doc.bodyTerms().length);
+    }
+
+    private static Map<String, int[]> positionsByTerm(List<Token> tokens) {
+	Map<String, List<Integer>> grouped = new HashMap<>();
+	for (Token t : tokens) grouped.computeIfAbsent(t.term(), k -> new ArrayList<>()).add(t.position());
+	Map<String, int[]> out = new HashMap<>(grouped.size() * 2);
+	grouped.forEach((term, list) -> out.put(term, list.stream().mapToInt(Integer::intValue).toArray()));
+	return out;
+    }
+
+    private Postings load(IndexQuery query) {
+	Postings p = new Postings(new HashMap<>(), new HashMap<>());
+	for (List<List<Token>> clause : query.required()) load(clause, p.title(), p.body());
+	for (List<List<Token>> clause : query.excluded()) load(clause, p.title(), p.body());
+	return p;
+    }
+
+    private Collection<Long> candidates(IndexQuery query, Postings p) {
+	return query.required().isEmpty()
+		? docs.keySet()
+		: candidates(query.required().getFirst(), p.title(), p.body());
+    }
+
+    private static boolean matches(IndexQuery query, Long id, Postings p, LongPredicate filter) {
+	return filter.test(id)
+		&& allMatch(query.required(), id, p.title(), p.body())
+		&& !anyMatch(query.excluded(), id, p.title(), p.body());
+    }
+
+    private void load(List<List<Token>> clause, Map<String, Map<Long, int[]>> title, Map<String, Map<Long, int[]>> body) {
+	for (List<Token> phrase : clause) {
+	    for (Token t : phrase) {
+		title.computeIfAbsent(t.term(), term -> decode(titlePostings.get(term)));
+		body.computeIfAbsent(t.term(), term -> decode(bodyPostings.get(term)));
+	    }
+	}
+    }
+
+    private static Map<Long, int[]> decode(PostingList list) {
+	if (list == null) return Map.of();
+	Map<Long, int[]> out = new HashMap<>(list.docCount() * 2);
+	for (PostingList.Entry e : list.entries()) out.put(e.docId(), e.positions());
+	return out;
+    }
+
+    private static Set<Long> candidates(List<List<Token>> clause, Map<String, Map<Long, int[]>> title, Map<String, Map<Long, int[]>> body) {
+	Set<Long> out = new HashSet<>();
+	for (List<Token> phrase : clause) {
+	    String first = phrase.getFirst().term();
+	    out.addAll(title.get(first).keySet());
+	    out.addAll(body.get(first).keySet());
+	}
+	return out;
+    }
+
+    private static boolean allMatch(List<List<List<Token>>> clauses, Long id, Map<String, Map<Long, int[]>> title, Map<String, Map<Long, int[]>> body) {
+	for (List<List<Token>> clause : clauses) {
+	    if (!clauseMatches(clause, id, title, body)) return false;
+	}
+	return true;
+    }
+
+    private static boolean anyMatch(List<List<List<Token>>> clauses, Long id, Map<String, Map<Long, int[]>> title, Map<String, Map<Long, int[]>> body) {
+	for (List<List<Token>> clause : clauses) {
+	    if (clauseMatches(clause, id, title, body)) return true;
+	}
+	return false;
+    }
+
+    private static boolean clauseMatches(List<List<Token>> clause, Long id, Map<String, Map<Long, int[]>> title, Map<String, Map<Long, int[]>> body) {
+	for (List<Token> phrase : clause) {
+	    if (phraseMatches(phrase, id, title) || phraseMatches(phrase, id, body)) return true;
+	}
+	return false;
+    }
+
+    private static boolean phraseMatches(List<Token> phrase, Long id, Map<String, Map<Long, int[]>> field) {
+	int[] anchors = field.get(phrase.getFirst().term()).get(id);
+	if (anchors == null) return false;
+	if (phrase.size() == 1) return true;
+
+	for (int start : anchors) {
+	    boolean all = true;
+	    for (int k = 1; k < phrase.size() && all; k++) {
+		int[] positions = field.get(phrase.get(k).term()).get(id);
+		all = positions != null && Arrays.binarySearch(positions, start + phrase.get(k).position()) >= 0;
+	    }
+	    if (all) return true;
+	}
+	return false;
+    }
+
+    private static int frequency(Map<String, Map<Long, int[]>> field, String term, Long id) {
+	int[] positions = field.get(term).get(id);
+	return positions == null ? 0 : positions.length;
+    }
+}
@@ -0,0 +1,107 @@
+package com.wiki.monowiki.wiki.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Article ids per tag as compressed (Roaring) bitmaps, across all spaces and statuses. Used to filter search results
+ * by tag and to count, per tag, how many of a result set carry it.
+ *
+ * Bitmaps are copy-on-write: a tag change replaces that tag's bitmap, so readers never lock. Bitmaps are 32-bit,
+ * article ids are assumed to stay below 2^31.
+ */
+@Component
+@Slf4j
+public class TagBitmapIndex {
+
+    private final ConcurrentMap<Long, RoaringBitmap> byTag = new ConcurrentHashMap<>();
+
+    /** Changes seen while a rebuild is running; replayed onto the rebuilt bitmaps before they go live. */
+    private final List<Runnable> pendingDuringRebuild = new ArrayList<>();
+    private boolean rebuilding;
+    private volatile boolean ready;
+
+    public boolean isReady() {
+	return ready;
+    }
+
+    public synchronized void add(Long tagId, Long articleId) {
+	if (rebuilding) pendingDuringRebuild.add(() -> add(tagId, articleId));
+	byTag.compute(tagId, (id, before) -> {
+	    RoaringBitmap after = before == null ? new RoaringBitmap() : before.clone();
+	    after.add(bit(articleId));
+	    after.runOptimize();
+	    return after;
+	});
+    }
+
+    public synchronized void remove(Long tagId, Long articleId) {
+	if (rebuilding) pendingDuringRebuild.add(() -> remove(tagId, articleId));
+	byTag.computeIfPresent(tagId, (id, before) -> {
+	    RoaringBitmap after = before.clone();
+	    after.remove(bit(articleId));
+	    return after.isEmpty() ? null : after;
+	});
+    }
+
+    /**
+     * Articles carrying every one of {@code tagIds}; empty when one of them is on no article.
+     */
+    public RoaringBitmap articlesWithAll(Collection<Long> tagIds) {
+	RoaringBitmap out = null;
+	for (Long tagId : new TreeSet<>(tagIds)) {
+	    RoaringBitmap tagged = byTag.get(tagId);
+	    if (tagged == null) return new RoaringBitmap();
+	    out = out == null ? tagged.clone() : RoaringBitmap.and(out, tagged);
+	}
+	return out == null ? new RoaringBitmap() : out;
+    }
+
+    /**
+     * Number of {@code within} articles per tag, for tags on at least one of them.
+     */
+    public Map<Long, Integer> counts(RoaringBitmap within) {
+	Map<Long, Integer> out = new HashMap<>();
+	if (within.isEmpty()) return out;
+	byTag.forEach((tagId, tagged) -> {
+	    int n = RoaringBitmap.andCardinality(tagged, within);
+	    if (n > 0) out.put(tagId, n);
+	});
+	return out;
+    }
+
+    /**
+     * Starts a rebuild: until {@link #replaceAll} runs, {@link #isReady} is false and changes are also queued.
+     */
+    public synchronized void beginRebuild() {
+	rebuilding = true;
+	ready = false;
+	pendingDuringRebuild.clear();
+    }
+
+    public synchronized void replaceAll(Map<Long, RoaringBitmap> rebuilt) {
+	byTag.clear();
+	rebuilt.forEach((tagId, bitmap) -> {
+	    bitmap.runOptimize();
+	    byTag.put(tagId, bitmap);
+	});
+
+	rebuilding = false;
+	List<Runnable> replay = List.copyOf(pendingDuringRebuild);
+	pendingDuringRebuild.clear();
+	replay.forEach(Runnable::run);
+
+	ready = true;
+	log.info("Tag bitmaps ready: {} tags, ~{} bytes", byTag.size(),
+		byTag.values().stream().mapToLong(RoaringBitmap::getLongSizeInBytes).sum());
+    }
+
+    public static int bit(long articleId) {
+	return Math.toIntExact(articleId);
+    }
+}
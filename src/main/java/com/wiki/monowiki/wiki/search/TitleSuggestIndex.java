@@ -0,0 +1,175 @@
+package com.wiki.monowiki.wiki.search;
+
+import com.wiki.monowiki.wiki.model.ArticleStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+
+/**
+ * Title autocomplete: per space, a sorted array of normalized title keys searched by binary search.
+ *
+ * Every title contributes one key per word start ("vpn client setup", "client setup", "setup"), so a prefix
+ * matches the beginning of any word. Matches on the start of the title come first, then other words; each group
+ * in key order. Arrays are immutable snapshots swapped on write, so lookups never lock. Archived articles are
+ * not indexed; callers filter by status for viewers.
+ */
+@Component
+@Slf4j
+public class TitleSuggestIndex {
+
+    public record Suggestion(Long articleId, String slug, String title, ArticleStatus status) {}
+
+    /** Keys sorted ascending, refs parallel to keys. */
+    private record Keys(String[] keys, Suggestion[] refs) {
+	static final Keys EMPTY = new Keys(new String[0], new Suggestion[0]);
+    }
+
+    private record Snapshot(Keys titleStarts, Keys wordStarts) {
+	static final Snapshot EMPTY = new Snapshot(Keys.EMPTY, Keys.EMPTY);
+    }
+
+    private final ConcurrentMap<String, Snapshot> spaces = new ConcurrentHashMap<>();
+
+    /** Articles changed while a rebuild was loading; the caller re-reads them after {@link #replaceAll}. */
+    private final Set<Long> changedDuringRebuild = new HashSet<>();
+    private boolean rebuilding;
+
+    public List<Suggestion> suggest(String spaceKey, String prefix, int limit, Predicate<Suggestion> visible) {
+	String p = normalize(prefix);
+	Snapshot s = spaces.get(spaceKey);
+	if (s == null || p.isEmpty() || limit <= 0) return List.of();
+
+	Map<Long, Suggestion> out = new LinkedHashMap<>();
+	collect(s.titleStarts(), p, limit, visible, out);
+	collect(s.wordStarts(), p, limit, visible, out);
+	return List.copyOf(out.values());
+    }
+
+    public void put(String spaceKey, Suggestion suggestion) {
+	markChanged(suggestion.articleId());
+	List<String[]> keys = keysOf(suggestion.title());
+	spaces.compute(spaceKey, (k, s) -> {
+	    Snapshot current = s == null ? Snapshot.EMPTY : s;
+	    return new Snapshot(
+		    merge(current.titleStarts(), suggestion.articleId(), suggestion, keys.get(0)),
+		    merge(current.wordStarts(), suggestion.articleId(), suggestion, keys.get(1)));
+	});
+    }
+
+    public void remove(Long articleId) {
+	markChanged(articleId);
+	spaces.replaceAll((k, s) -> new Snapshot(
+		merge(s.titleStarts(), articleId, null, new String[0]),
+		merge(s.wordStarts(), articleId, null, new String[0])));
+    }
+
+    public synchronized void beginRebuild() {
+	rebuilding = true;
+	changedDuringRebuild.clear();
+    }
+
+    /**
+     * Replaces all spaces with freshly loaded suggestions and returns the ids of articles that changed meanwhile.
+     */
+    public synchronized Set<Long> replaceAll(Map<String, List<Suggestion>> bySpace) {
+	Map<String, Snapshot> rebuilt = new HashMap<>();
+	bySpace.forEach((spaceKey, list) -> rebuilt.put(spaceKey, build(list)));
+	spaces.clear();
+	spaces.putAll(rebuilt);
+
+	rebuilding = false;
+	Set<Long> changed = Set.copyOf(changedDuringRebuild);
+	changedDuringRebuild.clear();
+	log.info("Title suggest index ready: {} spaces", rebuilt.size());
+	return changed;
+    }
+
+    static String normalize(String s) {
+	if (s == null) return "";
+	return Normalizer.normalize(s, Normalizer.Form.NFD)
+		.replaceAll("\\p{M}", "")
+		.toLowerCase(Locale.ROOT)
+		.replaceAll("[^\\p{L}\\p{N}]+", " ")
+		.trim();
+    }
+
+    // ---------- helpers ----------
+
+    private synchronized void markChanged(Long articleId) {
+	if (rebuilding) changedDuringRebuild.add(articleId);
+    }
+
+    /** [0] = whole-title key, [1] = keys starting at every later word. */
+    private static List<String[]> keysOf(String title) {
+	String key = normalize(title);
+	if (key.isEmpty()) return List.of(new String[0], new String[0]);
+
+	List<String> words = new ArrayList<>();
+	for (int i = key.indexOf(' '); i >= 0; i = key.indexOf(' ', i + 1)) {
+	    words.add(key.substring(i + 1));
+	}
+	String[] w = words.toArray(String[]::new);
+	Arrays.sort(w);
+	return List.of(new String[]{key}, w);
+    }
+
+    private static Snapshot build(List<Suggestion> suggestions) {
+	List<Map.Entry<String, Suggestion>> titles = new ArrayList<>();
+	List<Map.Entry<String, Suggestion>> words = new ArrayList<>();
+	for (Suggestion s : suggestions) {
+	    List<String[]> keys = keysOf(s.title());
+	    for (String k : keys.get(0)) titles.add(Map.entry(k, s));
+	    for (String k : keys.get(1)) words.add(Map.entry(k, s));
+	}
+	return new Snapshot(sorted(titles), sorted(words));
+    }
+
+    private static Keys sorted(List<Map.Entry<String, Suggestion>> entries) {
+	entries.sort(Map.Entry.comparingByKey());
+	String[] keys = new String[entries.size()];
+	Suggestion[] refs = new Suggestion[entries.size()];
+	for (int i = 0; i < keys.length; i++) {
+	    keys[i] = entries.get(i).getKey();
+	    refs[i] = entries.get(i).getValue();
+	}
+	return new Keys(keys, refs);
+    }
+
+    /**
+     * One linear pass: drops the article's previous keys and merges its new (sorted) keys in.
+     */
+    private static Keys merge(Keys current, Long articleId, Suggestion s, String[] newKeys) {
+	String[] keys = new String[current.keys().length + newKeys.length];
+	Suggestion[] refs = new Suggestion[keys.length];
+	int n = 0;
+	int j = 0;
+	for (int i = 0; i < current.keys().length; i++) {
+	    if (current.refs()[i].articleId().equals(articleId)) continue;
+	    while (j < newKeys.length && newKeys[j].compareTo(current.keys()[i]) < 0) {
+		keys[n] = newKeys[j++];
+		refs[n++] = s;
+	    }
+	    keys[n] = current.keys()[i];
+	    refs[n++] = current.refs()[i];
+	}
+	while (j < newKeys.length) {
+	    keys[n] = newKeys[j++];
+	    refs[n++] = s;
+	}
+	return new Keys(Arrays.copyOf(keys, n), Arrays.copyOf(refs, n));
+    }
+
+    private static void collect(Keys k, String prefix, int limit, Predicate<Suggestion> visible, Map<Long, Suggestion> out) {
+	int i = Arrays.binarySearch(k.keys(), prefix);
+	if (i < 0) i = -i - 1;
+	for (; i < k.keys().length && out.size() < limit && k.keys()[i].startsWith(prefix); i++) {
+	    Suggestion s = k.refs()[i];
+	    if (visible.test(s)) out.putIfAbsent(s.articleId(), s);
+	}
+    }
+}
@@ -0,0 +1,66 @@
+package com.wiki.monowiki.wiki.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits text into lower-cased, stemmed terms with their word positions, the way {@code to_tsvector('english', ...)}
+ * does for ordinary prose, so the in-memory index and the database path match the same articles.
+ *
+ * Stop words are Postgres' {@code english.stop} list; they are dropped but still consume a position, so phrase
+ * matching lines up with the original text. Words are stemmed with {@link EnglishStemmer} unless they contain a digit,
+ * which Postgres keeps verbatim. Postgres' parser also recognises URLs, host names, file paths and hyphenated compounds
+ * as whole tokens; here those are split into their words, which still match but can rank slightly differently.
+ */
+public final class Tokenizer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+	    "i", "me", "my", "myself", "we", "our", "ours", "ourselves", "you", "your", "yours", "yourself",
+	    "yourselves", "he", "him", "his", "himself", "she", "her", "hers", "herself", "it", "its", "itself",
+	    "they", "them", "their", "theirs", "themselves", "what", "which", "who", "whom", "this", "that", "these",
+	    "those", "am", "is", "are", "was", "were", "be", "been", "being", "have", "has", "had", "having", "do",
+	    "does", "did", "doing", "a", "an", "the", "and", "but", "if", "or", "because", "as", "until", "while",
+	    "of", "at", "by", "for", "with", "about", "against", "between", "into", "through", "during", "before",
+	    "after", "above", "below", "to", "from", "up", "down", "in", "out", "on", "off", "over", "under", "again",
+	    "further", "then", "once", "here", "there", "when", "where", "why", "how", "all", "any", "both", "each",
+	    "few", "more", "most", "other", "some", "such", "no", "nor", "not", "only", "own", "same", "so", "than",
+	    "too", "very", "s", "t", "can", "will", "just", "don", "should", "now"
+    );
+
+    private Tokenizer() {}
+
+    public record Token(String term, int position) {}
+
+    public static List<Token> tokens(String text) {
+	List<Token> out = new ArrayList<>();
+	if (text == null || text.isEmpty()) return out;
+
+	String s = text.toLowerCase(Locale.ROOT);
+
+	int position = 0;
+	int start = -1;
+	for (int i = 0; i <= s.length(); i++) {
+	    boolean wordChar = i < s.length() && Character.isLetterOrDigit(s.charAt(i));
+	    if (wordChar && start < 0) {
+		start = i;
+	    } else if (!wordChar && start >= 0) {
+		String word = s.substring(start, i);
+		if (!STOP_WORDS.contains(word)) {
+		    out.add(new Token(term(word), position));
+		}
+		position++;
+		start = -1;
+	    }
+	}
+	return out;
+    }
+
+    private static String term(String word) {
+	for (int i = 0; i < word.length(); i++) {
+	    if (Character.isDigit(word.charAt(i))) return word;
+	}
+	return EnglishStemmer.stem(word);
+    }
+}
@@ -0,0 +1,143 @@
+package com.wiki.monowiki.wiki.service;
+
+import com.wiki.monowiki.wiki.dto.ArticleDtos.ArticleResponse;
+import com.wiki.monowiki.wiki.dto.ArticleDtos.ArticleSummaryResponse;
+import com.wiki.monowiki.wiki.dto.ArticleDtos.TagSummary;
+import com.wiki.monowiki.wiki.model.Article;
+import com.wiki.monowiki.wiki.repository.ArticleRepository.SummaryRow;
+import com.wiki.monowiki.wiki.repository.ArticleTagRepository;
+import com.wiki.monowiki.wiki.repository.ArticleVersionRepository;
+import com.wiki.monowiki.wiki.repository.VersionCommentCountRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Builds ArticleResponses for a whole page at once: latest content, tags and current-version comment counts are
+ * loaded with one query each for all articles, instead of three queries per article. Comment counts are read from
+ * the maintained version_comment_counts, not counted.
+ *
+ * Space keys come from the SpaceDirectory, so the articles' space does not need to be loaded.
+ */
+@Component
+public class ArticleResponseAssembler {
+
+    /**
+     * Per-article data loaded for a batch; articles without tags, comments or content get the empty value.
+     */
+    public record Details(Map<Long, String> latestContent, Map<Long, List<TagSummary>> tags, Map<Long, Long> commentCounts) {
+
+	public String latestContentOf(Long articleId) {
+	    return latestContent.get(articleId);
+	}
+
+	public List<TagSummary> tagsOf(Long articleId) {
+	    return tags.getOrDefault(articleId, List.of());
+	}
+
+	public long commentCountOf(Long articleId) {
+	    return commentCounts.getOrDefault(articleId, 0L);
+	}
+    }
+
+    private final ArticleVersionRepository versions;
+    private final ArticleTagRepository articleTags;
+    private final VersionCommentCountRepository commentCounts;
+    private final SpaceDirectory spaceDirectory;
+
+    public ArticleResponseAssembler(ArticleVersionRepository versions, ArticleTagRepository articleTags, VersionCommentCountRepository commentCounts, SpaceDirectory spaceDirectory) {
+	this.versions = versions;
+	this.articleTags = articleTags;
+	this.commentCounts = commentCounts;
+	this.spaceDirectory = spaceDirectory;
+    }
+
+    public List<ArticleResponse> toResponses(List<Article> articles) {
+	Details details = details(articles, true);
+	return articles.stream()
+		.map(a -> toResponse(a, details.latestContentOf(a.getId()), details))
+		.toList();
+    }
+
+    public ArticleResponse toResponse(Article a) {
+	return toResponses(List.of(a)).getFirst();
+    }
+
+    /**
+     * Summary rows get their tags with one query; content and comment counts are not part of a summary.
+     */
+    public List<ArticleSummaryResponse> toSummaries(String spaceKey, List<SummaryRow> rows) {
+	Map<Long, List<TagSummary>> tags = tagsByArticle(rows.stream().map(SummaryRow::getId).toList());
+	return rows.stream()
+		.map(r -> new ArticleSummaryResponse(
+			r.getId(),
+			spaceKey,
+			r.getSlug(),
+			r.getTitle(),
+			r.getStatus(),
+			r.getCurrentVersionNo(),
+			r.getExcerpt(),
+			tags.getOrDefault(r.getId(), List.of()),
+			r.getCreatedBy(),
+			r.getCreatedAt(),
+			r.getUpdatedAt()
+		))
+		.toList();
+    }
+
+    /** For a caller that already holds the latest content (e.g. right after writing it). */
+    public ArticleResponse toResponse(Article a, String latestContent) {
+	return toResponse(a, latestContent, details(List.of(a), false));
+    }
+
+    /**
+     * Up to three queries regardless of the number of articles; none for an empty batch.
+     */
+    public Details details(Collection<Article> articles, boolean withContent) {
+	List<Long> ids = articles.stream()
+		.filter(a -> Objects.nonNull(a.getCurrentVersionNo()) && a.getCurrentVersionNo() > 0)
+		.map(Article::getId)
+		.toList();
+	List<Long> allIds = articles.stream().map(Article::getId).toList();
+
+	Map<Long, String> content = new HashMap<>();
+	if (withContent && !ids.isEmpty()) {
+	    versions.findCurrentContentByArticleIdIn(ids)
+		    .forEach(c -> content.put(c.getArticleId(), ContentCompression.text(c.getContent(), c.getCompressed())));
+	}
+
+	Map<Long, List<TagSummary>> tags = tagsByArticle(allIds);
+
+	Map<Long, Long> counts = new HashMap<>();
+	if (!ids.isEmpty()) {
+	    commentCounts.findCurrentVersionCountsByArticleIdIn(ids).forEach(c -> counts.put(c.getArticleId(), c.getCount()));
+	}
+	return new Details(content, tags, counts);
+    }
+
+    private Map<Long, List<TagSummary>> tagsByArticle(Collection<Long> articleIds) {
+	Map<Long, List<TagSummary>> tags = new HashMap<>();
+	if (!articleIds.isEmpty()) {
+	    articleTags.findTagsByArticleIdIn(articleIds).forEach(t -> tags.computeIfAbsent(t.getArticleId(), k -> new ArrayList<>())
+		    .add(new TagSummary(t.getTagId(), t.getTagName())));
+	}
+	return tags;
+    }
+
+    private ArticleResponse toResponse(Article a, String latestContent, Details details) {
+	return new ArticleResponse(
+		a.getId(),
+		spaceDirectory.keyOf(a),
+		a.getSlug(),
+		a.getTitle(),
+		a.getStatus(),
+		a.getCurrentVersionNo(),
+		latestContent,
+		details.tagsOf(a.getId()),
+		details.commentCountOf(a.getId()),
+		a.getCreatedBy(),
+		a.getCreatedAt(),
+		a.getUpdatedAt()
+	);
+    }
+}
@@ -3,23 +3,42 @@ package com.wiki.monowiki.wiki.service;
 import com.wiki.monowiki.audit.model.AuditEventType;
 import com.wiki.monowiki.audit.service.AuditActor;
 import com.wiki.monowiki.audit.service.WikiAuditEvent;
+import com.wiki.monowiki.common.paging.CursorPage;
+import com.wiki.monowiki.common.paging.KeysetCursor;
 import com.wiki.monowiki.common.security.SecurityUtils;
+import com.wiki.monowiki.common.web.ETags;
 import com.wiki.monowiki.wiki.dto.ArticleDtos.ArticleResponse;
+import com.wiki.monowiki.wiki.dto.ArticleDtos.ArticleSummaryResponse;
 import com.wiki.monowiki.wiki.dto.ArticleDtos.CreateArticleRequest;
-import com.wiki.monowiki.wiki.dto.ArticleDtos.TagSummary;
+import com.wiki.monowiki.wiki.dto.ArticleDtos.TitleSuggestion;
 import com.wiki.monowiki.wiki.dto.ArticleDtos.UpdateTitleRequest;
 import com.wiki.monowiki.wiki.model.*;
 import com.wiki.monowiki.wiki.repository.*;
+import com.wiki.monowiki.wiki.repository.ArticleRepository.SummaryRow;
+import com.wiki.monowiki.wiki.search.TitleSuggestIndex;
+import com.wiki.monowiki.wiki.service.SpaceDirectory.SpaceRef;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 
 import static com.wiki.monowiki.audit.model.AuditEntityType.ARTICLE;
 import static com.wiki.monowiki.audit.model.AuditEventType.*;
@@ -30,31 +49,44 @@ public class ArticleService {
 
     public static final String SPACE_NOT_FOUND = "Space not found";
     public static final String ARTICLE_NOT_FOUND = "Article not found";
+    public static final int MAX_SUGGESTIONS = 50;
+    // literal path segments under /spaces/{spaceKey}/articles/ that a slug must not shadow
+    private static final Set<String> RESERVED_SLUGS = Set.of("suggest");
+    // timestamps every article has; id breaks ties
+    private static final Set<String> KEYSET_PROPERTIES = Set.of("createdAt", "updatedAt");
     private final ArticleRepository articleRepository;
     private final SpaceRepository spaceRepository;
+    private final SpaceDirectory spaceDirectory;
     private final ArticleVersionRepository articleVersionRepository;
-    private final ArticleTagRepository articleTagRepository;
-    private final VersionCommentRepository versionCommentRepository;
+    private final VersionContents versionContents;
+    private final ArticleResponseAssembler responses;
+    private final SearchDocumentService searchDocuments;
+    private final TitleSuggestIndex titleSuggestions;
     private final ApplicationEventPublisher applicationEventPublisher;
 
     public ArticleService(ArticleRepository articleRepository,
 	    SpaceRepository spaceRepository,
+	    SpaceDirectory spaceDirectory,
 	    ArticleVersionRepository articleVersionRepository,
-	    ArticleTagRepository articleTagRepository,
-	    VersionCommentRepository versionCommentRepository,
+	    VersionContents versionContents,
+	    ArticleResponseAssembler responses,
+	    SearchDocumentService searchDocuments,
+	    TitleSuggestIndex titleSuggestions,
 	    ApplicationEventPublisher applicationEventPublisher) {
 	this.articleRepository = articleRepository;
 	this.spaceRepository = spaceRepository;
+	this.spaceDirectory = spaceDirectory;
 	this.articleVersionRepository = articleVersionRepository;
-	this.articleTagRepository = articleTagRepository;
-	this.versionCommentRepository = versionCommentRepository;
+	this.versionContents = versionContents;
+	this.responses = responses;
+	this.searchDocuments = searchDocuments;
+	this.titleSuggestions = titleSuggestions;
 	this.applicationEventPublisher = applicationEventPublisher;
     }
 
     @Transactional
     public ArticleResponse create(String spaceKey, CreateArticleRequest req) {
-	Space space = spaceRepository.findBySpaceKey(spaceKey)
-		.orElseThrow(() -> new NotFoundException(SPACE_NOT_FOUND));
+	Space space = requireSpace(spaceKey);
 
 	String baseSlug = SlugUtil.slugify(req.title());
 	String slug = ensureUniqueSlug(space, baseSlug);
@@ -74,15 +106,18 @@ public class ArticleService {
 	ArticleVersion v1 = ArticleVersion.builder()
 		.article(a)
 		.versionNo(1)
-		.content(req.content())
 		.createdBy(actor)
 		.build();
+	versionContents.store(v1, req.content());
 
 	articleVersionRepository.save(v1);
 	a.setCurrentVersionNo(1);
+	a.setCurrentVersion(v1);
+	a.setExcerpt(ExcerptUtil.excerpt(req.content()));
+	searchDocuments.refresh(a, req.content());
 
 	log.info("ARTICLE_CREATED: articleId={} spaceKey={} slug={} actor={} status={}",
-		a.getId(), a.getSpace().getSpaceKey(), a.getSlug(), actor, a.getStatus());
+		a.getId(), spaceDirectory.keyOf(a), a.getSlug(), actor, a.getStatus());
 
 	publishArticleEvent(
 		ARTICLE_CREATED,
@@ -92,30 +127,121 @@ public class ArticleService {
 		Map.of("slug", a.getSlug(), "versionNo", 1)
 	);
 
-	return toResponse(a, v1.getContent());
+	return responses.toResponse(a, req.content());
     }
 
+    /**
+     * A Page with its total, or without the count query (withTotal=false) a Slice that only knows hasNext.
+     */
+    @Transactional(readOnly = true)
+    public Slice<ArticleResponse> list(String spaceKey, boolean includeArchived, boolean withTotal, Pageable pageable) {
+	Space space = requireSpace(spaceKey);
+
+	Slice<Article> page;
+	if (SecurityUtils.isViewer()) {
+	    page = withTotal
+		    ? articleRepository.findBySpaceAndStatus(space, ArticleStatus.PUBLISHED, pageable)
+		    : articleRepository.findSliceBySpaceAndStatus(space, ArticleStatus.PUBLISHED, pageable);
+	} else if (includeArchived) {
+	    page = withTotal
+		    ? articleRepository.findBySpace(space, pageable)
+		    : articleRepository.findSliceBySpace(space, pageable);
+	} else {
+	    page = withTotal
+		    ? articleRepository.findBySpaceAndStatusNot(space, ArticleStatus.ARCHIVED, pageable)
+		    : articleRepository.findSliceBySpaceAndStatusNot(space, ArticleStatus.ARCHIVED, pageable);
+	}
+
+	return withContent(page, responses.toResponses(page.getContent()));
+    }
+
+    /**
+     * Same visibility rules as {@link #list}, but reads only article columns (excerpt instead of content) plus tags.
+     */
+    @Transactional(readOnly = true)
+    public Slice<ArticleSummaryResponse> listSummaries(String spaceKey, boolean includeArchived, boolean withTotal, Pageable pageable) {
+	Space space = requireSpace(spaceKey);
+
+	Slice<SummaryRow> page;
+	if (SecurityUtils.isViewer()) {
+	    page = withTotal
+		    ? articleRepository.findSummaryBySpaceAndStatus(space, ArticleStatus.PUBLISHED, pageable)
+		    : articleRepository.findSummarySliceBySpaceAndStatus(space, ArticleStatus.PUBLISHED, pageable);
+	} else if (includeArchived) {
+	    page = withTotal
+		    ? articleRepository.findSummaryBySpace(space, pageable)
+		    : articleRepository.findSummarySliceBySpace(space, pageable);
+	} else {
+	    page = withTotal
+		    ? articleRepository.findSummaryBySpaceAndStatusNot(space, ArticleStatus.ARCHIVED, pageable)
+		    : articleRepository.findSummarySliceBySpaceAndStatusNot(space, ArticleStatus.ARCHIVED, pageable);
+	}
+
+	return withContent(page, responses.toSummaries(spaceKey, page.getContent()));
+    }
+
+    /**
+     * Keyset variant of {@link #list}: rows after {@code cursor} (from the start when blank) in {@code order}, which
+     * must be on createdAt or updatedAt. No count query, so deep pages cost the same as the first.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ArticleResponse> listByCursor(String spaceKey, boolean includeArchived, Sort.Order order, String cursor, int size) {
+	Space space = requireSpace(spaceKey);
+	ScrollPosition position = scrollPosition(order, cursor);
+	Sort sort = KeysetCursor.sort(order);
+
+	Window<Article> window;
+	if (SecurityUtils.isViewer()) {
+	    window = articleRepository.findBySpaceAndStatus(space, ArticleStatus.PUBLISHED, position, sort, Limit.of(size));
+	} else if (includeArchived) {
+	    window = articleRepository.findBySpace(space, position, sort, Limit.of(size));
+	} else {
+	    window = articleRepository.findBySpaceAndStatusNot(space, ArticleStatus.ARCHIVED, position, sort, Limit.of(size));
+	}
+
+	return new CursorPage<>(responses.toResponses(window.getContent()), nextCursor(window, order));
+    }
+
+    /** Keyset variant of {@link #listSummaries}, same cursor rules as {@link #listByCursor}. */
     @Transactional(readOnly = true)
-    public Page<ArticleResponse> list(String spaceKey, boolean includeArchived, Pageable pageable) {
-	Space space = spaceRepository.findBySpaceKey(spaceKey)
-		.orElseThrow(() -> new NotFoundException(SPACE_NOT_FOUND));
+    public CursorPage<ArticleSummaryResponse> listSummariesByCursor(String spaceKey, boolean includeArchived, Sort.Order order, String cursor, int size) {
+	Space space = requireSpace(spaceKey);
+	ScrollPosition position = scrollPosition(order, cursor);
+	Sort sort = KeysetCursor.sort(order);
 
-	Page<Article> page;
+	Window<SummaryRow> window;
 	if (SecurityUtils.isViewer()) {
-	    page = articleRepository.findBySpaceAndStatus(space, ArticleStatus.PUBLISHED, pageable);
+	    window = articleRepository.findSummaryBySpaceAndStatus(space, ArticleStatus.PUBLISHED, position, sort, Limit.of(size));
 	} else if (includeArchived) {
-	    page = articleRepository.findBySpace(space, pageable);
+	    window = articleRepository.findSummaryBySpace(space, position, sort, Limit.of(size));
 	} else {
-	    page = articleRepository.findBySpaceAndStatusNot(space, ArticleStatus.ARCHIVED, pageable);
+	    window = articleRepository.findSummaryBySpaceAndStatusNot(space, ArticleStatus.ARCHIVED, position, sort, Limit.of(size));
 	}
 
-	return page.map(a -> toResponse(a, latestContent(a)));
+	return new CursorPage<>(responses.toSummaries(spaceKey, window.getContent()), nextCursor(window, order));
+    }
+
+    /**
+     * Strong ETag of {@link #getBySlug}'s response, from one articles row and its current comment counter: no
+     * content, tags or serialization. Empty when the article does not exist or is hidden from the caller.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> currentETag(String spaceKey, String slug) {
+	return spaceDirectory.find(spaceKey)
+		.flatMap(space -> articleRepository.findETagStateBySpaceIdAndSlug(space.id(), slug))
+		.filter(a -> !SecurityUtils.isViewer() || a.getStatus() == ArticleStatus.PUBLISHED)
+		.map(a -> ETags.strong(
+			a.getId(),
+			"v" + a.getCurrentVersionNo(),
+			a.getStatus(),
+			"t" + a.getTagsVersion(),
+			"c" + a.getCommentCount(),
+			Long.toString(ChronoUnit.MICROS.between(Instant.EPOCH, a.getUpdatedAt()), 36)));
     }
 
     @Transactional(readOnly = true)
     public ArticleResponse getBySlug(String spaceKey, String slug) {
-	Space space = spaceRepository.findBySpaceKey(spaceKey)
-		.orElseThrow(() -> new NotFoundException(SPACE_NOT_FOUND));
+	Space space = requireSpace(spaceKey);
 
 	Article a = articleRepository.findBySpaceAndSlug(space, slug)
 		.orElseThrow(() -> new NotFoundException(ARTICLE_NOT_FOUND));
@@ -124,7 +250,7 @@ public class ArticleService {
 	    throw new NotFoundException(ARTICLE_NOT_FOUND);
 	}
 
-	return toResponse(a, latestContent(a));
+	return responses.toResponse(a);
     }
 
     @Transactional
@@ -141,6 +267,7 @@ public class ArticleService {
 
 	String oldTitle = a.getTitle();
 	a.setTitle(req.title().trim());
+	searchDocuments.refreshMetadata(a);
 
 	boolean isPublic = false; // drafts are not public
 
@@ -155,7 +282,21 @@ public class ArticleService {
 		Map.of("slug", a.getSlug(), "oldTitle", oldTitle, "newTitle", a.getTitle())
 	);
 
-	return toResponse(a, latestContent(a));
+	return responses.toResponse(a);
+    }
+
+    /**
+     * Title autocomplete, served from memory (no database round trip per keystroke).
+     * VIEWERs only get PUBLISHED articles; an unknown space simply has no suggestions.
+     */
+    public List<TitleSuggestion> suggest(String spaceKey, String prefix, int limit) {
+	if (limit < 1 || limit > MAX_SUGGESTIONS) {
+	    throw new IllegalArgumentException("limit must be between 1 and " + MAX_SUGGESTIONS);
+	}
+	boolean viewer = SecurityUtils.isViewer();
+	return titleSuggestions.suggest(spaceKey, prefix, limit, s -> !viewer || s.status() == ArticleStatus.PUBLISHED).stream()
+		.map(s -> new TitleSuggestion(s.articleId(), s.slug(), s.title(), s.status()))
+		.toList();
     }
 
     /**
@@ -168,7 +309,7 @@ public class ArticleService {
 
 	if (a.getStatus() == ArticleStatus.ARCHIVED) {
 	    log.info("ARTICLE_ARCHIVE_IDEMPOTENT: articleId={} actor={}", a.getId(), safeUsername());
-	    return toResponse(a, latestContent(a)); // idempotent
+	    return responses.toResponse(a); // idempotent
 	}
 
 	// Keep review workflow consistent (no dangling pending reviews).
@@ -179,9 +320,10 @@ public class ArticleService {
 
 	ArticleStatus from = a.getStatus();
 	a.setStatus(ArticleStatus.ARCHIVED);
+	searchDocuments.refreshMetadata(a);
 
 	log.info("ARTICLE_ARCHIVED: articleId={} spaceKey={} slug={} actor={} fromStatus={} toStatus={}",
-		a.getId(), a.getSpace().getSpaceKey(), a.getSlug(), safeUsername(), from, a.getStatus());
+		a.getId(), spaceDirectory.keyOf(a), a.getSlug(), safeUsername(), from, a.getStatus());
 
 	publishArticleEvent(
 		ARTICLE_ARCHIVED,
@@ -191,7 +333,7 @@ public class ArticleService {
 		Map.of("slug", a.getSlug(), "fromStatus", String.valueOf(from))
 	);
 
-	return toResponse(a, latestContent(a));
+	return responses.toResponse(a);
     }
 
     /**
@@ -209,9 +351,10 @@ public class ArticleService {
 	}
 
 	a.setStatus(ArticleStatus.DRAFT);
+	searchDocuments.refreshMetadata(a);
 
 	log.info("ARTICLE_UNARCHIVED: articleId={} spaceKey={} slug={} actor={} toStatus={}",
-		a.getId(), a.getSpace().getSpaceKey(), a.getSlug(), safeUsername(), a.getStatus());
+		a.getId(), spaceDirectory.keyOf(a), a.getSlug(), safeUsername(), a.getStatus());
 
 	publishArticleEvent(
 		ARTICLE_UNARCHIVED,
@@ -221,36 +364,24 @@ public class ArticleService {
 		Map.of("slug", a.getSlug())
 	);
 
-	return toResponse(a, latestContent(a));
+	return responses.toResponse(a);
     }
 
     // ---------- helpers ----------
 
-    private String latestContent(Article a) {
-        Integer cv = a.getCurrentVersionNo();
-        if (Objects.isNull(cv) || cv <= 0) return null;
-        return articleVersionRepository.findByArticleAndVersionNo(a, cv)
-                .map(ArticleVersion::getContent)
-                .orElse(null);
-    }
-
-    private List<TagSummary> tagSummaries(Article a) {
-	return articleTagRepository.findByArticle(a).stream()
-		.map(ArticleTag::getTag)
-		.map(t -> new TagSummary(t.getId(), t.getName()))
-		.toList();
-    }
-
-    private long currentVersionCommentCount(Article a) {
-        Integer cv = a.getCurrentVersionNo();
-        if (Objects.isNull(cv) || cv <= 0) return 0L;
-        return versionCommentRepository.countByArticleAndVersionNo(a, cv);
+    /**
+     * Resolved through the SpaceDirectory: the Space is an uninitialized reference, fine for queries and
+     * associations; its key comes from the directory too.
+     */
+    private Space requireSpace(String spaceKey) {
+	SpaceRef ref = spaceDirectory.find(spaceKey).orElseThrow(() -> new NotFoundException(SPACE_NOT_FOUND));
+	return spaceRepository.getReferenceById(ref.id());
     }
 
     private String ensureUniqueSlug(Space space, String base) {
 	String slug = base;
 	int i = 2;
-	while (articleRepository.existsBySpaceAndSlug(space, slug)) {
+	while (RESERVED_SLUGS.contains(slug) || articleRepository.existsBySpaceAndSlug(space, slug)) {
 	    String suffix = "-" + i++;
 	    int maxLen = 140 - suffix.length();
 	    String trimmed = base.length() > maxLen ? base.substring(0, maxLen).replaceAll("-+$", "") : base;
@@ -259,6 +390,26 @@ public class ArticleService {
 	return slug;
     }
 
+    /** Same page (and total, if it has one) with the rows replaced. */
+    private static <T> Slice<T> withContent(Slice<?> page, List<T> content) {
+	if (page instanceof Page<?> p) {
+	    return new PageImpl<>(content, p.getPageable(), p.getTotalElements());
+	}
+	return new SliceImpl<>(content, page.getPageable(), page.hasNext());
+    }
+
+    private static ScrollPosition scrollPosition(Sort.Order order, String cursor) {
+	if (!KEYSET_PROPERTIES.contains(order.getProperty())) {
+	    throw new IllegalArgumentException("Cursor paging sorts by createdAt or updatedAt");
+	}
+	return KeysetCursor.scrollPosition(KeysetCursor.decode(cursor, order));
+    }
+
+    private static String nextCursor(Window<?> window, Sort.Order order) {
+	if (!window.hasNext() || window.isEmpty()) return null;
+	return KeysetCursor.of(order, (KeysetScrollPosition) window.positionAt(window.size() - 1)).encode();
+    }
+
     private String safeUsername() {
         String u = SecurityUtils.username();
         return (Objects.isNull(u) || u.isBlank()) ? "system" : u;
@@ -270,23 +421,6 @@ public class ArticleService {
         return t.length() <= 120 ? t : t.substring(0, 120) + "...";
     }
 
-    private ArticleResponse toResponse(Article a, String latestContent) {
-	return new ArticleResponse(
-		a.getId(),
-		a.getSpace().getSpaceKey(),
-		a.getSlug(),
-		a.getTitle(),
-		a.getStatus(),
-		a.getCurrentVersionNo(),
-		latestContent,
-		tagSummaries(a),
-		currentVersionCommentCount(a),
-		a.getCreatedBy(),
-		a.getCreatedAt(),
-		a.getUpdatedAt()
-	);
-    }
-
     private void publishArticleEvent(
             AuditEventType eventType,
             Article article,
@@ -298,7 +432,7 @@ public class ArticleService {
                 eventType,
                 ARTICLE,
                 article.getId(),
-                article.getSpace().getSpaceKey(),
+                spaceDirectory.keyOf(article),
                 article.getId(),
               	AuditActor.username(),
                 message,
@@ -0,0 +1,43 @@
+package com.wiki.monowiki.wiki.service;
+
+import com.wiki.monowiki.wiki.repository.VersionCommentCountRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Periodically recounts version_comments into version_comment_counts.
+ *
+ * The counters are only incremented by CommentService, so they drift when comments are changed outside it (SQL
+ * fixes, deletes cascading from elsewhere). Corrections are applied as differences, so comments that commit while
+ * this job runs are not lost, and a counter (and the comment list ETag built from it) only moves back when comments
+ * were actually removed.
+ */
+@Component
+@Slf4j
+public class CommentCountReconciler {
+
+    private final VersionCommentCountRepository counts;
+
+    public CommentCountReconciler(VersionCommentCountRepository counts) {
+	this.counts = counts;
+    }
+
+    @Scheduled(
+	    initialDelayString = "${app.comments.count-reconcile-interval:1h}",
+	    fixedDelayString = "${app.comments.count-reconcile-interval:1h}"
+    )
+    @Transactional
+    public void reconcile() {
+	long started = System.nanoTime();
+	int corrected = counts.reconcileCounted();
+	int removed = counts.deleteUncounted();
+	if (corrected + removed > 0) {
+	    log.warn("COMMENT_COUNTS_RECONCILED: corrected={} removed={} in {} ms",
+		    corrected, removed, (System.nanoTime() - started) / 1_000_000);
+	} else {
+	    log.debug("Comment counts in sync ({} ms)", (System.nanoTime() - started) / 1_000_000);
+	}
+    }
+}
@@ -5,6 +5,7 @@ import com.wiki.monowiki.audit.model.AuditEventType;
 import com.wiki.monowiki.audit.service.AuditActor;
 import com.wiki.monowiki.audit.service.WikiAuditEvent;
 import com.wiki.monowiki.common.security.SecurityUtils;
+import com.wiki.monowiki.common.web.ETags;
 import com.wiki.monowiki.wiki.dto.CommentDtos.CommentResponse;
 import com.wiki.monowiki.wiki.dto.CommentDtos.CreateCommentRequest;
 import com.wiki.monowiki.wiki.model.Article;
@@ -12,16 +13,18 @@ import com.wiki.monowiki.wiki.model.ArticleStatus;
 import com.wiki.monowiki.wiki.model.VersionComment;
 import com.wiki.monowiki.wiki.repository.ArticleRepository;
 import com.wiki.monowiki.wiki.repository.ArticleVersionRepository;
+import com.wiki.monowiki.wiki.repository.VersionCommentCountRepository;
 import com.wiki.monowiki.wiki.repository.VersionCommentRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 
 @Service
 @Slf4j
@@ -30,12 +33,16 @@ public class CommentService {
     private final ArticleRepository articleRepository;
     private final ArticleVersionRepository articleVersionRepository;
     private final VersionCommentRepository versionCommentRepository;
+    private final VersionCommentCountRepository versionCommentCountRepository;
+    private final SpaceDirectory spaceDirectory;
     private final ApplicationEventPublisher applicationEventPublisher;
 
-    public CommentService(ArticleRepository articleRepository, ArticleVersionRepository articleVersionRepository, VersionCommentRepository versionCommentRepository, ApplicationEventPublisher applicationEventPublisher) {
+    public CommentService(ArticleRepository articleRepository, ArticleVersionRepository articleVersionRepository, VersionCommentRepository versionCommentRepository, VersionCommentCountRepository versionCommentCountRepository, SpaceDirectory spaceDirectory, ApplicationEventPublisher applicationEventPublisher) {
 	this.articleRepository = articleRepository;
 	this.articleVersionRepository = articleVersionRepository;
 	this.versionCommentRepository = versionCommentRepository;
+	this.versionCommentCountRepository = versionCommentCountRepository;
+	this.spaceDirectory = spaceDirectory;
 	this.applicationEventPublisher = applicationEventPublisher;
     }
 
@@ -65,6 +72,7 @@ public class CommentService {
 		.build();
 
 	c = versionCommentRepository.save(c);
+	versionCommentCountRepository.increment(a.getId(), versionNo);
 
 	boolean isPublic = Objects.equals(a.getStatus(), ArticleStatus.PUBLISHED);
 
@@ -74,7 +82,7 @@ public class CommentService {
 		AuditEventType.COMMENT_ADDED,
 		AuditEntityType.COMMENT,
 		c.getId(),
-		a.getSpace().getSpaceKey(),
+		spaceDirectory.keyOf(a),
 		a.getId(),
 		AuditActor.username(),
 		"Added comment on version " + versionNo,
@@ -86,7 +94,7 @@ public class CommentService {
     }
 
     @Transactional(readOnly = true)
-    public Page<CommentResponse> list(Long articleId, Integer versionNo, Pageable pageable) {
+    public Slice<CommentResponse> list(Long articleId, Integer versionNo, boolean withTotal, Pageable pageable) {
         log.info("Listing comments for articleId={}, versionNo={} by user={}", articleId, versionNo, SecurityUtils.username());
 	Article a = articleRepository.findById(articleId).orElseThrow(() -> {
             log.warn("Article not found for id={} during comment list", articleId);
@@ -104,8 +112,22 @@ public class CommentService {
         });
 
         log.debug("Fetching comments for articleId={}, versionNo={} with pageable={}", articleId, versionNo, pageable);
-	return versionCommentRepository.findByArticleAndVersionNo(a, versionNo, pageable)
-		.map(this::toDto);
+	Slice<VersionComment> page = withTotal
+		? versionCommentRepository.findByArticleAndVersionNo(a, versionNo, pageable)
+		: versionCommentRepository.findSliceByArticleAndVersionNo(a, versionNo, pageable);
+	return page.map(this::toDto);
+    }
+
+    /**
+     * ETag of {@link #list}'s pages from the number of the version's comments and the highest comment id, which
+     * change whenever the list does. Empty when the version does not exist or is hidden from the caller.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> listETag(Long articleId, Integer versionNo) {
+	return articleRepository.findCommentState(articleId, versionNo)
+		.filter(a -> !SecurityUtils.isViewer() || a.getStatus() == ArticleStatus.PUBLISHED)
+		.filter(a -> versionNo >= 1 && versionNo <= a.getCurrentVersionNo())
+		.map(a -> ETags.strong(articleId, "v" + versionNo, "c" + a.getCommentCount(), "m" + a.getLastCommentId()));
     }
 
     private CommentResponse toDto(VersionComment c) {
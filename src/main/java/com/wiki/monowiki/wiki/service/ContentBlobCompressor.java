@@ -0,0 +1,77 @@
+package com.wiki.monowiki.wiki.service;
+
+import com.wiki.monowiki.wiki.repository.ContentBlobRepository;
+import com.wiki.monowiki.wiki.repository.ContentBlobRepository.PlainBody;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Converts content_blobs rows stored as text to the compressed form while the application runs, when
+ * compressed storage is enabled (see V20).
+ *
+ * Each batch is compressed and written in its own short transaction, walking the rows in hash order, so no lock is
+ * held for long and an interrupted run just resumes on the next one. Blob bodies never change, so a row written or
+ * deleted concurrently is either skipped or converted harmlessly.
+ */
+@Component
+@Slf4j
+public class ContentBlobCompressor {
+
+    private final ContentBlobRepository blobs;
+    private final VersionStorageProperties props;
+    private final TransactionTemplate tx;
+
+    public ContentBlobCompressor(ContentBlobRepository blobs, VersionStorageProperties props,
+	    PlatformTransactionManager transactionManager) {
+	this.blobs = blobs;
+	this.props = props;
+	this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(
+	    initialDelayString = "${app.versions.storage.compression-interval:10m}",
+	    fixedDelayString = "${app.versions.storage.compression-interval:10m}"
+    )
+    public void compressExisting() {
+	if (!props.compressionEnabled()) return;
+
+	long started = System.nanoTime();
+	String afterHash = "";
+	int converted = 0;
+	long plainChars = 0;
+	long compressedBytes = 0;
+	int read;
+	do {
+	    List<PlainBody> batch = blobs.findUncompressed(props.compressionMinChars(), afterHash, props.compressionBatchSize());
+	    long[] sizes = tx.execute(status -> compressBatch(batch));
+	    converted += (int) sizes[0];
+	    plainChars += sizes[1];
+	    compressedBytes += sizes[2];
+	    read = batch.size();
+	    if (read > 0) afterHash = batch.getLast().getHash();
+	} while (read == props.compressionBatchSize());
+
+	if (converted > 0) {
+	    log.info("Compressed {} content blobs ({} chars to {} bytes) in {} ms",
+		    converted, plainChars, compressedBytes, (System.nanoTime() - started) / 1_000_000);
+	}
+    }
+
+    private long[] compressBatch(List<PlainBody> batch) {
+	long[] sizes = new long[3];
+	for (PlainBody b : batch) {
+	    byte[] compressed = ContentCompression.compress(b.getContent());
+	    if (blobs.storeCompressed(b.getHash(), compressed) > 0) {
+		sizes[0]++;
+		sizes[1] += b.getContent().length();
+		sizes[2] += compressed.length;
+	    }
+	}
+	return sizes;
+    }
+}
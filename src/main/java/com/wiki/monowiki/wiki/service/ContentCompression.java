@@ -0,0 +1,101 @@
+package com.wiki.monowiki.wiki.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Codec of compressed content_blobs bodies (see V20): a format byte, then the UTF-8 content as zlib data deflated
+ * with a preset dictionary of common Markdown and code fragments. The dictionary mostly helps short bodies, which have
+ * little history of their own to refer back to.
+ *
+ * Format 1 must keep decoding rows already written: change the dictionary only under a new format byte.
+ */
+public final class ContentCompression {
+
+    private static final byte FORMAT_MARKDOWN_V1 = 1;
+
+    // most frequent fragments last: deflate encodes nearer matches in fewer bits
+    private static final byte[] MARKDOWN_V1 = ("""
+	    </div><div class="">
+	    | --- | --- | --- |
+	    SELECT * FROM WHERE ORDER BY GROUP BY LIMIT
+	    public class private static final void String return new import package
+	    function const let async await export default
+	    if (err != nil) { return } else { }
+	    kubectl get pods -n docker run curl -X POST http://localhost:8080/api/
+	    https://github.com/ https://docs.
+	    **Note:** **Warning:** TODO: See also
+	    ```yaml
+	    ```json
+	    ```sql
+	    ```java
+	    ```bash
+	    ```
+	    - [ ] - [x]\s
+	    > \s
+	    1. 2. 3.\s
+	    ### Steps
+	    ## Overview
+	    ## Troubleshooting
+	    # the and to of a in is for that with on this be you
+	    - \s
+	    """).getBytes(StandardCharsets.UTF_8);
+
+    private ContentCompression() {}
+
+    public static byte[] compress(String content) {
+	Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+	try {
+	    deflater.setDictionary(MARKDOWN_V1);
+	    deflater.setInput(content.getBytes(StandardCharsets.UTF_8));
+	    deflater.finish();
+	    ByteArrayOutputStream out = new ByteArrayOutputStream(content.length() / 4 + 16);
+	    out.write(FORMAT_MARKDOWN_V1);
+	    byte[] buf = new byte[8192];
+	    while (!deflater.finished()) {
+		out.write(buf, 0, deflater.deflate(buf));
+	    }
+	    return out.toByteArray();
+	} finally {
+	    deflater.end();
+	}
+    }
+
+    public static String decompress(byte[] data) {
+	if (data.length == 0 || data[0] != FORMAT_MARKDOWN_V1) {
+	    throw new IllegalStateException("Unknown compressed content format " + (data.length == 0 ? "(empty)" : data[0]));
+	}
+	Inflater inflater = new Inflater();
+	try {
+	    inflater.setInput(data, 1, data.length - 1);
+	    ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 6);
+	    byte[] buf = new byte[8192];
+	    while (!inflater.finished()) {
+		int n = inflater.inflate(buf);
+		out.write(buf, 0, n);
+		if (n > 0 || inflater.finished()) continue;
+		if (inflater.needsDictionary()) {
+		    inflater.setDictionary(MARKDOWN_V1);
+		} else if (inflater.needsInput()) {
+		    throw new IllegalStateException("Truncated compressed content");
+		}
+	    }
+	    return out.toString(StandardCharsets.UTF_8);
+	} catch (DataFormatException e) {
+	    throw new IllegalStateException("Corrupt compressed content", e);
+	} finally {
+	    inflater.end();
+	}
+    }
+
+    /**
+     * The body of a content_blobs row, whichever of its columns holds it.
+     */
+    public static String text(String content, byte[] compressed) {
+	return Objects.nonNull(content) ? content : decompress(compressed);
+    }
+}
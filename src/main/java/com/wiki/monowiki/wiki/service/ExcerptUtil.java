@@ -0,0 +1,22 @@
+package com.wiki.monowiki.wiki.service;
+
+public final class ExcerptUtil {
+    public static final int MAX_LENGTH = 280;
+
+    private ExcerptUtil() {}
+
+    /**
+     * Whitespace-collapsed start of the content, cut at a word boundary with a trailing ellipsis when longer than
+     * {@link #MAX_LENGTH}. Fits articles.excerpt (300).
+     */
+    public static String excerpt(String content) {
+	if (content == null) return "";
+	String s = content.replaceAll("\\s+", " ").trim();
+	if (s.length() <= MAX_LENGTH) return s;
+
+	int cut = s.lastIndexOf(' ', MAX_LENGTH);
+	if (cut < MAX_LENGTH / 2) cut = MAX_LENGTH;
+	if (Character.isHighSurrogate(s.charAt(cut - 1))) cut--;
+	return s.substring(0, cut).stripTrailing() + "…";
+    }
+}
@@ -0,0 +1,19 @@
+package com.wiki.monowiki.wiki.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param enabled  serve GET /spaces/{spaceKey}/articles/{slug} for PUBLISHED articles from pre-serialized bytes
+ * @param maxBytes bound on the cached JSON plus gzip bytes; beyond it the least valuable entries are evicted
+ * @param ttl      upper bound on staleness for changes made by other instances, which never reach this cache's events
+ */
+@ConfigurationProperties(prefix = "app.articles.response-cache")
+public record PublishedArticleCacheProperties(
+	@DefaultValue("true") boolean enabled,
+	@DefaultValue("67108864") long maxBytes,
+	@DefaultValue("10m") Duration ttl
+) {
+}
@@ -0,0 +1,174 @@
+package com.wiki.monowiki.wiki.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.wiki.monowiki.common.concurrent.SingleFlight;
+import com.wiki.monowiki.audit.service.WikiAuditEvent;
+import com.wiki.monowiki.common.response.BaseResponse;
+import com.wiki.monowiki.wiki.dto.ArticleDtos.ArticleReadStats;
+import com.wiki.monowiki.wiki.dto.ArticleDtos.ArticleResponse;
+import com.wiki.monowiki.wiki.model.ArticleStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import static org.springframework.transaction.event.TransactionPhase.AFTER_COMMIT;
+
+/**
+ * Fully serialized {@code BaseResponse<ArticleResponse>} bodies of PUBLISHED articles, keyed by space key and slug,
+ * so repeated reads skip the service, the database and Jackson.
+ *
+ * A PUBLISHED article reads the same for every role. Any committed change to an article (review, archive, tags,
+ * comments, ...) drops its entry; a page read before the change and stored after it is discarded through the
+ * generation check in {@link #put}. Serialized with the same mapper as MVC responses, so bytes match the uncached
+ * response.
+ *
+ * Misses go through {@link #load}, which lets concurrent identical reads (same article, same role class) share one
+ * load, so an expired or just-published hot page is loaded once instead of once per waiting viewer.
+ */
+@Component
+public class PublishedArticleResponseCache {
+
+    // bytes not worth a gzip variant: the header overhead eats the saving
+    static final int GZIP_MIN_BYTES = 512;
+
+    /**
+     * @param etag the article's ETag, read before the response was loaded
+     */
+    public record Entry(Long articleId, String etag, byte[] json, byte[] gzip) {
+
+	public boolean hasGzip() {
+	    return Objects.nonNull(gzip);
+	}
+
+	int weight() {
+	    return json.length + (hasGzip() ? gzip.length : 0);
+	}
+    }
+
+    /**
+     * @param serialized the cached bytes for a PUBLISHED article, null otherwise
+     */
+    public record Read(BaseResponse<ArticleResponse> response, String etag, Entry serialized) {}
+
+    // viewers see PUBLISHED only, ADMIN / EDITOR see every status: their reads of the same slug cannot be shared
+    private record FlightKey(String spaceKey, String slug, boolean viewer) {}
+
+    private final boolean enabled;
+    private final JsonMapper jsonMapper;
+    private final Cache<String, Entry> cache;
+    private final AtomicLong generation = new AtomicLong();
+    private final SingleFlight<FlightKey, Read> flights = new SingleFlight<>();
+
+    public PublishedArticleResponseCache(PublishedArticleCacheProperties props, JsonMapper jsonMapper) {
+	this.enabled = props.enabled();
+	this.jsonMapper = jsonMapper;
+	this.cache = Caffeine.newBuilder()
+		.maximumWeight(props.maxBytes())
+		.weigher((String k, Entry e) -> e.weight())
+		.expireAfterWrite(props.ttl())
+		.recordStats()
+		.build();
+    }
+
+    public Optional<Entry> get(String spaceKey, String slug) {
+	if (!enabled) return Optional.empty();
+	return Optional.ofNullable(cache.getIfPresent(key(spaceKey, slug)));
+    }
+
+    /**
+     * Loads a missed article once for all concurrent callers with the same key and role class, caching it if
+     * PUBLISHED. Exceptions (e.g. not found) reach every waiting caller.
+     *
+     * The ETag is read before the response, so it is never newer than the body it labels; waiters get the loading
+     * caller's ETag together with its body.
+     */
+    public Read load(String spaceKey, String slug, boolean viewer, Supplier<String> etag, Supplier<BaseResponse<ArticleResponse>> loader) {
+	return flights.run(new FlightKey(spaceKey, slug, viewer), () -> {
+	    long generationAtLoad = generation();
+	    String etagAtLoad = etag.get();
+	    BaseResponse<ArticleResponse> response = loader.get();
+	    Entry serialized = response.getData().status() == ArticleStatus.PUBLISHED
+		    ? put(spaceKey, slug, etagAtLoad, response, generationAtLoad)
+		    : null;
+	    return new Read(response, etagAtLoad, serialized);
+	});
+    }
+
+    public ArticleReadStats stats() {
+	CacheStats s = cache.stats();
+	SingleFlight.Stats f = flights.stats();
+	return new ArticleReadStats(enabled, cache.estimatedSize(), s.hitCount(), s.missCount(), f.loads(), f.coalesced());
+    }
+
+    /**
+     * Read before loading the article, then pass to {@link #put}.
+     */
+    public long generation() {
+	return generation.get();
+    }
+
+    /**
+     * Serializes the response and, for a PUBLISHED article, caches it unless an article changed since
+     * {@code generationAtLoad}.
+     */
+    public Entry put(String spaceKey, String slug, String etag, BaseResponse<ArticleResponse> response, long generationAtLoad) {
+	ArticleResponse a = response.getData();
+	byte[] json = jsonMapper.writeValueAsBytes(response);
+	Entry entry = new Entry(a.id(), etag, json, json.length >= GZIP_MIN_BYTES ? gzip(json) : null);
+	if (enabled && a.status() == ArticleStatus.PUBLISHED && generation.get() == generationAtLoad) {
+	    cache.put(key(spaceKey, slug), entry);
+	}
+	return entry;
+    }
+
+    public void invalidate(Long articleId) {
+	generation.incrementAndGet();
+	cache.asMap().values().removeIf(e -> e.articleId().equals(articleId));
+    }
+
+    @TransactionalEventListener(phase = AFTER_COMMIT)
+    public void onEvent(WikiAuditEvent e) {
+	if (Objects.nonNull(e.articleId())) invalidate(e.articleId());
+    }
+
+    /**
+     * Whether an Accept-Encoding header value allows gzip.
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+	if (Objects.isNull(acceptEncoding)) return false;
+	for (String part : acceptEncoding.split(",")) {
+	    String[] coding = part.trim().split(";");
+	    if (coding[0].trim().equalsIgnoreCase("gzip")) {
+		// "gzip;q=0" explicitly refuses it
+		return coding.length < 2 || !coding[1].trim().matches("q=0(\\.0*)?");
+	    }
+	}
+	return false;
+    }
+
+    private static String key(String spaceKey, String slug) {
+	return spaceKey + "/" + slug;
+    }
+
+    private static byte[] gzip(byte[] json) {
+	ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 3);
+	try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+	    gz.write(json);
+	} catch (IOException e) {
+	    throw new UncheckedIOException(e);
+	}
+	byte[] zipped = out.toByteArray();
+	return zipped.length < json.length ? zipped : null;
+    }
+}
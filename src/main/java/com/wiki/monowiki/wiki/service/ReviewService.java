@@ -14,9 +14,9 @@ import com.wiki.monowiki.wiki.repository.ArticleRepository;
 import com.wiki.monowiki.wiki.repository.ReviewRequestRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -32,11 +32,17 @@ public class ReviewService {
     public static final String REVIEW_REQUEST_ID = "reviewRequestId";
     private final ArticleRepository articleRepository;
     private final ReviewRequestRepository reviewRequestRepository;
+    private final SearchDocumentService searchDocuments;
+    private final VersionDiffs versionDiffs;
+    private final SpaceDirectory spaceDirectory;
     private final ApplicationEventPublisher applicationEventPublisher;
 
-    public ReviewService(ArticleRepository articleRepository, ReviewRequestRepository reviewRequestRepository, ApplicationEventPublisher applicationEventPublisher) {
+    public ReviewService(ArticleRepository articleRepository, ReviewRequestRepository reviewRequestRepository, SearchDocumentService searchDocuments, VersionDiffs versionDiffs, SpaceDirectory spaceDirectory, ApplicationEventPublisher applicationEventPublisher) {
 	this.articleRepository = articleRepository;
 	this.reviewRequestRepository = reviewRequestRepository;
+	this.searchDocuments = searchDocuments;
+	this.versionDiffs = versionDiffs;
+	this.spaceDirectory = spaceDirectory;
 	this.applicationEventPublisher = applicationEventPublisher;
     }
 
@@ -60,16 +66,25 @@ public class ReviewService {
 	}
 
 	String actor = SecurityUtils.username();
+	Integer published = reviewRequestRepository.findLastVersionNo(articleId, ReviewStatus.APPROVED).orElse(null);
 
 	ReviewRequest rr = ReviewRequest.builder()
 		.article(a)
 		.status(ReviewStatus.PENDING)
+		.versionNo(a.getCurrentVersionNo())
+		.baseVersionNo(published)
 		.requestedBy(actor)
 		.build();
 
 	rr = reviewRequestRepository.save(rr);
 
+	// the reviewer opens this diff first
+	if (Objects.nonNull(published) && !published.equals(a.getCurrentVersionNo())) {
+	    versionDiffs.prefetch(articleId, published, a.getCurrentVersionNo());
+	}
+
 	a.setStatus(ArticleStatus.IN_REVIEW);
+	searchDocuments.refreshMetadata(a);
 
 	log.info("Review request {} submitted for articleId={} by user={}", rr.getId(), articleId, actor);
 
@@ -86,7 +101,7 @@ public class ReviewService {
     }
 
     @Transactional(readOnly = true)
-    public Page<ReviewRequestResponse> list(Integer page, Integer size, String status) {
+    public Slice<ReviewRequestResponse> list(Integer page, Integer size, String status, boolean withTotal) {
         log.info("Listing review requests: page={}, size={}, status={}, by user={}", page, size, status, SecurityUtils.username());
 	Pageable pageable = PageRequest.of(
 		page != null ? page : 0,
@@ -94,14 +109,14 @@ public class ReviewService {
 		Sort.by(Sort.Direction.DESC, "requestedAt")
 	);
 
-	Page<ReviewRequest> result;
+	Slice<ReviewRequest> result;
 	if (status != null && !status.isBlank()) {
             ReviewStatus rs = ReviewStatus.valueOf(status.trim().toUpperCase());
             log.debug("Filtering review requests by status={}", rs);
-	    result = reviewRequestRepository.findByStatus(rs, pageable);
+	    result = withTotal ? reviewRequestRepository.findByStatus(rs, pageable) : reviewRequestRepository.findSliceByStatus(rs, pageable);
 	} else {
             log.debug("Listing all review requests");
-	    result = reviewRequestRepository.findAll(pageable);
+	    result = withTotal ? reviewRequestRepository.findAll(pageable) : reviewRequestRepository.findSliceBy(pageable);
 	}
 
 	return result.map(this::toResponse);
@@ -127,6 +142,7 @@ public class ReviewService {
 
 	Article a = rr.getArticle();
 	a.setStatus(ArticleStatus.PUBLISHED);
+	searchDocuments.refreshMetadata(a);
 
 	log.info("Review request {} approved and article {} published by user={}", reviewRequestId, a.getId(), SecurityUtils.username());
 
@@ -163,6 +179,7 @@ public class ReviewService {
 
 	Article a = rr.getArticle();
 	a.setStatus(ArticleStatus.DRAFT);
+	searchDocuments.refreshMetadata(a);
 
 	log.info("Review request {} rejected and article {} set to draft by user={}", reviewRequestId, a.getId(), SecurityUtils.username());
 
@@ -190,7 +207,7 @@ public class ReviewService {
                 eventType,
                 AuditEntityType.REVIEW_REQUEST,
                 reviewRequest.getId(),
-                article.getSpace().getSpaceKey(),
+                spaceDirectory.keyOf(article),
                 article.getId(),
                 AuditActor.username(),
                 message,
@@ -205,9 +222,11 @@ public class ReviewService {
 		rr.getId(),
 		a.getId(),
 		a.getSlug(),
-		a.getSpace().getSpaceKey(),
+		spaceDirectory.keyOf(a),
 		a.getStatus(),
 		rr.getStatus(),
+		rr.getVersionNo(),
+		rr.getBaseVersionNo(),
 		rr.getRequestedBy(),
 		rr.getRequestedAt(),
 		rr.getReviewedBy(),
@@ -0,0 +1,96 @@
+package com.wiki.monowiki.wiki.service;
+
+import com.wiki.monowiki.wiki.model.Article;
+import com.wiki.monowiki.wiki.model.ArticleSearchDoc;
+import com.wiki.monowiki.wiki.model.ArticleVersion;
+import com.wiki.monowiki.wiki.repository.ArticleSearchDocRepository;
+import com.wiki.monowiki.wiki.repository.ArticleTagRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Keeps the article_search_doc read model in step with the wiki services.
+ *
+ * Called inside the caller's transaction, so the read model commits (or rolls back) together with the change.
+ */
+@Service
+@Slf4j
+public class SearchDocumentService {
+
+    private final ArticleSearchDocRepository docs;
+    private final ArticleTagRepository articleTags;
+    private final VersionContents contents;
+
+    public SearchDocumentService(ArticleSearchDocRepository docs,
+	    ArticleTagRepository articleTags,
+	    VersionContents contents) {
+	this.docs = docs;
+	this.articleTags = articleTags;
+	this.contents = contents;
+    }
+
+    /**
+     * Full refresh: article created or a new latest version was added.
+     */
+    @Transactional
+    public void refresh(Article a, String latestContent) {
+	ArticleSearchDoc doc = docs.findById(a.getId())
+		.orElseGet(() -> ArticleSearchDoc.builder()
+			.articleId(a.getId())
+			.tagIds(currentTagIds(a))
+			.build());
+	copyMetadata(a, doc);
+	doc.setContent(Objects.requireNonNullElse(latestContent, ""));
+	docs.save(doc);
+	log.debug("SEARCH_DOC_REFRESHED: articleId={} status={}", a.getId(), a.getStatus());
+    }
+
+    /**
+     * Title or status changed; content is untouched.
+     */
+    @Transactional
+    public void refreshMetadata(Article a) {
+	docs.findById(a.getId()).ifPresentOrElse(
+		doc -> {
+		    copyMetadata(a, doc);
+		    log.debug("SEARCH_DOC_METADATA_REFRESHED: articleId={} status={}", a.getId(), a.getStatus());
+		},
+		() -> refresh(a, latestContent(a))
+	);
+    }
+
+    @Transactional
+    public void addTag(Article a, Long tagId) {
+	docs.addTag(a.getId(), tagId);
+    }
+
+    @Transactional
+    public void removeTag(Article a, Long tagId) {
+	docs.removeTag(a.getId(), tagId);
+    }
+
+    private void copyMetadata(Article a, ArticleSearchDoc doc) {
+	doc.setSpaceId(a.getSpace().getId());
+	doc.setStatus(a.getStatus());
+	doc.setTitle(a.getTitle());
+	// articles.updated_at is only assigned at flush, so the read model stamps its own change time
+	doc.setUpdatedAt(Instant.now());
+    }
+
+    private List<Long> currentTagIds(Article a) {
+	return new ArrayList<>(articleTags.findByArticle(a).stream()
+		.map(at -> at.getTag().getId())
+		.toList());
+    }
+
+    private String latestContent(Article a) {
+	ArticleVersion current = a.getCurrentVersion();
+	return Objects.isNull(current) ? null : contents.content(current);
+    }
+}
@@ -1,90 +1,373 @@
 package com.wiki.monowiki.wiki.service;
 
+import com.wiki.monowiki.common.paging.CursorPage;
+import com.wiki.monowiki.common.paging.KeysetCursor;
 import com.wiki.monowiki.common.security.SecurityUtils;
-import com.wiki.monowiki.wiki.dto.ArticleDtos.ArticleResponse;
-import com.wiki.monowiki.wiki.dto.ArticleDtos.TagSummary;
+import com.wiki.monowiki.wiki.dto.SearchDtos.CursorSearchResult;
+import com.wiki.monowiki.wiki.dto.SearchDtos.GlobalSearchResult;
+import com.wiki.monowiki.wiki.dto.SearchDtos.SearchCacheStats;
+import com.wiki.monowiki.wiki.dto.SearchDtos.SearchResult;
+import com.wiki.monowiki.wiki.dto.SearchDtos.SearchResultResponse;
+import com.wiki.monowiki.wiki.dto.SearchDtos.TagFacet;
 import com.wiki.monowiki.wiki.model.Article;
-import com.wiki.monowiki.wiki.model.ArticleTag;
-import com.wiki.monowiki.wiki.model.ArticleVersion;
-import com.wiki.monowiki.wiki.repository.ArticleRepository;
-import com.wiki.monowiki.wiki.repository.ArticleTagRepository;
-import com.wiki.monowiki.wiki.repository.ArticleVersionRepository;
-import com.wiki.monowiki.wiki.repository.VersionCommentRepository;
+import com.wiki.monowiki.wiki.model.SearchMode;
+import com.wiki.monowiki.wiki.model.SearchSort;
+import com.wiki.monowiki.wiki.repository.*;
+import com.wiki.monowiki.wiki.repository.ArticleSearchQueries.Criteria;
+import com.wiki.monowiki.wiki.repository.ArticleSearchQueries.Hit;
+import com.wiki.monowiki.wiki.repository.ArticleSearchQueries.Visibility;
+import com.wiki.monowiki.wiki.search.PublishedArticleIndex;
+import com.wiki.monowiki.wiki.search.SearchFanout;
+import com.wiki.monowiki.wiki.search.SearchResultCache;
+import com.wiki.monowiki.wiki.search.Snippets;
+import com.wiki.monowiki.wiki.search.Snippets.Snippet;
+import com.wiki.monowiki.wiki.search.TagBitmapIndex;
+import com.wiki.monowiki.wiki.service.SpaceDirectory.SpaceRef;
 import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.List;
-import java.util.Objects;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class SearchService {
 
+    private static final Sort.Order RECENT_ORDER = Sort.Order.desc("updatedAt");
+
+    private final SpaceDirectory spaceDirectory;
     private final ArticleRepository articleRepository;
-    private final ArticleVersionRepository articleVersionRepository;
-    private final ArticleTagRepository articleTagRepository;
-    private final VersionCommentRepository versionCommentRepository;
-
-    public SearchService(ArticleRepository articleRepository,
-	    ArticleVersionRepository articleVersionRepository,
-	    ArticleTagRepository articleTagRepository,
-	    VersionCommentRepository versionCommentRepository) {
+    private final ArticleSearchDocRepository searchDocRepository;
+    private final ArticleResponseAssembler responses;
+    private final TagRepository tagRepository;
+    private final PublishedArticleIndex publishedIndex;
+    private final TagBitmapIndex tagBitmaps;
+    private final SearchFanout fanout;
+    private final SearchResultCache resultCache;
+    private final PlatformTransactionManager transactionManager;
+    private final TransactionTemplate readOnlyTx;
+
+    public SearchService(SpaceDirectory spaceDirectory,
+	    ArticleRepository articleRepository,
+	    ArticleSearchDocRepository searchDocRepository,
+	    ArticleResponseAssembler responses,
+	    TagRepository tagRepository,
+	    PublishedArticleIndex publishedIndex,
+	    TagBitmapIndex tagBitmaps,
+	    SearchFanout fanout,
+	    SearchResultCache resultCache,
+	    PlatformTransactionManager transactionManager) {
+	this.spaceDirectory = spaceDirectory;
 	this.articleRepository = articleRepository;
-	this.articleVersionRepository = articleVersionRepository;
-	this.articleTagRepository = articleTagRepository;
-	this.versionCommentRepository = versionCommentRepository;
+	this.searchDocRepository = searchDocRepository;
+	this.responses = responses;
+	this.tagRepository = tagRepository;
+	this.publishedIndex = publishedIndex;
+	this.tagBitmaps = tagBitmaps;
+	this.fanout = fanout;
+	this.resultCache = resultCache;
+	this.transactionManager = transactionManager;
+	this.readOnlyTx = new TransactionTemplate(transactionManager);
+	this.readOnlyTx.setReadOnly(true);
     }
 
-    @Transactional(readOnly = true)
-    public Page<ArticleResponse> search(String spaceKey, String q, boolean includeArchived, Pageable pageable) {
-        log.info("Searching articles in spaceKey='{}', query='{}', includeArchived={}, by user={}", spaceKey, q, includeArchived, SecurityUtils.username());
-        Page<Article> page;
-        if (SecurityUtils.isViewer()) {
-            log.debug("Viewer search: only published articles will be returned for spaceKey='{}'", spaceKey);
-            page = articleRepository.searchLatestPublishedInSpace(spaceKey, q, pageable);
-        } else if (includeArchived) {
-            log.debug("Search including archived articles for spaceKey='{}'", spaceKey);
-            page = articleRepository.searchLatestInSpace(spaceKey, q, pageable);
-        } else {
-            log.debug("Search excluding archived articles for spaceKey='{}'", spaceKey);
-            page = articleRepository.searchLatestNonArchivedInSpace(spaceKey, q, pageable);
+    /**
+     * Matches against the article_search_doc read model, then loads only the articles on the requested page.
+     * Ordering comes from {@code sort} (RELEVANCE ranks FULLTEXT and FUZZY; SUBSTRING is always newest first),
+     * not the pageable's sort.
+     * Viewer FULLTEXT queries are matched in the in-memory published index when it can answer for the space.
+     * Each result carries a bounded snippet around its best match; the full latest content only with includeContent.
+     * With tagIds only articles carrying all of those tags match. Facets count the tags of every match (not just
+     * the page) from {@link TagBitmapIndex}.
+     *
+     * Pages are served from {@link SearchResultCache} when possible; only a miss opens a read-only transaction.
+     */
+    public SearchResult search(String spaceKey, String q, SearchMode mode, SearchSort sort, double similarity, List<Long> tagIds, boolean includeArchived, boolean includeContent, Pageable pageable) {
+        log.info("Searching articles in spaceKey='{}', query='{}', mode={}, sort={}, tagIds={}, includeArchived={}, by user={}", spaceKey, q, mode, sort, tagIds, includeArchived, SecurityUtils.username());
+        validateSimilarity(similarity);
+        List<Long> tags = normalizeTags(tagIds);
+
+        Visibility visibility = visibility(spaceKey, includeArchived);
+        SearchResultCache.Key key = resultCache.key(spaceKey, q, mode, sort, similarity, tags, visibility, includeContent,
+                pageable.getPageNumber(), pageable.getPageSize());
+        return resultCache.get(key, () -> readOnlyTx.execute(status -> {
+            Optional<SpaceRef> space = spaceDirectory.find(spaceKey);
+            if (space.isEmpty()) {
+                log.debug("Search in unknown spaceKey='{}' returns no results", spaceKey);
+                return new SearchResult(Page.empty(pageable), List.of());
+            }
+
+            Criteria criteria = new Criteria(space.get().id(), q, mode, sort, visibility, similarity, tags);
+            Page<Hit> hits = hits(criteria, pageable);
+
+            log.info("Search result: {} articles found for spaceKey='{}'", hits.getTotalElements(), spaceKey);
+            return new SearchResult(toPage(hits.getContent(), q, mode, includeContent, pageable, hits.getTotalElements()), facets(criteria));
+        }));
+    }
+
+    public SearchCacheStats cacheStats() {
+        return resultCache.stats();
+    }
+
+    /**
+     * Cross-space search with the same visibility rules as {@link #search}. Every space is searched in parallel for
+     * its own top offset+size hits, then the per-space rankings are merged into one. Spaces that have not answered by
+     * the deadline are reported in {@code incompleteSpaces} instead of holding up the response.
+     *
+     * A relevance merge compares scores across spaces, so every space is ranked in the database: ts_rank and
+     * word_similarity depend only on the article, while the published index's BM25 depends on its space's term
+     * statistics. Recent order compares update times and still uses the index.
+     *
+     * Not transactional as a whole: each space runs in its own read-only transaction on a fan-out thread, timed out
+     * at the deadline (rounded up to whole seconds) so the database cancels a query nobody will wait for.
+     */
+    public GlobalSearchResult searchAllSpaces(String q, SearchMode mode, SearchSort sort, double similarity, List<Long> tagIds, boolean includeArchived, boolean includeContent, Pageable pageable) {
+        log.info("Searching articles in all spaces, query='{}', mode={}, sort={}, tagIds={}, includeArchived={}, by user={}", q, mode, sort, tagIds, includeArchived, SecurityUtils.username());
+        validateSimilarity(similarity);
+        List<Long> tags = normalizeTags(tagIds);
+
+        Visibility visibility = visibility("*", includeArchived);
+        Pageable topK = PageRequest.of(0, (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize()));
+
+        boolean byScore = mode != SearchMode.SUBSTRING && sort != SearchSort.RECENT;
+
+        Map<String, Function<Duration, Page<Hit>>> tasks = new LinkedHashMap<>();
+        for (SpaceRef space : spaceDirectory.all()) {
+            Criteria criteria = new Criteria(space.id(), q, mode, sort, visibility, similarity, tags);
+            tasks.put(space.spaceKey(), left -> readOnlyTx(left).execute(status -> byScore
+                    ? searchDocRepository.search(criteria, topK)
+                    : hits(criteria, topK)));
+        }
+
+        SearchFanout.Outcome<Page<Hit>> outcome = fanout.run(tasks);
+        if (!outcome.incomplete().isEmpty()) {
+            log.warn("Cross-space search incomplete: no answer in time from spaces {}", outcome.incomplete());
         }
-        log.info("Search result: {} articles found for spaceKey='{}'", page.getTotalElements(), spaceKey);
-        return page.map(this::toResponse);
+
+        long total = outcome.completed().values().stream().mapToLong(Page::getTotalElements).sum();
+        List<Hit> merged = merge(outcome.completed().values(), ranking(mode, sort), pageable);
+        Page<SearchResultResponse> page = readOnlyTx.execute(status -> toPage(merged, q, mode, includeContent, pageable, total));
+
+        log.info("Cross-space search result: {} articles found in {} spaces", total, outcome.completed().size());
+        return new GlobalSearchResult(page, outcome.incomplete());
     }
 
-    private ArticleResponse toResponse(Article a) {
-        Integer cv = a.getCurrentVersionNo();
+    /**
+     * Keyset paging in RECENT order (last update, then id, newest first), so it needs sort=recent or SUBSTRING mode:
+     * relevance scores give no stable position to continue from. Reads article_search_doc directly (no result cache,
+     * in-memory index or facets) and never counts. Without spaceKey every space returns its next size + 1 hits in
+     * parallel and those are merged, with the same deadline as {@link #searchAllSpaces}.
+     */
+    public CursorSearchResult searchByCursor(String spaceKey, String q, SearchMode mode, SearchSort sort, double similarity, List<Long> tagIds, boolean includeArchived, boolean includeContent, String cursor, int size) {
+        log.info("Cursor search in spaceKey='{}', query='{}', mode={}, tagIds={}, includeArchived={}, by user={}", spaceKey, q, mode, tagIds, includeArchived, SecurityUtils.username());
+        validateSimilarity(similarity);
+        if (mode != SearchMode.SUBSTRING && sort != SearchSort.RECENT) {
+            throw new IllegalArgumentException("Cursor paging needs sort=recent");
+        }
+        KeysetCursor position = KeysetCursor.decode(cursor, RECENT_ORDER);
+        Hit after = Objects.isNull(position) ? null : new Hit(position.id(), 0, position.at());
+        List<Long> tags = normalizeTags(tagIds);
+        boolean allSpaces = Objects.isNull(spaceKey) || spaceKey.isBlank();
+        Visibility visibility = visibility(allSpaces ? "*" : spaceKey, includeArchived);
+
+        List<Hit> hits;
+        List<String> incomplete = List.of();
+        if (allSpaces) {
+            Map<String, Function<Duration, Page<Hit>>> tasks = new LinkedHashMap<>();
+            for (SpaceRef space : spaceDirectory.all()) {
+                Criteria criteria = new Criteria(space.id(), q, mode, sort, visibility, similarity, tags);
+                tasks.put(space.spaceKey(), left -> readOnlyTx(left).execute(status -> new PageImpl<>(searchDocRepository.searchAfter(criteria, after, size + 1))));
+            }
+            SearchFanout.Outcome<Page<Hit>> outcome = fanout.run(tasks);
+            if (!outcome.incomplete().isEmpty()) {
+                log.warn("Cursor search incomplete: no answer in time from spaces {}", outcome.incomplete());
+            }
+            incomplete = outcome.incomplete();
+            hits = merge(outcome.completed().values(), ranking(SearchMode.SUBSTRING, SearchSort.RECENT), PageRequest.of(0, size + 1));
+        } else {
+            hits = readOnlyTx.execute(status -> spaceDirectory.find(spaceKey)
+                    .map(space -> searchDocRepository.searchAfter(
+                            new Criteria(space.id(), q, mode, sort, visibility, similarity, tags), after, size + 1))
+                    .orElseGet(List::of));
+        }
+
+        boolean hasNext = hits.size() > size;
+        List<Hit> page = hasNext ? hits.subList(0, size) : hits;
+        String nextCursor = hasNext
+                ? new KeysetCursor(RECENT_ORDER.getProperty(), RECENT_ORDER.getDirection(), page.getLast().updatedAt(), page.getLast().articleId()).encode()
+                : null;
+        List<SearchResultResponse> content = readOnlyTx.execute(status -> toResponses(page, q, mode, includeContent));
+        return new CursorSearchResult(new CursorPage<>(content, nextCursor), incomplete);
+    }
 
-        String latestContent = null;
-        if (Objects.nonNull(cv) && cv > 0) {
-            latestContent = articleVersionRepository.findByArticleAndVersionNo(a, cv)
-                    .map(ArticleVersion::getContent)
-                    .orElse(null);
+    private static void validateSimilarity(double similarity) {
+        if (similarity < 0 || similarity > 1) {
+            throw new IllegalArgumentException("similarity must be between 0 and 1");
         }
+    }
+
+    private static List<Long> normalizeTags(List<Long> tagIds) {
+        return Objects.isNull(tagIds) ? List.of() : tagIds.stream().filter(Objects::nonNull).distinct().sorted().toList();
+    }
+
+    // a fan-out task's transaction: read-only and timed out when the search stops waiting for it
+    private TransactionTemplate readOnlyTx(Duration left) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        tx.setTimeout((int) Math.max(1, Math.min(Integer.MAX_VALUE, (left.toMillis() + 999) / 1000)));
+        return tx;
+    }
+
+    private Page<Hit> hits(Criteria criteria, Pageable pageable) {
+        return useIndex(criteria)
+                ? publishedIndex.search(criteria.spaceId(), criteria.q(), criteria.sort(), pageable, tagFilter(criteria))
+                        .orElseGet(() -> searchDocRepository.search(criteria, pageable))
+                : searchDocRepository.search(criteria, pageable);
+    }
 
-        List<TagSummary> tagSummaries = articleTagRepository.findByArticle(a).stream()
-                .map(ArticleTag::getTag)
-                .map(t -> new TagSummary(t.getId(), t.getName()))
+    /** The published index filters tags through the tag bitmaps, so it needs them loaded. */
+    private boolean useIndex(Criteria criteria) {
+        return criteria.visibility() == Visibility.PUBLISHED_ONLY
+                && criteria.mode() == SearchMode.FULLTEXT
+                && (criteria.tagIds().isEmpty() || tagBitmaps.isReady());
+    }
+
+    private LongPredicate tagFilter(Criteria criteria) {
+        if (criteria.tagIds().isEmpty()) return id -> true;
+        RoaringBitmap tagged = tagBitmaps.articlesWithAll(criteria.tagIds());
+        return id -> tagged.contains(TagBitmapIndex.bit(id));
+    }
+
+    /**
+     * Tag counts over every matching article: the match set (from the index or one id-only query) is intersected
+     * with each tag's bitmap.
+     */
+    private List<TagFacet> facets(Criteria criteria) {
+        if (!tagBitmaps.isReady()) return null;
+
+        RoaringBitmap matched = (useIndex(criteria)
+                ? publishedIndex.matchingIds(criteria.spaceId(), criteria.q(), tagFilter(criteria))
+                : Optional.<RoaringBitmap>empty())
+                .orElseGet(() -> searchDocRepository.matchingIds(criteria));
+        Map<Long, Integer> counts = tagBitmaps.counts(matched);
+        if (counts.isEmpty()) return List.of();
+
+        return tagRepository.findAllById(counts.keySet()).stream()
+                .map(t -> new TagFacet(t.getId(), t.getName(), counts.get(t.getId())))
+                .sorted(Comparator.comparingInt(TagFacet::count).reversed().thenComparing(TagFacet::name))
+                .toList();
+    }
+
+    /**
+     * Loads only the articles on the page, keeping hit order. Snippets, tags, comment counts and (optionally)
+     * content are each loaded with one query for the whole page.
+     */
+    private Page<SearchResultResponse> toPage(List<Hit> hits, String q, SearchMode mode, boolean includeContent, Pageable pageable, long total) {
+        return new PageImpl<>(toResponses(hits, q, mode, includeContent), pageable, total);
+    }
+
+    private List<SearchResultResponse> toResponses(List<Hit> hits, String q, SearchMode mode, boolean includeContent) {
+        List<Long> ids = hits.stream().map(Hit::articleId).toList();
+        Map<Long, Article> articlesById = articleRepository.findWithSpaceByIdIn(ids).stream()
+                .collect(Collectors.toMap(Article::getId, Function.identity()));
+        Map<Long, String> snippets = searchDocRepository.snippets(ids, q, mode);
+        ArticleResponseAssembler.Details details = responses.details(articlesById.values(), includeContent);
+        return hits.stream()
+                .map(h -> articlesById.get(h.articleId()))
+                .filter(Objects::nonNull)
+                .map(a -> toResponse(a, snippet(snippets.get(a.getId()), q, mode), details))
                 .toList();
+    }
+
+    /** Best first: the order each space already returned its hits in. */
+    private static Comparator<Hit> ranking(SearchMode mode, SearchSort sort) {
+        Comparator<Hit> recent = Comparator.comparing(Hit::updatedAt, Comparator.reverseOrder())
+                .thenComparing(Hit::articleId, Comparator.reverseOrder());
+        if (mode == SearchMode.SUBSTRING || sort == SearchSort.RECENT) return recent;
+        return Comparator.comparingDouble(Hit::score).reversed().thenComparing(recent);
+    }
+
+    /**
+     * k-way merge of per-space rankings; stops as soon as the requested page is filled.
+     */
+    private static List<Hit> merge(Collection<Page<Hit>> perSpace, Comparator<Hit> ranking, Pageable pageable) {
+        PriorityQueue<Cursor> heads = new PriorityQueue<>((a, b) -> ranking.compare(a.head(), b.head()));
+        for (Page<Hit> p : perSpace) {
+            if (p.hasContent()) heads.add(new Cursor(p.getContent()));
+        }
+
+        List<Hit> out = new ArrayList<>(pageable.getPageSize());
+        long skip = pageable.getOffset();
+        while (!heads.isEmpty() && out.size() < pageable.getPageSize()) {
+            Cursor c = heads.poll();
+            if (skip > 0) {
+                skip--;
+            } else {
+                out.add(c.head());
+            }
+            if (c.advance()) heads.add(c);
+        }
+        return out;
+    }
+
+    private static final class Cursor {
+        private final List<Hit> hits;
+        private int index;
+
+        Cursor(List<Hit> hits) {
+            this.hits = hits;
+        }
+
+        Hit head() {
+            return hits.get(index);
+        }
+
+        boolean advance() {
+            return ++index < hits.size();
+        }
+    }
+
+    private Visibility visibility(String spaceKey, boolean includeArchived) {
+        if (SecurityUtils.isViewer()) {
+            log.debug("Viewer search: only published articles will be returned for spaceKey='{}'", spaceKey);
+            return Visibility.PUBLISHED_ONLY;
+        }
+        log.debug("Search {} archived articles for spaceKey='{}'", includeArchived ? "including" : "excluding", spaceKey);
+        return includeArchived ? Visibility.ALL : Visibility.NON_ARCHIVED;
+    }
 
-        long commentCount = (Objects.nonNull(cv) && cv > 0)
-                ? versionCommentRepository.countByArticleAndVersionNo(a, cv)
-                : 0L;
+    private static Snippet snippet(String raw, String q, SearchMode mode) {
+        return switch (mode) {
+            case FULLTEXT -> Snippets.fromMarked(raw);
+            case SUBSTRING -> Snippets.fromWindow(raw, q);
+            case FUZZY -> Snippets.fromWindow(raw, null);
+        };
+    }
 
-        return new ArticleResponse(
+    private SearchResultResponse toResponse(Article a, Snippet snippet, ArticleResponseAssembler.Details details) {
+        return new SearchResultResponse(
                 a.getId(),
-                a.getSpace().getSpaceKey(),
+                spaceDirectory.keyOf(a),
                 a.getSlug(),
                 a.getTitle(),
                 a.getStatus(),
                 a.getCurrentVersionNo(),
-                latestContent,
-                tagSummaries,
-                commentCount,
+                snippet.text(),
+                snippet.highlights(),
+                details.latestContentOf(a.getId()),
+                details.tagsOf(a.getId()),
+                details.commentCountOf(a.getId()),
                 a.getCreatedBy(),
                 a.getCreatedAt(),
                 a.getUpdatedAt()
@@ -0,0 +1,142 @@
+package com.wiki.monowiki.wiki.service;
+
+import com.wiki.monowiki.audit.model.AuditEventType;
+import com.wiki.monowiki.audit.service.WikiAuditEvent;
+import com.wiki.monowiki.wiki.model.Article;
+import com.wiki.monowiki.wiki.model.Space;
+import com.wiki.monowiki.wiki.repository.SpaceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.transaction.event.TransactionPhase.AFTER_COMMIT;
+
+/**
+ * Process-wide spaceKey / id / name lookup, so requests stop paying a query (or a lazy Space proxy load) to resolve
+ * a space.
+ *
+ * Spaces are few and never renamed or deleted, so the whole table is held as one immutable snapshot that is swapped,
+ * never mutated. A key or id missing from it is looked up once in the database (it may have been created on another
+ * instance); keys that do not exist are remembered for {@code negative-ttl}. The snapshot is dropped after each
+ * committed space create and reloaded at the latest after {@code ttl}.
+ */
+@Component
+@Slf4j
+public class SpaceDirectory {
+
+    // unknown keys come from URLs; past this many, the negative cache starts over
+    static final int MAX_UNKNOWN_KEYS = 10_000;
+
+    public record SpaceRef(Long id, String spaceKey, String name) {
+
+	static SpaceRef of(Space s) {
+	    return new SpaceRef(s.getId(), s.getSpaceKey(), s.getName());
+	}
+    }
+
+    private record Snapshot(Map<String, SpaceRef> byKey, Map<Long, SpaceRef> byId, long loadedAt) {
+
+	static Snapshot of(Collection<SpaceRef> refs, long loadedAt) {
+	    Map<String, SpaceRef> byKey = new HashMap<>();
+	    Map<Long, SpaceRef> byId = new HashMap<>();
+	    for (SpaceRef r : refs) {
+		byKey.put(r.spaceKey(), r);
+		byId.put(r.id(), r);
+	    }
+	    return new Snapshot(Map.copyOf(byKey), Map.copyOf(byId), loadedAt);
+	}
+
+	Snapshot with(SpaceRef ref) {
+	    List<SpaceRef> refs = new ArrayList<>(byId.values());
+	    refs.add(ref);
+	    return of(refs, loadedAt);
+	}
+    }
+
+    private final SpaceRepository spaces;
+    private final SpaceDirectoryProperties properties;
+    // key -> System.nanoTime() after which the database is asked again
+    private final Map<String, Long> unknownKeys = new ConcurrentHashMap<>();
+    private volatile Snapshot snapshot;
+
+    public SpaceDirectory(SpaceRepository spaces, SpaceDirectoryProperties properties) {
+	this.spaces = spaces;
+	this.properties = properties;
+    }
+
+    public Optional<SpaceRef> find(String spaceKey) {
+	if (Objects.isNull(spaceKey)) return Optional.empty();
+	SpaceRef ref = current().byKey().get(spaceKey);
+	if (Objects.nonNull(ref)) return Optional.of(ref);
+
+	Long retryAt = unknownKeys.get(spaceKey);
+	if (Objects.nonNull(retryAt) && System.nanoTime() - retryAt < 0) return Optional.empty();
+
+	Optional<SpaceRef> loaded = spaces.findBySpaceKey(spaceKey).map(SpaceRef::of);
+	loaded.ifPresentOrElse(this::add, () -> rememberUnknown(spaceKey));
+	return loaded;
+    }
+
+    public Optional<SpaceRef> findById(Long id) {
+	if (Objects.isNull(id)) return Optional.empty();
+	SpaceRef ref = current().byId().get(id);
+	if (Objects.nonNull(ref)) return Optional.of(ref);
+
+	Optional<SpaceRef> loaded = spaces.findById(id).map(SpaceRef::of);
+	loaded.ifPresent(this::add);
+	return loaded;
+    }
+
+    /**
+     * The article's space key. Only reads the id of {@code a.getSpace()}, which does not initialize a lazy proxy.
+     */
+    public String keyOf(Article a) {
+	return findById(a.getSpace().getId())
+		.map(SpaceRef::spaceKey)
+		.orElseGet(() -> a.getSpace().getSpaceKey());
+    }
+
+    /**
+     * All spaces, ordered by id.
+     */
+    public List<SpaceRef> all() {
+	return current().byKey().values().stream()
+		.sorted(Comparator.comparing(SpaceRef::id))
+		.toList();
+    }
+
+    public void invalidate() {
+	snapshot = null;
+	unknownKeys.clear();
+	log.debug("Space directory invalidated");
+    }
+
+    @TransactionalEventListener(phase = AFTER_COMMIT)
+    public void onEvent(WikiAuditEvent e) {
+	if (e.eventType() == AuditEventType.SPACE_CREATED) invalidate();
+    }
+
+    private Snapshot current() {
+	Snapshot s = snapshot;
+	if (Objects.isNull(s) || System.nanoTime() - s.loadedAt() > properties.ttl().toNanos()) {
+	    s = Snapshot.of(spaces.findAll().stream().map(SpaceRef::of).toList(), System.nanoTime());
+	    snapshot = s;
+	    log.debug("Space directory loaded: {} spaces", s.byId().size());
+	}
+	return s;
+    }
+
+    private void add(SpaceRef ref) {
+	// a racing reload may drop this again; the next miss then simply reads it once more
+	snapshot = current().with(ref);
+	unknownKeys.remove(ref.spaceKey());
+    }
+
+    private void rememberUnknown(String spaceKey) {
+	if (unknownKeys.size() >= MAX_UNKNOWN_KEYS) unknownKeys.clear();
+	unknownKeys.put(spaceKey, System.nanoTime() + properties.negativeTtl().toNanos());
+    }
+}
@@ -0,0 +1,18 @@
+package com.wiki.monowiki.wiki.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param ttl         the whole directory is reloaded after this long, bounding staleness for spaces created on
+ *                    other instances (this instance reloads right after its own creates)
+ * @param negativeTtl how long an unknown space key is answered without asking the database again
+ */
+@ConfigurationProperties(prefix = "app.spaces.directory")
+public record SpaceDirectoryProperties(
+	@DefaultValue("5m") Duration ttl,
+	@DefaultValue("30s") Duration negativeTtl
+) {
+}
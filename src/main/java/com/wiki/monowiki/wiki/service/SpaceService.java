@@ -11,8 +11,8 @@ import com.wiki.monowiki.wiki.model.Space;
 import com.wiki.monowiki.wiki.repository.SpaceRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,10 +23,12 @@ import java.util.Objects;
 public class SpaceService {
 
     private final SpaceRepository repo;
+    private final SpaceDirectory directory;
     private final ApplicationEventPublisher publisher;
 
-    public SpaceService(SpaceRepository repo, ApplicationEventPublisher publisher) {
+    public SpaceService(SpaceRepository repo, SpaceDirectory directory, ApplicationEventPublisher publisher) {
 	this.repo = repo;
+	this.directory = directory;
 	this.publisher = publisher;
     }
 
@@ -65,9 +67,10 @@ public class SpaceService {
     }
 
     @Transactional(readOnly = true)
-    public Page<SpaceResponse> list(Pageable pageable) {
+    public Slice<SpaceResponse> list(boolean withTotal, Pageable pageable) {
         log.info("Listing spaces with pageable={} by user={}", pageable, SecurityUtils.username());
-	return repo.findAll(pageable)
+	Slice<Space> page = withTotal ? repo.findAll(pageable) : repo.findSliceBy(pageable);
+	return page
 		.map(s -> new SpaceResponse(s.getId(), s.getSpaceKey(), s.getName()));
     }
 
@@ -78,11 +81,11 @@ public class SpaceService {
             log.warn("Space key is null or blank");
             throw new NotFoundException("Space key cannot be null or blank");
         }
-        var s = repo.findBySpaceKey(key).orElseThrow(() -> {
+        var s = directory.find(key).orElseThrow(() -> {
             log.warn("Space not found for key='{}'", key);
             return new NotFoundException("Space not found");
         });
-	return new SpaceResponse(s.getId(), s.getSpaceKey(), s.getName());
+	return new SpaceResponse(s.id(), s.spaceKey(), s.name());
     }
 
     public static class NotFoundException extends RuntimeException {
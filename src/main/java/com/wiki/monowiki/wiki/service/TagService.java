@@ -17,8 +17,8 @@ import com.wiki.monowiki.wiki.repository.TagRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,12 +32,16 @@ public class TagService {
     private final TagRepository tags;
     private final ArticleRepository articles;
     private final ArticleTagRepository articleTags;
+    private final SearchDocumentService searchDocuments;
+    private final SpaceDirectory spaceDirectory;
     private final ApplicationEventPublisher publisher;
 
-    public TagService(TagRepository tags, ArticleRepository articles, ArticleTagRepository articleTags, ApplicationEventPublisher publisher) {
+    public TagService(TagRepository tags, ArticleRepository articles, ArticleTagRepository articleTags, SearchDocumentService searchDocuments, SpaceDirectory spaceDirectory, ApplicationEventPublisher publisher) {
 	this.tags = tags;
 	this.articles = articles;
 	this.articleTags = articleTags;
+	this.searchDocuments = searchDocuments;
+	this.spaceDirectory = spaceDirectory;
 	this.publisher = publisher;
     }
 
@@ -64,9 +68,10 @@ public class TagService {
     }
 
     @Transactional(readOnly = true)
-    public Page<TagResponse> list(Pageable pageable) {
+    public Slice<TagResponse> list(boolean withTotal, Pageable pageable) {
         log.info("Listing tags with pageable={} by user={}", pageable, currentUsername());
-        return tags.findAll(pageable)
+        Slice<Tag> page = withTotal ? tags.findAll(pageable) : tags.findSliceBy(pageable);
+        return page
             .map(t -> new TagResponse(t.getId(), t.getName()));
     }
 
@@ -84,6 +89,8 @@ public class TagService {
 
         if (!articleTags.existsByArticleAndTag(a, t)) {
             articleTags.save(ArticleTag.builder().article(a).tag(t).build());
+            articles.bumpTagsVersion(a.getId());
+            searchDocuments.addTag(a, t.getId());
             log.info("Tag '{}' added to articleId={}", t.getName(), articleId);
         } else {
             log.debug("Tag '{}' already present on articleId={}", t.getName(), articleId);
@@ -112,8 +119,13 @@ public class TagService {
             return new NotFoundException("Tag not found");
         });
 
-        articleTags.deleteByArticleAndTag(a, t);
-        log.info("Tag '{}' removed from articleId={}", t.getName(), articleId);
+        if (articleTags.deleteByArticleAndTag(a, t) > 0) {
+            articles.bumpTagsVersion(a.getId());
+            searchDocuments.removeTag(a, t.getId());
+            log.info("Tag '{}' removed from articleId={}", t.getName(), articleId);
+        } else {
+            log.debug("Tag '{}' not present on articleId={}", t.getName(), articleId);
+        }
 
         boolean isPublic = Objects.equals(a.getStatus(), ArticleStatus.PUBLISHED);
         publishTagEvent(
@@ -138,7 +150,7 @@ public class TagService {
                 eventType,
                 AuditEntityType.TAG,
                 tag.getId(),
-                article.getSpace().getSpaceKey(),
+                spaceDirectory.keyOf(article),
                 article.getId(),
                 AuditActor.username(),
                 message,
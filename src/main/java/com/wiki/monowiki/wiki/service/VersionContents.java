@@ -0,0 +1,146 @@
+package com.wiki.monowiki.wiki.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wiki.monowiki.wiki.diff.LineDelta;
+import com.wiki.monowiki.wiki.model.ArticleVersion;
+import com.wiki.monowiki.wiki.model.ContentBlob;
+import com.wiki.monowiki.wiki.repository.ArticleVersionRepository;
+import com.wiki.monowiki.wiki.repository.ContentBlobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reads and writes version content.
+ *
+ * Full content lives in content_blobs, one row per distinct body keyed by its SHA-256 and shared by every version
+ * with that body (see V19). The latest version always has its full content.
+ *
+ * In the delta storage mode (see V18), when a version is added the previous one is rewritten as a
+ * {@link LineDelta} against the new one and releases its blob, unless its number is a multiple of the snapshot
+ * interval or the delta saves little. Reading a delta row walks up to the next row with full content and applies the
+ * deltas back down; every version rebuilt on the way is cached, as versions never change.
+ *
+ * In the compressed storage mode (see V20), new blobs of at least compressionMinChars are written with
+ * {@link ContentCompression}; blobs are decompressed here only when their content is read.
+ */
+@Slf4j
+@Component
+public class VersionContents {
+
+    private record Key(Long articleId, Integer versionNo) {}
+
+    private final ArticleVersionRepository versions;
+    private final ContentBlobRepository blobs;
+    private final VersionStorageProperties props;
+    private final Cache<Key, String> rebuilt;
+
+    public VersionContents(ArticleVersionRepository versions, ContentBlobRepository blobs, VersionStorageProperties props) {
+	this.versions = versions;
+	this.blobs = blobs;
+	this.props = props;
+	this.rebuilt = Caffeine.newBuilder()
+		.maximumWeight(props.cacheMaxBytes())
+		.weigher((Key k, String content) -> 2 * content.length())
+		.build();
+    }
+
+    /**
+     * SHA-256 of the UTF-8 content as lowercase hex, matching V19's backfill.
+     */
+    public static String hash(String content) {
+	try {
+	    return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8)));
+	} catch (NoSuchAlgorithmException e) {
+	    throw new IllegalStateException(e);
+	}
+    }
+
+    /**
+     * Points a new (not yet saved) version at the blob of its content, storing the body if no version has it yet.
+     */
+    public void store(ArticleVersion v, String content) {
+	String hash = hash(content);
+	if (props.compressionEnabled() && content.length() >= props.compressionMinChars()) {
+	    blobs.retainCompressed(hash, ContentCompression.compress(content));
+	} else {
+	    blobs.retain(hash, content);
+	}
+	v.setContentHash(hash);
+	v.setContentLength(content.length());
+	v.setBlob(blobs.getReferenceById(hash));
+    }
+
+    /**
+     * Stores {@code previous} as a delta against {@code latestContent}, which has just replaced it as the latest
+     * version. Keeps full content when the mode is off, for snapshot versions, and when the delta is not at least
+     * half the size of the content.
+     */
+    public void compact(ArticleVersion previous, String latestContent) {
+	if (!props.deltaEnabled() || Objects.isNull(previous) || Objects.isNull(previous.getBlob())) return;
+	if (previous.getVersionNo() % props.snapshotInterval() == 0) return;
+
+	ContentBlob blob = previous.getBlob();
+	String content = text(blob);
+	String delta = LineDelta.encode(latestContent, content);
+	if (2 * delta.length() > content.length()) return;
+
+	previous.setDelta(delta);
+	previous.setBlob(null);
+	blobs.release(blob.getHash());
+	blobs.deleteIfUnreferenced(blob.getHash());
+	log.debug("Version {} of articleId={} stored as a {} char delta", previous.getVersionNo(), previous.getArticle().getId(), delta.length());
+    }
+
+    public String content(ArticleVersion v) {
+	if (Objects.nonNull(v.getBlob())) return text(v.getBlob());
+	String cached = rebuilt.getIfPresent(key(v));
+	return Objects.nonNull(cached) ? cached : rebuild(v);
+    }
+
+    private String rebuild(ArticleVersion target) {
+	// deltas to apply, the newest on top
+	Deque<ArticleVersion> pending = new ArrayDeque<>();
+	pending.push(target);
+	String content = null;
+	Integer after = target.getVersionNo();
+	while (Objects.isNull(content)) {
+	    List<ArticleVersion> next = versions.findByArticleAndVersionNoGreaterThanOrderByVersionNoAsc(
+		    target.getArticle(), after, Limit.of(props.snapshotInterval()));
+	    if (next.isEmpty()) {
+		throw new IllegalStateException("No full content after version " + after + " of article " + target.getArticle().getId());
+	    }
+	    for (ArticleVersion v : next) {
+		content = Objects.nonNull(v.getBlob()) ? text(v.getBlob()) : rebuilt.getIfPresent(key(v));
+		if (Objects.nonNull(content)) break;
+		pending.push(v);
+	    }
+	    after = next.getLast().getVersionNo();
+	}
+
+	while (!pending.isEmpty()) {
+	    ArticleVersion v = pending.pop();
+	    content = LineDelta.apply(content, v.getDelta());
+	    rebuilt.put(key(v), content);
+	}
+	return content;
+    }
+
+    private static String text(ContentBlob blob) {
+	return ContentCompression.text(blob.getContent(), blob.getCompressed());
+    }
+
+    private static Key key(ArticleVersion v) {
+	return new Key(v.getArticle().getId(), v.getVersionNo());
+    }
+}
@@ -0,0 +1,18 @@
+package com.wiki.monowiki.wiki.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param contextLines  unchanged lines shown around each change
+ * @param cacheMaxBytes bound on the computed diffs kept in memory (versions never change, so no expiry)
+ * @param maxEdits      versions with more deleted plus inserted lines than this are reported as too different to
+ *                      diff; bounds the diff's cost at O(lines * maxEdits)
+ */
+@ConfigurationProperties(prefix = "app.versions.diff")
+public record VersionDiffProperties(
+	@DefaultValue("3") int contextLines,
+	@DefaultValue("16777216") long cacheMaxBytes,
+	@DefaultValue("2000") int maxEdits
+) {
+}
@@ -0,0 +1,135 @@
+package com.wiki.monowiki.wiki.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wiki.monowiki.common.concurrent.SingleFlight;
+import com.wiki.monowiki.wiki.diff.TextDiff;
+import com.wiki.monowiki.wiki.dto.VersionDtos.DiffHunk;
+import com.wiki.monowiki.wiki.dto.VersionDtos.DiffLine;
+import com.wiki.monowiki.wiki.dto.VersionDtos.VersionDiffResponse;
+import com.wiki.monowiki.wiki.model.ArticleVersion;
+import com.wiki.monowiki.wiki.repository.ArticleVersionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Computes and caches version diffs (see {@link TextDiff}). Versions never change, so a diff is cached until
+ * evicted by size; concurrent requests for the same diff wait for one computation ({@link SingleFlight}).
+ *
+ * Content is read and diffed outside the cache's compute, which would otherwise hold a lock shared with unrelated
+ * keys for as long as the database reads and the diff take. Versions more than {@code max-edits} lines apart are
+ * not diffed but reported as too different.
+ */
+@Slf4j
+@Component
+public class VersionDiffs {
+
+    private record Key(Long articleId, Integer fromVersionNo, Integer toVersionNo) {}
+
+    private final ArticleVersionRepository versions;
+    private final VersionContents contents;
+    private final VersionDiffProperties props;
+    private final TransactionTemplate readOnlyTx;
+    private final Cache<Key, VersionDiffResponse> cache;
+    private final SingleFlight<Key, VersionDiffResponse> flights = new SingleFlight<>();
+
+    public VersionDiffs(ArticleVersionRepository versions, VersionContents contents, VersionDiffProperties props,
+	    PlatformTransactionManager transactionManager) {
+	this.versions = versions;
+	this.contents = contents;
+	this.props = props;
+	this.readOnlyTx = new TransactionTemplate(transactionManager);
+	this.readOnlyTx.setReadOnly(true);
+	this.cache = Caffeine.newBuilder()
+		.maximumWeight(props.cacheMaxBytes())
+		.weigher((Key k, VersionDiffResponse d) -> weight(d))
+		.build();
+    }
+
+    public Optional<VersionDiffResponse> cached(Long articleId, Integer fromVersionNo, Integer toVersionNo) {
+	return Optional.ofNullable(cache.getIfPresent(new Key(articleId, fromVersionNo, toVersionNo)));
+    }
+
+    /**
+     * Both versions must belong to the same article; must run in a transaction (the content is loaded lazily).
+     */
+    public VersionDiffResponse diff(ArticleVersion from, ArticleVersion to) {
+	Key key = new Key(from.getArticle().getId(), from.getVersionNo(), to.getVersionNo());
+	VersionDiffResponse cached = cache.getIfPresent(key);
+	if (Objects.nonNull(cached)) return cached;
+	return flights.run(key, () -> {
+	    // a flight that finished just before this one started has already cached it
+	    VersionDiffResponse done = cache.getIfPresent(key);
+	    if (Objects.nonNull(done)) return done;
+	    VersionDiffResponse diff = compute(key, contents.content(from), contents.content(to));
+	    cache.put(key, diff);
+	    return diff;
+	});
+    }
+
+    /**
+     * Computes and caches a diff in the background, so the first request for it is served from the cache. Missing
+     * versions are ignored.
+     */
+    @Async
+    public void prefetch(Long articleId, Integer fromVersionNo, Integer toVersionNo) {
+	if (cached(articleId, fromVersionNo, toVersionNo).isPresent()) return;
+	readOnlyTx.executeWithoutResult(status -> {
+	    Optional<ArticleVersion> from = versions.findByArticleIdAndVersionNo(articleId, fromVersionNo);
+	    Optional<ArticleVersion> to = versions.findByArticleIdAndVersionNo(articleId, toVersionNo);
+	    if (from.isPresent() && to.isPresent()) diff(from.get(), to.get());
+	});
+    }
+
+    private VersionDiffResponse compute(Key key, String from, String to) {
+	long started = System.nanoTime();
+	Optional<TextDiff.Result> result = TextDiff.diff(from, to, props.contextLines(), props.maxEdits());
+	if (result.isEmpty()) {
+	    log.info("Versions {} and {} of articleId={} differ in more than {} lines, not diffed ({} ms)",
+		    key.fromVersionNo(), key.toVersionNo(), key.articleId(), props.maxEdits(),
+		    (System.nanoTime() - started) / 1_000_000);
+	    return new VersionDiffResponse(key.articleId(), key.fromVersionNo(), key.toVersionNo(), null, null, true, List.of());
+	}
+	TextDiff.Result diff = result.get();
+	log.debug("Diffed versions {} and {} of articleId={} ({} hunks) in {} ms", key.fromVersionNo(), key.toVersionNo(),
+		key.articleId(), diff.hunks().size(), (System.nanoTime() - started) / 1_000_000);
+	return new VersionDiffResponse(
+		key.articleId(),
+		key.fromVersionNo(),
+		key.toVersionNo(),
+		diff.added(),
+		diff.removed(),
+		false,
+		diff.hunks().stream().map(VersionDiffs::toHunk).toList()
+	);
+    }
+
+    private static DiffHunk toHunk(TextDiff.Hunk h) {
+	return new DiffHunk(
+		h.fromLine(),
+		h.fromCount(),
+		h.toLine(),
+		h.toCount(),
+		h.lines().stream().map(l -> new DiffLine(l.op(), l.text(), l.words())).toList()
+	);
+    }
+
+    // chars are 2 bytes; a rough 48 bytes of overhead per line and segment
+    private static int weight(VersionDiffResponse d) {
+	long bytes = 64;
+	for (DiffHunk h : d.hunks()) {
+	    for (DiffLine l : h.lines()) {
+		bytes += 48 + 2L * l.text().length();
+		if (Objects.nonNull(l.words())) bytes += l.words().size() * 48L + 2L * l.text().length();
+	    }
+	}
+	return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+}
@@ -5,21 +5,27 @@ import com.wiki.monowiki.audit.model.AuditEventType;
 import com.wiki.monowiki.audit.service.AuditActor;
 import com.wiki.monowiki.audit.service.WikiAuditEvent;
 import com.wiki.monowiki.common.security.SecurityUtils;
+import com.wiki.monowiki.common.web.ETags;
 import com.wiki.monowiki.wiki.dto.VersionDtos.CreateVersionRequest;
+import com.wiki.monowiki.wiki.dto.VersionDtos.VersionDiffResponse;
 import com.wiki.monowiki.wiki.dto.VersionDtos.VersionResponse;
+import com.wiki.monowiki.wiki.dto.VersionDtos.VersionSummary;
 import com.wiki.monowiki.wiki.model.Article;
 import com.wiki.monowiki.wiki.model.ArticleStatus;
 import com.wiki.monowiki.wiki.model.ArticleVersion;
 import com.wiki.monowiki.wiki.repository.ArticleRepository;
+import com.wiki.monowiki.wiki.repository.ArticleRepository.VersionState;
 import com.wiki.monowiki.wiki.repository.ArticleVersionRepository;
+import com.wiki.monowiki.wiki.repository.ArticleVersionRepository.VersionSummaryRow;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Objects;
+import java.util.Optional;
 
 @Service
 @Slf4j
@@ -28,11 +34,19 @@ public class VersionService {
     public static final String ARTICLE_NOT_FOUND = "Article not found";
     private final ArticleRepository articles;
     private final ArticleVersionRepository versions;
+    private final VersionContents contents;
+    private final VersionDiffs diffs;
+    private final SearchDocumentService searchDocuments;
+    private final SpaceDirectory spaceDirectory;
     private final ApplicationEventPublisher publisher;
 
-    public VersionService(ArticleRepository articles, ArticleVersionRepository versions, ApplicationEventPublisher publisher) {
+    public VersionService(ArticleRepository articles, ArticleVersionRepository versions, VersionContents contents, VersionDiffs diffs, SearchDocumentService searchDocuments, SpaceDirectory spaceDirectory, ApplicationEventPublisher publisher) {
 	this.articles = articles;
 	this.versions = versions;
+	this.contents = contents;
+	this.diffs = diffs;
+	this.searchDocuments = searchDocuments;
+	this.spaceDirectory = spaceDirectory;
 	this.publisher = publisher;
     }
 
@@ -51,22 +65,29 @@ public class VersionService {
             throw new IllegalArgumentException("Versions can only be added while article is in DRAFT");
         }
 
-        int nextNo = versions.findTopByArticleOrderByVersionNoDesc(a)
-                .map(v -> v.getVersionNo() + 1)
-                .orElse(1);
+        ArticleVersion previous = versions.findTopByArticleOrderByVersionNoDesc(a).orElse(null);
+        if (Objects.nonNull(previous) && VersionContents.hash(req.content()).equals(previous.getContentHash())) {
+            log.info("Content unchanged from version {} of articleId={}; no version added", previous.getVersionNo(), articleId);
+            return toResponse(previous, req.content());
+        }
+        int nextNo = Objects.isNull(previous) ? 1 : previous.getVersionNo() + 1;
 
         log.debug("Next version number for articleId={}: {}", articleId, nextNo);
 
         ArticleVersion v = ArticleVersion.builder()
                 .article(a)
                 .versionNo(nextNo)
-                .content(req.content())
                 .createdBy(currentUsername())
                 .build();
+        contents.store(v, req.content());
 
         v = versions.save(v);
+        contents.compact(previous, req.content());
 
         a.setCurrentVersionNo(nextNo);
+        a.setCurrentVersion(v);
+        a.setExcerpt(ExcerptUtil.excerpt(req.content()));
+        searchDocuments.refresh(a, req.content());
 
         log.info("Version {} created for articleId={} by user={}", v.getVersionNo(), articleId, v.getCreatedBy());
 
@@ -79,13 +100,17 @@ public class VersionService {
             java.util.Map.of("versionNo", v.getVersionNo())
         );
 
-        return toResponse(v);
+        return toResponse(v, req.content());
     }
 
+    /**
+     * Version history: metadata only, from one projection query (plus the count with withTotal). No content is
+     * loaded; {@link #get} returns one version's content.
+     */
     @Transactional(readOnly = true)
-    public Page<VersionResponse> list(Long articleId, Pageable pageable) {
+    public Slice<VersionSummary> list(Long articleId, boolean withTotal, Pageable pageable) {
         log.info("Listing versions for articleId={} by user={}", articleId, currentUsername());
-        Article a = articles.findById(articleId)
+        VersionState a = articles.findVersionStateById(articleId)
                 .orElseThrow(() -> {
                     log.warn("Article not found for id={} during version list", articleId);
                     return new NotFoundException(ARTICLE_NOT_FOUND);
@@ -97,8 +122,19 @@ public class VersionService {
         }
 
         log.debug("Fetching versions for articleId={} with pageable={}", articleId, pageable);
-        return versions.findByArticle(a, pageable)
-                .map(this::toResponse);
+        Slice<VersionSummaryRow> page = withTotal
+                ? versions.findSummariesByArticleId(articleId, pageable)
+                : versions.findSummarySliceByArticleId(articleId, pageable);
+        return page.map(v -> new VersionSummary(
+                v.getId(),
+                articleId,
+                v.getVersionNo(),
+                v.getCreatedBy(),
+                v.getCreatedAt(),
+                v.getContentLength(),
+                v.getContentHash(),
+                v.getCommentCount()
+        ));
     }
 
     @Transactional(readOnly = true)
@@ -122,7 +158,81 @@ public class VersionService {
                 });
 
         log.info("Returning version {} for articleId={}", versionNo, articleId);
-        return toResponse(v);
+        return toResponse(v, contents.content(v));
+    }
+
+    /**
+     * Line / word diff from version {@code fromVersionNo} to {@code toVersionNo} (either order). Cached: a repeated
+     * diff loads no version at all.
+     */
+    @Transactional(readOnly = true)
+    public VersionDiffResponse diff(Long articleId, Integer fromVersionNo, Integer toVersionNo) {
+        log.info("Diffing versions {} and {} for articleId={} by user={}", fromVersionNo, toVersionNo, articleId, currentUsername());
+        Article a = articles.findById(articleId)
+                .orElseThrow(() -> {
+                    log.warn("Article not found for id={} during version diff", articleId);
+                    return new NotFoundException(ARTICLE_NOT_FOUND);
+                });
+
+        if (SecurityUtils.isViewer() && !Objects.equals(a.getStatus(), ArticleStatus.PUBLISHED)) {
+            log.warn("Access denied for viewer to diff versions of non-published articleId={}", articleId);
+            throw new NotFoundException(ARTICLE_NOT_FOUND);
+        }
+
+        Optional<VersionDiffResponse> cached = diffs.cached(articleId, fromVersionNo, toVersionNo);
+        if (cached.isPresent()) return cached.get();
+
+        ArticleVersion from = findVersion(a, fromVersionNo);
+        ArticleVersion to = findVersion(a, toVersionNo);
+        return diffs.diff(from, to);
+    }
+
+    private ArticleVersion findVersion(Article a, Integer versionNo) {
+        return versions.findByArticleAndVersionNo(a, versionNo)
+                .orElseThrow(() -> {
+                    log.warn("Version {} not found for articleId={}", versionNo, a.getId());
+                    return new NotFoundException("Version not found");
+                });
+    }
+
+    /**
+     * ETag of {@link #list}'s pages. Versions never change once added and comments are only ever added, so the
+     * version count and the article's comment count identify the list. Empty when the article does not exist or is
+     * hidden from the caller.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> listETag(Long articleId) {
+	return articles.findHistoryState(articleId)
+		.filter(a -> !SecurityUtils.isViewer() || a.getStatus() == ArticleStatus.PUBLISHED)
+		.map(a -> ETags.strong(articleId, "n" + a.getCurrentVersionNo(), "c" + a.getCommentCount()));
+    }
+
+    /**
+     * ETag of one version: its content never changes, so article id and version number identify it. Empty when the
+     * version does not exist or is hidden from the caller.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> versionETag(Long articleId, Integer versionNo) {
+	return visibleState(articleId)
+		.filter(a -> versionNo >= 1 && versionNo <= a.getCurrentVersionNo())
+		.map(a -> ETags.strong(articleId, "v" + versionNo));
+    }
+
+    /**
+     * ETag of a diff: like the versions themselves, it never changes. Empty when either version does not exist or
+     * the article is hidden from the caller.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> diffETag(Long articleId, Integer fromVersionNo, Integer toVersionNo) {
+	return visibleState(articleId)
+		.filter(a -> Math.min(fromVersionNo, toVersionNo) >= 1
+			&& Math.max(fromVersionNo, toVersionNo) <= a.getCurrentVersionNo())
+		.map(a -> ETags.strong(articleId, "d" + fromVersionNo, toVersionNo));
+    }
+
+    private Optional<VersionState> visibleState(Long articleId) {
+	return articles.findVersionStateById(articleId)
+		.filter(a -> !SecurityUtils.isViewer() || a.getStatus() == ArticleStatus.PUBLISHED);
     }
 
     private void publishVersionEvent(
@@ -137,7 +247,7 @@ public class VersionService {
                 eventType,
                 AuditEntityType.VERSION,
                 version.getId(),
-                article.getSpace().getSpaceKey(),
+                spaceDirectory.keyOf(article),
                 article.getId(),
                 AuditActor.username(),
                 message,
@@ -151,12 +261,12 @@ public class VersionService {
         return (Objects.isNull(u) || u.isBlank()) ? "system" : u;
     }
 
-    private VersionResponse toResponse(ArticleVersion v) {
+    private VersionResponse toResponse(ArticleVersion v, String content) {
 	return new VersionResponse(
 		v.getId(),
 		v.getArticle().getId(),
 		v.getVersionNo(),
-		v.getContent(),
+		content,
 		v.getCreatedBy(),
 		v.getCreatedAt()
 	);
@@ -0,0 +1,26 @@
+package com.wiki.monowiki.wiki.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param deltaEnabled     store a version as a delta against the next one once a newer version is added; reading
+ *                         delta rows works whatever this is set to
+ * @param snapshotInterval every snapshotInterval-th version keeps its full content, bounding how many deltas a read
+ *                         applies
+ * @param cacheMaxBytes    bound on the rebuilt contents kept in memory (versions never change, so no expiry)
+ * @param compressionEnabled   store new bodies of at least compressionMinChars compressed and convert existing ones
+ *                             in the background; compressed bodies stay readable with this off
+ * @param compressionMinChars  shorter bodies are stored as text: they gain little and are read most often
+ * @param compressionBatchSize bodies converted per transaction by ContentBlobCompressor
+ */
+@ConfigurationProperties(prefix = "app.versions.storage")
+public record VersionStorageProperties(
+	@DefaultValue("false") boolean deltaEnabled,
+	@DefaultValue("10") int snapshotInterval,
+	@DefaultValue("33554432") long cacheMaxBytes,
+	@DefaultValue("false") boolean compressionEnabled,
+	@DefaultValue("512") int compressionMinChars,
+	@DefaultValue("200") int compressionBatchSize
+) {
+}
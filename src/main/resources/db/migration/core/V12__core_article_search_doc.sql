@@ -0,0 +1,62 @@
+-- CORE: denormalized search read model (one row per article)
+--
+-- Why:
+--  - Search joined articles to article_versions on version_no = current_version_no, filtered on a status cast and
+--    matched with lower(content) like '%q%', which no index can serve.
+--  - article_search_doc carries everything search needs (space, status, title, latest content, tag ids) in one
+--    narrow table. The service layer keeps it current on create / version / review / archive / tag changes.
+--  - search_vector holds title (weight A) + latest content (weight B), computed by a trigger from the row's own
+--    columns and served by a GIN index.
+
+create table if not exists article_search_doc (
+    article_id bigint primary key references articles(id) on delete cascade,
+    space_id bigint not null references spaces(id),
+    status article_status not null,
+    title varchar(200) not null,
+    content text not null default '',
+    tag_ids bigint[] not null default '{}',
+    search_vector tsvector,
+    updated_at timestamptz not null default now()
+);
+
+create or replace function article_search_doc_vector_refresh() returns trigger as $$
+begin
+    new.search_vector :=
+        setweight(to_tsvector('english', coalesce(new.title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(new.content, '')), 'B');
+    return new;
+end
+$$ language plpgsql;
+
+drop trigger if exists trg_article_search_doc_vector_insert on article_search_doc;
+create trigger trg_article_search_doc_vector_insert
+    before insert on article_search_doc
+    for each row execute function article_search_doc_vector_refresh();
+
+drop trigger if exists trg_article_search_doc_vector_update on article_search_doc;
+create trigger trg_article_search_doc_vector_update
+    before update of title, content on article_search_doc
+    for each row
+    when (old.title is distinct from new.title or old.content is distinct from new.content)
+    execute function article_search_doc_vector_refresh();
+
+-- Backfill from the current tables
+insert into article_search_doc (article_id, space_id, status, title, content, tag_ids, updated_at)
+select a.id,
+       a.space_id,
+       a.status,
+       a.title,
+       coalesce(v.content, ''),
+       coalesce((select array_agg(t.tag_id order by t.tag_id) from article_tags t where t.article_id = a.id), '{}'),
+       a.updated_at
+from articles a
+left join article_versions v
+       on v.article_id = a.id and v.version_no = a.current_version_no
+on conflict (article_id) do nothing;
+
+create index if not exists idx_search_doc_space_status_updated
+    on article_search_doc(space_id, status, updated_at desc);
+create index if not exists idx_search_doc_vector
+    on article_search_doc using gin (search_vector);
+create index if not exists idx_search_doc_tag_ids
+    on article_search_doc using gin (tag_ids);
@@ -0,0 +1,15 @@
+-- CORE: trigram indexes for substring and fuzzy title search
+--
+-- Why:
+--  - SUBSTRING search is "ilike '%q%'", which a btree cannot serve; every query scanned the space's content.
+--  - pg_trgm GIN indexes serve ilike '%q%' directly and also the word-similarity operator used by FUZZY mode
+--    (partial words and misspellings in titles).
+--  - Search reads title and latest content from the article_search_doc read model (V12), so the indexes live there
+--    rather than on articles.title / article_versions.content.
+
+create extension if not exists pg_trgm;
+
+create index if not exists idx_search_doc_title_trgm
+    on article_search_doc using gin (title gin_trgm_ops);
+create index if not exists idx_search_doc_content_trgm
+    on article_search_doc using gin (content gin_trgm_ops);
@@ -0,0 +1,16 @@
+-- CORE: precomputed excerpt for summary listings
+--
+-- Why:
+--  - List pages only show title, status, tags and dates, yet every row loaded the full latest version content.
+--  - articles.excerpt holds the first ~280 characters of the latest content (whitespace collapsed), written
+--    whenever a version becomes current, so a summary listing never reads article_versions.content.
+
+alter table articles
+    add column if not exists excerpt varchar(300) not null default '';
+
+-- Backfill from the current version (the service cuts at a word boundary; a plain cut is fine for old rows)
+update articles a
+set excerpt = left(btrim(regexp_replace(v.content, '\s+', ' ', 'g')), 280)
+from article_versions v
+where v.article_id = a.id
+  and v.version_no = a.current_version_no;
@@ -0,0 +1,35 @@
+-- CORE: direct pointer from an article to its current version
+--
+-- Why:
+--  - Latest content was found by matching article_versions on (article_id, version_no = current_version_no).
+--  - articles.current_version_id is a real FK to article_versions(id), kept up to date by the services together
+--    with current_version_no, so latest content is a primary-key fetch / plain join.
+--
+-- Locking:
+--  - Flyway runs this script in one transaction. The first alter table takes an ACCESS EXCLUSIVE lock on articles,
+--    so reads and writes of articles wait until the backfill, the FK check and the index build have committed.
+--    That is short for a wiki-sized table; a very large one would need a batched backfill and a concurrent index
+--    build in separate, non-transactional migrations.
+--  - the column is added nullable without a default (catalog-only change, no table rewrite)
+--  - the FK is checked in the same transaction either way, so it is added valid rather than NOT VALID + VALIDATE
+
+alter table articles
+    add column if not exists current_version_id bigint;
+
+update articles a
+set current_version_id = v.id
+from article_versions v
+where v.article_id = a.id
+  and v.version_no = a.current_version_no
+  and a.current_version_id is null;
+
+alter table articles
+    drop constraint if exists fk_articles_current_version;
+
+alter table articles
+    add constraint fk_articles_current_version
+    foreign key (current_version_id) references article_versions(id);
+
+-- A version is current for at most one article
+create unique index if not exists uk_articles_current_version_id
+    on articles(current_version_id);
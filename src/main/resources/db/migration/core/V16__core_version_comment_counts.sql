@@ -0,0 +1,22 @@
+-- CORE: maintained comment counters per article version
+--
+-- Why:
+--  - Article list, detail and search responses show the current version's comment count, which was a
+--    count(*) over version_comments on every read.
+--  - version_comment_counts keeps one counter per (article_id, version_no). CommentService increments it in the
+--    comment's transaction; a scheduled reconciliation (CommentCountReconciler) corrects any drift.
+--  - A version without comments has no row (reads as 0).
+
+create table if not exists version_comment_counts (
+    article_id bigint not null references articles(id) on delete cascade,
+    version_no int not null,
+    comment_count bigint not null default 0,
+    primary key (article_id, version_no)
+);
+
+-- Backfill from the existing comments
+insert into version_comment_counts (article_id, version_no, comment_count)
+select article_id, version_no, count(*)
+from version_comments
+group by article_id, version_no
+on conflict (article_id, version_no) do nothing;
@@ -0,0 +1,10 @@
+-- CORE: tag set version for article ETags
+--
+-- Why:
+--  - GET article responses carry a strong ETag computed from one cheap articles row read, so If-None-Match can be
+--    answered with 304 without loading content, tags or serializing anything.
+--  - Adding / removing a tag does not touch the article row (updated_at stays), so the tag set gets its own counter,
+--    bumped by TagService with every change.
+
+alter table articles
+    add column if not exists tags_version integer not null default 0;
@@ -0,0 +1,23 @@
+-- CORE: delta-encoded version storage
+--
+-- Why:
+--  - Heavily edited articles keep hundreds of near-identical full copies of their content.
+--  - With app.versions.storage.delta-enabled, adding a version rewrites the previous one as a line delta against
+--    the new one (content null, delta set). The latest version and every snapshot-interval-th version keep full
+--    content, so reading a version applies at most snapshot-interval - 1 deltas and the latest needs none.
+--  - Rows written before (or with the mode off) keep full content and need no rewrite.
+
+alter table article_versions
+    alter column content drop not null;
+
+alter table article_versions
+    add column if not exists delta text;
+
+-- delta rows are rebuilt from version_no + 1 of the same article; a row needs one or the other.
+-- The check scans article_versions under the migration's ACCESS EXCLUSIVE lock (one transaction, so NOT VALID +
+-- VALIDATE would not shorten it).
+alter table article_versions
+    drop constraint if exists ck_article_versions_body;
+
+alter table article_versions
+    add constraint ck_article_versions_body check (content is not null or delta is not null);
@@ -0,0 +1,61 @@
+-- CORE: content-addressed version bodies
+--
+-- Why:
+--  - Reverted edits, restores of old versions and copied articles stored the same body again and again.
+--  - content_blobs keeps each distinct body once, keyed by its SHA-256 (hex). ref_count is the number of
+--    article_versions rows whose blob_hash points at it; VersionContents maintains it and deletes blobs that
+--    drop to 0.
+--  - article_versions.content_hash is the hash of the version's full content (also for delta rows), so a save
+--    that does not change the body is detected by comparing hashes instead of full strings.
+--  - Delta rows written before this migration have no content_hash (their content is only known after applying
+--    deltas); it is only compared for the latest version, which is never a delta.
+
+create table if not exists content_blobs (
+    hash varchar(64) primary key,
+    content text not null,
+    ref_count integer not null,
+    created_at timestamptz not null default now()
+);
+
+alter table article_versions
+    add column if not exists content_hash varchar(64);
+
+alter table article_versions
+    add column if not exists blob_hash varchar(64) references content_blobs(hash);
+
+-- releasing a blob checks for referencing rows
+create index if not exists idx_article_versions_blob_hash on article_versions(blob_hash);
+
+update article_versions
+set content_hash = encode(sha256(convert_to(content, 'UTF8')), 'hex')
+where content is not null;
+
+insert into content_blobs (hash, content, ref_count)
+select distinct on (content_hash) content_hash, content, 0
+from article_versions
+where content is not null
+order by content_hash
+on conflict (hash) do nothing;
+
+update article_versions
+set blob_hash = content_hash
+where content is not null;
+
+update content_blobs b
+set ref_count = r.refs
+from (
+    select blob_hash, count(*) as refs
+    from article_versions
+    where blob_hash is not null
+    group by blob_hash
+) r
+where r.blob_hash = b.hash;
+
+alter table article_versions
+    drop constraint if exists ck_article_versions_body;
+
+alter table article_versions
+    drop column if exists content;
+
+alter table article_versions
+    add constraint ck_article_versions_body check (blob_hash is not null or delta is not null);
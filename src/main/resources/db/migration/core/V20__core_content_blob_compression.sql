@@ -0,0 +1,18 @@
+-- CORE: compressed version bodies
+--
+-- Why:
+--  - Most bodies are Markdown with long code blocks and compress 5-10x.
+--  - With app.versions.storage.compression-enabled, new blobs of at least compression-min-chars are written to
+--    `compressed` (see ContentCompression: format byte + zlib with a preset Markdown dictionary) and `content` is
+--    left null; ContentBlobCompressor converts existing rows in small batches while the application runs.
+--  - Exactly one of the two columns holds the body. Readers accept both, so the setting can be turned off (or the
+--    conversion interrupted) at any time.
+
+alter table content_blobs
+    alter column content drop not null;
+
+alter table content_blobs
+    add column if not exists compressed bytea;
+
+alter table content_blobs
+    add constraint ck_content_blobs_body check ((content is null) <> (compressed is null));
@@ -0,0 +1,15 @@
+-- CORE: content length on article_versions
+--
+-- Why:
+--  - The version history (GET /articles/{id}/versions) lists metadata only and must not load any content to show
+--    a version's size.
+--  - Backfilled from text blobs. Versions stored as deltas or compressed blobs before this migration keep null: their
+--    length is only known after decoding them.
+
+alter table article_versions
+    add column if not exists content_length integer;
+
+update article_versions v
+set content_length = length(b.content)
+from content_blobs b
+where b.hash = v.blob_hash and b.content is not null and v.content_length is null;
@@ -0,0 +1,40 @@
+-- CORE: versions on review requests
+--
+-- Why:
+--  - Reviewers look at what a review changes: the diff from the last published version to the submitted one.
+--    version_no is the version submitted, base_version_no the version published at that time; the last approved
+--    request's version_no is the published version.
+--  - version_no is backfilled where the version is certain: pending requests (no version can be added while
+--    IN_REVIEW) and the last approved request of an article that is still published. Other old requests keep null.
+--  - base_version_no of pending requests is then derived like ReviewService does on submit: the version_no of the
+--    article's last approved request (ReviewRequestRepository.findLastVersionNo), null when there is none.
+--    Decided requests keep null.
+
+alter table review_requests
+    add column if not exists version_no integer;
+
+alter table review_requests
+    add column if not exists base_version_no integer;
+
+update review_requests r
+set version_no = a.current_version_no
+from articles a
+where a.id = r.article_id and r.status = 'PENDING' and r.version_no is null;
+
+update review_requests r
+set version_no = a.current_version_no
+from articles a
+where a.id = r.article_id and a.status = 'PUBLISHED' and r.version_no is null
+  and r.id = (
+      select max(l.id) from review_requests l
+      where l.article_id = r.article_id and l.status = 'APPROVED'
+  );
+
+update review_requests r
+set base_version_no = (
+    select l.version_no from review_requests l
+    where l.article_id = r.article_id and l.status = 'APPROVED' and l.version_no is not null
+    order by l.reviewed_at desc, l.id desc
+    limit 1
+)
+where r.status = 'PENDING' and r.base_version_no is null;
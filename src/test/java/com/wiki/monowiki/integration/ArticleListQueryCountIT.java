@@ -0,0 +1,137 @@
+package com.wiki.monowiki.integration;
+
+import com.wiki.monowiki.wiki.dto.ArticleDtos.ArticleResponse;
+import com.wiki.monowiki.wiki.service.ArticleService;
+import com.wiki.monowiki.wiki.service.CommentCountReconciler;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pins the number of SQL statements an article list page costs: it must not grow with the page size (no N+1 for
+ * latest content, tags or comment counts).
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Testcontainers
+class ArticleListQueryCountIT {
+
+    private static final String SPACE_KEY = "QCNT";
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine").withDatabaseName("monowiki").withUsername("postgres").withPassword("postgres");
+
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @Autowired
+    ArticleService articleService;
+
+    @Autowired
+    CommentCountReconciler commentCounts;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void seed() {
+	if (jdbc.queryForObject("select count(*) from spaces where space_key = ?", Integer.class, SPACE_KEY) > 0) {
+	    return;
+	}
+	jdbc.update("insert into spaces (space_key, name) values (?, 'Query count')", SPACE_KEY);
+	jdbc.update("""
+		insert into articles (space_id, slug, title, status, current_version_no, created_by)
+		select s.id, 'article-' || g, 'Article ' || g, 'PUBLISHED', 2, 'editor1'
+		from spaces s, generate_series(1, 30) g
+		where s.space_key = ?
+		""", SPACE_KEY);
+	jdbc.update("""
+		insert into content_blobs (hash, content, ref_count)
+		select encode(sha256(convert_to('content v' || v, 'UTF8')), 'hex'), 'content v' || v, 0
+		from generate_series(1, 2) v
+		on conflict (hash) do nothing
+		""");
+	jdbc.update("""
+		insert into article_versions (article_id, version_no, content_hash, blob_hash, created_by)
+		select a.id, v, encode(sha256(convert_to('content v' || v, 'UTF8')), 'hex'),
+		       encode(sha256(convert_to('content v' || v, 'UTF8')), 'hex'), 'editor1'
+		from articles a join spaces s on s.id = a.space_id, generate_series(1, 2) v
+		where s.space_key = ?
+		""", SPACE_KEY);
+	jdbc.update("""
+		update articles a set current_version_id = v.id
+		from article_versions v, spaces s
+		where v.article_id = a.id and v.version_no = a.current_version_no
+		  and s.id = a.space_id and s.space_key = ?
+		""", SPACE_KEY);
+	jdbc.update("insert into tags (name) values ('qcnt-a'), ('qcnt-b')");
+	jdbc.update("""
+		insert into article_tags (article_id, tag_id)
+		select a.id, t.id
+		from articles a join spaces s on s.id = a.space_id, tags t
+		where s.space_key = ? and t.name like 'qcnt-%'
+		""", SPACE_KEY);
+	jdbc.update("""
+		insert into version_comments (article_id, version_no, body, created_by)
+		select a.id, 2, 'looks good', 'viewer1'
+		from articles a join spaces s on s.id = a.space_id
+		where s.space_key = ?
+		""", SPACE_KEY);
+	// comments were inserted behind CommentService's back, so the counters need a recount
+	commentCounts.reconcile();
+
+	var auth = new TestingAuthenticationToken("editor1", "N/A", "ROLE_EDITOR");
+	auth.setAuthenticated(true);
+	SecurityContextHolder.getContext().setAuthentication(auth);
+    }
+
+    @AfterEach
+    void clearAuth() {
+	SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void list_statement_count_does_not_depend_on_page_size() {
+	long small = statementsFor(5);
+	long large = statementsFor(25);
+
+	assertThat(large).isEqualTo(small);
+	// space + page + count + content + tags + comment counts
+	assertThat(large).isLessThanOrEqualTo(6);
+    }
+
+    @Test
+    void list_fills_content_tags_and_current_version_comment_counts() {
+	Slice<ArticleResponse> page = articleService.list(SPACE_KEY, false, true, PageRequest.of(0, 5));
+
+	assertThat(page.getContent()).hasSize(5).allSatisfy(a -> {
+	    assertThat(a.latestContent()).isEqualTo("content v2");
+	    assertThat(a.tags()).extracting("name").containsExactly("qcnt-a", "qcnt-b");
+	    assertThat(a.currentVersionCommentCount()).isEqualTo(1);
+	});
+    }
+
+    private long statementsFor(int size) {
+	Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	stats.clear();
+	Slice<ArticleResponse> page = articleService.list(SPACE_KEY, false, true, PageRequest.of(0, size));
+	assertThat(page.getContent()).hasSize(size);
+	return stats.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,86 @@
+package com.wiki.monowiki.integration;
+
+import com.wiki.monowiki.wiki.search.Tokenizer;
+import com.wiki.monowiki.wiki.search.Tokenizer.Token;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The in-memory index (viewers) and the database search path (editors) must match the same articles, so
+ * {@link Tokenizer} has to produce exactly the lexemes and positions of {@code to_tsvector('english', ...)}.
+ */
+@SpringBootTest
+@Testcontainers
+class TokenizerParityIT {
+
+    private static final List<String> DOCUMENTS = List.of(
+	    "How do I reset my VPN client? Running the installer again usually fixes it.",
+	    "Onboarding checklist: laptops are configured by the IT department before arrival.",
+	    "The generously sized meeting rooms were booked for relational database trainings.",
+	    "Ponies, skies and cries: irregular plurals that the stemmer normalizes consistently.",
+	    "Controlled rollouts happen weekly; hopping between environments is discouraged.",
+	    "Nationalization, rationalization and conditional approvals in the S3 migration runbook."
+    );
+
+    private static final List<String> QUERIES = List.of(
+	    "running", "reset vpn", "configuration", "meeting", "database training", "pony", "sky",
+	    "stemming", "rollout", "hop", "conditionally", "national", "s3", "approve", "departments"
+    );
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine").withDatabaseName("monowiki").withUsername("postgres").withPassword("postgres");
+
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @Test
+    void documentsProduceTheSameLexemesAndPositions() {
+	for (String doc : DOCUMENTS) {
+	    assertThat(inMemory(doc)).as(doc).isEqualTo(postgres(doc));
+	}
+    }
+
+    @Test
+    void queriesMatchTheSameDocuments() {
+	for (String q : QUERIES) {
+	    for (String doc : DOCUMENTS) {
+		Boolean db = jdbc.queryForObject(
+			"select to_tsvector('english', ?) @@ plainto_tsquery('english', ?)", Boolean.class, doc, q);
+		assertThat(inMemory(doc).keySet().containsAll(inMemory(q).keySet())).as(q + " in " + doc).isEqualTo(db);
+	    }
+	}
+    }
+
+    /** Lexeme to 1-based positions, as {@code unnest(tsvector)} reports them. */
+    private static Map<String, TreeSet<Integer>> inMemory(String text) {
+	Map<String, TreeSet<Integer>> out = new TreeMap<>();
+	for (Token t : Tokenizer.tokens(text)) {
+	    out.computeIfAbsent(t.term(), k -> new TreeSet<>()).add(t.position() + 1);
+	}
+	return out;
+    }
+
+    private Map<String, TreeSet<Integer>> postgres(String text) {
+	Map<String, TreeSet<Integer>> out = new TreeMap<>();
+	jdbc.query("select lexeme, positions from unnest(to_tsvector('english', ?))", rs -> {
+	    TreeSet<Integer> positions = new TreeSet<>();
+	    for (Object p : (Object[]) rs.getArray("positions").getArray()) positions.add(((Number) p).intValue());
+	    out.put(rs.getString("lexeme"), positions);
+	}, text);
+	return out;
+    }
+}
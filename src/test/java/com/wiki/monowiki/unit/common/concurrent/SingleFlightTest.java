@@ -0,0 +1,76 @@
+package com.wiki.monowiki.unit.common.concurrent;
+
+import com.wiki.monowiki.common.concurrent.SingleFlight;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> flights = new SingleFlight<>();
+
+    @Test
+    void concurrent_callers_share_one_load() throws Exception {
+	CountDownLatch loading = new CountDownLatch(1);
+	CountDownLatch release = new CountDownLatch(1);
+	AtomicInteger runs = new AtomicInteger();
+
+	ExecutorService pool = Executors.newFixedThreadPool(8);
+	try {
+	    List<Future<String>> results = new ArrayList<>();
+	    results.add(pool.submit(() -> flights.run("ENG/guide", () -> {
+		runs.incrementAndGet();
+		loading.countDown();
+		await(release);
+		return "page";
+	    })));
+	    loading.await();
+	    for (int i = 0; i < 7; i++) {
+		results.add(pool.submit(() -> flights.run("ENG/guide", () -> {
+		    runs.incrementAndGet();
+		    return "own page";
+		})));
+	    }
+	    while (flights.stats().coalesced() < 7) Thread.onSpinWait();
+	    release.countDown();
+
+	    for (Future<String> r : results) assertThat(r.get(5, TimeUnit.SECONDS)).isEqualTo("page");
+	} finally {
+	    pool.shutdownNow();
+	}
+
+	assertThat(runs).hasValue(1);
+	assertThat(flights.stats()).isEqualTo(new SingleFlight.Stats(1, 7, 0));
+    }
+
+    @Test
+    void loads_after_completion_run_again() {
+	assertThat(flights.run("k", () -> "a")).isEqualTo("a");
+	assertThat(flights.run("k", () -> "b")).isEqualTo("b");
+
+	assertThat(flights.stats()).isEqualTo(new SingleFlight.Stats(2, 0, 0));
+    }
+
+    @Test
+    void loader_exception_reaches_the_caller_and_is_not_kept() {
+	assertThatThrownBy(() -> flights.run("k", () -> {
+	    throw new IllegalStateException("boom");
+	})).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+
+	assertThat(flights.run("k", () -> "ok")).isEqualTo("ok");
+    }
+
+    private static void await(CountDownLatch latch) {
+	try {
+	    latch.await();
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	}
+    }
+}
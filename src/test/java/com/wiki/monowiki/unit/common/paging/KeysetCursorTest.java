@@ -0,0 +1,45 @@
+package com.wiki.monowiki.unit.common.paging;
+
+import com.wiki.monowiki.common.paging.KeysetCursor;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    private final Sort.Order newestFirst = Sort.Order.desc("createdAt");
+
+    @Test
+    void token_round_trips_to_the_same_scroll_position() {
+	KeysetCursor cursor = new KeysetCursor("createdAt", Sort.Direction.DESC, Instant.parse("2026-03-01T10:15:30.123456Z"), 42L);
+
+	KeysetCursor decoded = KeysetCursor.decode(cursor.encode(), newestFirst);
+	assertThat(decoded).isEqualTo(cursor);
+
+	KeysetScrollPosition position = KeysetCursor.scrollPosition(decoded);
+	assertThat(position.getKeys()).containsEntry("createdAt", cursor.at()).containsEntry("id", 42L);
+	assertThat(KeysetCursor.of(newestFirst, position)).isEqualTo(cursor);
+    }
+
+    @Test
+    void blank_token_means_first_page() {
+	assertThat(KeysetCursor.decode("", newestFirst)).isNull();
+	assertThat(KeysetCursor.scrollPosition(null).isInitial()).isTrue();
+    }
+
+    @Test
+    void rejects_malformed_tokens_and_cursors_of_another_sort() {
+	assertThatThrownBy(() -> KeysetCursor.decode("not a cursor", newestFirst))
+		.isInstanceOf(IllegalArgumentException.class)
+		.hasMessage("Invalid cursor");
+
+	String updatedAt = new KeysetCursor("updatedAt", Sort.Direction.DESC, Instant.EPOCH, 1L).encode();
+	assertThatThrownBy(() -> KeysetCursor.decode(updatedAt, newestFirst))
+		.isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,43 @@
+package com.wiki.monowiki.unit.common.web;
+
+import com.wiki.monowiki.common.web.ETags;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ETagsTest {
+
+    private final String etag = ETags.strong(12L, "v3", "PUBLISHED");
+
+    @Test
+    void strong_tag_is_quoted_parts() {
+	assertThat(etag).isEqualTo("\"12-v3-PUBLISHED\"");
+    }
+
+    @Test
+    void if_none_match_matches_any_listed_tag_weakly() {
+	assertThat(ETags.matches(etag, etag)).isTrue();
+	assertThat(ETags.matches("\"11-v1-DRAFT\", " + etag, etag)).isTrue();
+	assertThat(ETags.matches("W/" + etag, etag)).isTrue();
+	assertThat(ETags.matches("*", etag)).isTrue();
+    }
+
+    @Test
+    void gzip_variant_has_its_own_tag_and_revalidates_with_it() {
+	String gzip = ETags.gzip(etag);
+
+	assertThat(gzip).isEqualTo("\"12-v3-PUBLISHED-gz\"");
+	assertThat(ETags.matched(gzip, etag)).contains(gzip);
+	assertThat(ETags.matched("W/" + etag, etag)).contains(etag);
+	assertThat(ETags.matched("*", etag)).contains(etag);
+	assertThat(ETags.matched(ETags.gzip("\"12-v2-PUBLISHED\""), etag)).isEmpty();
+    }
+
+    @Test
+    void other_or_missing_tags_do_not_match() {
+	assertThat(ETags.matches("\"12-v2-PUBLISHED\"", etag)).isFalse();
+	assertThat(ETags.matches("12-v3-PUBLISHED", etag)).isFalse();
+	assertThat(ETags.matches(null, etag)).isFalse();
+	assertThat(ETags.matches("*", null)).isFalse();
+    }
+}
@@ -0,0 +1,88 @@
+package com.wiki.monowiki.unit.wiki.diff;
+
+import com.wiki.monowiki.wiki.diff.LineDelta;
+import com.wiki.monowiki.wiki.diff.MyersDiff;
+import com.wiki.monowiki.wiki.diff.MyersDiff.Match;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MyersDiffTest {
+
+    @Test
+    void matches_form_a_longest_common_subsequence() {
+	Random random = new Random(42);
+	for (int round = 0; round < 500; round++) {
+	    int[] a = random.ints(random.nextInt(30), 0, 4).toArray();
+	    int[] b = random.ints(random.nextInt(30), 0, 4).toArray();
+
+	    List<Match> matches = MyersDiff.matches(a, b);
+
+	    int total = 0;
+	    int lastA = 0;
+	    int lastB = 0;
+	    for (Match m : matches) {
+		assertThat(m.a()).isGreaterThanOrEqualTo(lastA);
+		assertThat(m.b()).isGreaterThanOrEqualTo(lastB);
+		for (int i = 0; i < m.length(); i++) {
+		    assertThat(a[m.a() + i]).isEqualTo(b[m.b() + i]);
+		}
+		lastA = m.a() + m.length();
+		lastB = m.b() + m.length();
+		total += m.length();
+	    }
+	    assertThat(total).as("round %d", round).isEqualTo(lcsLength(a, b));
+	}
+    }
+
+    @Test
+    void edit_limit_gives_up_exactly_when_the_shortest_edit_script_is_longer() {
+	Random random = new Random(7);
+	for (int round = 0; round < 500; round++) {
+	    int[] a = random.ints(random.nextInt(30), 0, 4).toArray();
+	    int[] b = random.ints(random.nextInt(30), 0, 4).toArray();
+	    int edits = a.length + b.length - 2 * lcsLength(a, b);
+	    int maxEdits = random.nextInt(40);
+
+	    var limited = MyersDiff.matches(a, b, maxEdits);
+
+	    assertThat(limited.isPresent()).as("round %d: %d edits, limit %d", round, edits, maxEdits).isEqualTo(edits <= maxEdits);
+	    limited.ifPresent(m -> assertThat(m).isEqualTo(MyersDiff.matches(a, b)));
+	}
+    }
+
+    @Test
+    void line_delta_round_trips_and_stays_small_for_small_edits() {
+	String base = "# Runbook\n" + "step\n".repeat(200) + "last line without newline";
+	String target = base.replace("# Runbook\n", "# Runbook v2\n").replace("last line", "final line") + "\r\n";
+
+	String delta = LineDelta.encode(base, target);
+
+	assertThat(LineDelta.apply(base, delta)).isEqualTo(target);
+	assertThat(delta).hasSizeLessThan(80);
+	assertThat(LineDelta.apply("", LineDelta.encode("", "new\n"))).isEqualTo("new\n");
+	assertThat(LineDelta.apply("old\n", LineDelta.encode("old\n", ""))).isEmpty();
+    }
+
+    @Test
+    void line_delta_rejects_a_delta_for_another_base() {
+	String delta = LineDelta.encode("a\nb\n", "a\nc\n");
+
+	assertThatThrownBy(() -> LineDelta.apply("a\nb\nc\n", delta)).isInstanceOf(IllegalArgumentException.class);
+	assertThatThrownBy(() -> LineDelta.apply("a\nb\n", "=1+9:x")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static int lcsLength(int[] a, int[] b) {
+	int[][] dp = new int[a.length + 1][b.length + 1];
+	for (int i = 1; i <= a.length; i++) {
+	    for (int j = 1; j <= b.length; j++) {
+		dp[i][j] = a[i - 1] == b[j - 1] ? dp[i - 1][j - 1] + 1 : Math.max(dp[i - 1][j], dp[i][j - 1]);
+	    }
+	}
+	return dp[a.length][b.length];
+    }
+}
@@ -0,0 +1,112 @@
+package com.wiki.monowiki.unit.wiki.diff;
+
+import com.wiki.monowiki.wiki.diff.TextDiff;
+import com.wiki.monowiki.wiki.diff.TextDiff.Hunk;
+import com.wiki.monowiki.wiki.diff.TextDiff.Line;
+import com.wiki.monowiki.wiki.diff.TextDiff.Op;
+import com.wiki.monowiki.wiki.diff.TextDiff.Segment;
+import com.wiki.monowiki.wiki.diff.Tokens;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextDiffTest {
+
+    private static String lines(int from, int to) {
+	return IntStream.rangeClosed(from, to).mapToObj(i -> "line " + i + "\n").collect(Collectors.joining());
+    }
+
+    @Test
+    void equal_texts_have_no_hunks() {
+	TextDiff.Result diff = TextDiff.diff(lines(1, 10), lines(1, 10), 3);
+
+	assertThat(diff.hunks()).isEmpty();
+	assertThat(diff.added()).isZero();
+	assertThat(diff.removed()).isZero();
+    }
+
+    @Test
+    void texts_further_apart_than_the_edit_limit_are_not_diffed() {
+	String from = lines(1, 10);
+	String to = from.replace("line 5\n", "line five\n");
+
+	assertThat(TextDiff.diff(from, to, 3, 2)).isPresent();
+	assertThat(TextDiff.diff(from, to, 3, 1)).isEmpty();
+	assertThat(TextDiff.diff(lines(1, 10), lines(11, 20), 3, 19)).isEmpty();
+    }
+
+    @Test
+    void changes_far_apart_get_separate_hunks_with_context() {
+	String from = lines(1, 30);
+	String to = from.replace("line 5\n", "line five\n").replace("line 25\n", "").concat("line 31\n");
+
+	TextDiff.Result diff = TextDiff.diff(from, to, 3);
+
+	assertThat(diff.added()).isEqualTo(2);
+	assertThat(diff.removed()).isEqualTo(2);
+	assertThat(diff.hunks()).hasSize(2);
+
+	Hunk first = diff.hunks().getFirst();
+	assertThat(first.fromLine()).isEqualTo(2);
+	assertThat(first.fromCount()).isEqualTo(7);
+	assertThat(first.toLine()).isEqualTo(2);
+	assertThat(first.toCount()).isEqualTo(7);
+	assertThat(first.lines()).extracting(Line::op)
+		.containsExactly(Op.EQUAL, Op.EQUAL, Op.EQUAL, Op.DELETE, Op.INSERT, Op.EQUAL, Op.EQUAL, Op.EQUAL);
+	assertThat(first.lines().get(3).text()).isEqualTo("line 5");
+
+	// deleting line 25 and appending line 31 are 5 lines apart: one hunk
+	Hunk second = diff.hunks().getLast();
+	assertThat(second.fromLine()).isEqualTo(22);
+	assertThat(second.fromCount()).isEqualTo(9);
+	assertThat(second.toLine()).isEqualTo(22);
+	assertThat(second.toCount()).isEqualTo(9);
+	assertThat(second.lines().getLast()).isEqualTo(new Line(Op.INSERT, "line 31", null));
+    }
+
+    @Test
+    void edited_lines_carry_word_changes() {
+	TextDiff.Result diff = TextDiff.diff("Restart the ingest workers daily.\n", "Restart the ingest workers hourly.\n", 3);
+
+	Hunk hunk = diff.hunks().getFirst();
+	assertThat(hunk.lines().get(0).words()).containsExactly(
+		new Segment(Op.EQUAL, "Restart the ingest workers "),
+		new Segment(Op.DELETE, "daily"),
+		new Segment(Op.EQUAL, "."));
+	assertThat(hunk.lines().get(1).words()).containsExactly(
+		new Segment(Op.EQUAL, "Restart the ingest workers "),
+		new Segment(Op.INSERT, "hourly"),
+		new Segment(Op.EQUAL, "."));
+    }
+
+    @Test
+    void replaced_lines_have_no_word_changes() {
+	TextDiff.Result diff = TextDiff.diff("# Overview\n", "kubectl get pods -n ingest\n", 3);
+
+	assertThat(diff.hunks().getFirst().lines()).extracting(Line::words).containsOnlyNulls();
+    }
+
+    @Test
+    void from_and_to_lines_rebuild_both_texts() {
+	String from = "a\nb\nc\nd\ne\nf\n";
+	String to = "x\na\nc\nd\ny\nf\nz";
+
+	TextDiff.Result diff = TextDiff.diff(from, to, 100);
+
+	assertThat(diff.hunks()).hasSize(1);
+	var lines = diff.hunks().getFirst().lines();
+	assertThat(lines.stream().filter(l -> l.op() != Op.INSERT).map(Line::text)).containsExactly("a", "b", "c", "d", "e", "f");
+	assertThat(lines.stream().filter(l -> l.op() != Op.DELETE).map(Line::text)).containsExactly("x", "a", "c", "d", "y", "f", "z");
+    }
+
+    @Test
+    void word_tokens_join_back_to_the_text() {
+	String text = "Zürich —  east-2, v1.5 🚀 done";
+
+	assertThat(Tokens.words(text)).containsExactly("Zürich", " ", "—", "  ", "east", "-", "2", ",", " ", "v1", ".", "5", " ", "🚀", " ", "done");
+	assertThat(String.join("", Tokens.words(text))).isEqualTo(text);
+    }
+}
@@ -0,0 +1,127 @@
+package com.wiki.monowiki.unit.wiki.search;
+
+import com.wiki.monowiki.wiki.model.SearchSort;
+import com.wiki.monowiki.wiki.repository.ArticleSearchQueries.Hit;
+import com.wiki.monowiki.wiki.search.PublishedArticleIndex;
+import com.wiki.monowiki.wiki.search.SearchIndexProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongPredicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PublishedArticleIndexTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+    private static final LongPredicate ALL = id -> true;
+
+    private PublishedArticleIndex index;
+
+    @BeforeEach
+    void setUp() {
+	index = new PublishedArticleIndex(new SearchIndexProperties(true, 1_000_000));
+	index.beginRebuild();
+	index.replaceAll(Map.of());
+	index.put(1L, 10L, "VPN setup", "Install the client and connect to the office network.", T0);
+	index.put(1L, 11L, "Laptop setup", "Request a laptop. The VPN client is preinstalled.", T0.plusSeconds(60));
+	index.put(1L, 12L, "Network outages", "Check status page before filing tickets.", T0.plusSeconds(120));
+	index.put(2L, 20L, "VPN for ops", "Ops uses a separate VPN.", T0);
+    }
+
+    @Test
+    void matches_within_space_and_ranks_title_hits_first() {
+	assertThat(ids(index.search(1L, "vpn", SearchSort.RELEVANCE, PageRequest.of(0, 10), ALL).orElseThrow()))
+		.containsExactly(10L, 11L);
+    }
+
+    @Test
+    void relevance_prefers_title_hits_and_rare_terms() {
+	index.put(1L, 13L, "Printer setup", "Office printer. The printer queue is on the office network.", T0.plusSeconds(180));
+
+	// "printer" is rare and repeated in 13; "office" appears in 10 and 13 but only in bodies
+	assertThat(ids(search("office printer"))).containsExactly(13L);
+	assertThat(ids(search("office or printer"))).startsWith(13L);
+	// title match outranks body-only matches, even newer ones
+	assertThat(ids(search("network"))).hasSize(3).first().isEqualTo(12L);
+    }
+
+    @Test
+    void recent_sort_orders_by_updated_at() {
+	Page<Hit> page = index.search(1L, "vpn", SearchSort.RECENT, PageRequest.of(0, 10), ALL).orElseThrow();
+
+	assertThat(ids(page)).containsExactly(11L, 10L);
+    }
+
+    @Test
+    void stems_terms_and_supports_phrases_or_and_exclusion() {
+	assertThat(ids(search("connecting"))).containsExactly(10L);
+	assertThat(ids(search("\"vpn client\""))).containsExactly(11L);
+	assertThat(ids(search("\"client vpn\""))).isEmpty();
+	assertThat(ids(search("outage or laptop"))).containsExactlyInAnyOrder(11L, 12L);
+	assertThat(ids(search("setup -laptop"))).containsExactly(10L);
+    }
+
+    @Test
+    void remove_drops_article_from_results() {
+	index.remove(10L);
+
+	assertThat(ids(search("vpn"))).containsExactly(11L);
+    }
+
+    @Test
+    void pages_over_ranked_matches() {
+	List<Long> all = ids(search("setup"));
+	Page<Hit> second = index.search(1L, "setup", SearchSort.RELEVANCE, PageRequest.of(1, 1), ALL).orElseThrow();
+
+	assertThat(second.getTotalElements()).isEqualTo(2);
+	assertThat(ids(second)).containsExactly(all.get(1));
+    }
+
+    @Test
+    void falls_back_while_rebuilding_and_replays_updates_afterwards() {
+	index.beginRebuild();
+	index.remove(11L);
+
+	assertThat(index.search(1L, "vpn", SearchSort.RELEVANCE, PageRequest.of(0, 10), ALL)).isEmpty();
+
+	index.replaceAll(Map.of());
+	assertThat(ids(search("vpn"))).isEmpty();
+	index.put(1L, 11L, "Laptop setup", "The VPN client is preinstalled.", T0);
+	assertThat(ids(search("vpn"))).containsExactly(11L);
+    }
+
+    @Test
+    void filter_restricts_matches_and_matching_ids_cover_all_pages() {
+	Page<Hit> page = index.search(1L, "setup", SearchSort.RELEVANCE, PageRequest.of(0, 10), id -> id != 10L).orElseThrow();
+	assertThat(ids(page)).containsExactly(11L);
+	assertThat(page.getTotalElements()).isEqualTo(1);
+
+	assertThat(index.matchingIds(1L, "setup", ALL).orElseThrow().toArray()).containsExactly(10, 11);
+	assertThat(index.matchingIds(1L, "setup", id -> id == 11L).orElseThrow().toArray()).containsExactly(11);
+    }
+
+    @Test
+    void space_over_memory_cap_falls_back_to_database() {
+	PublishedArticleIndex small = new PublishedArticleIndex(new SearchIndexProperties(true, 200));
+	small.beginRebuild();
+	small.replaceAll(Map.of());
+	small.put(1L, 10L, "VPN setup", "Install the client and connect to the office network.", T0);
+
+	assertThat(small.search(1L, "vpn", SearchSort.RELEVANCE, PageRequest.of(0, 10), ALL)).isEmpty();
+	assertThat(small.search(2L, "vpn", SearchSort.RELEVANCE, PageRequest.of(0, 10), ALL)).isPresent();
+    }
+
+    private Page<Hit> search(String q) {
+	return index.search(1L, q, SearchSort.RELEVANCE, PageRequest.of(0, 10), ALL).orElseThrow();
+    }
+
+    private static List<Long> ids(Page<Hit> page) {
+	return page.getContent().stream().map(Hit::articleId).toList();
+    }
+}
@@ -0,0 +1,74 @@
+package com.wiki.monowiki.unit.wiki.search;
+
+import com.wiki.monowiki.wiki.search.GlobalSearchProperties;
+import com.wiki.monowiki.wiki.search.SearchFanout;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchFanoutTest {
+
+    private final SearchFanout fanout = new SearchFanout(new GlobalSearchProperties(2, Duration.ofMillis(300), 8));
+
+    @AfterEach
+    void tearDown() {
+	fanout.destroy();
+    }
+
+    @Test
+    void slow_and_failing_tasks_are_reported_without_holding_up_the_rest() {
+	Map<String, Function<Duration, String>> tasks = new LinkedHashMap<>();
+	tasks.put("ENG", left -> "eng");
+	tasks.put("SLOW", left -> {
+	    sleep(5_000);
+	    return "slow";
+	});
+	tasks.put("BROKEN", left -> {
+	    throw new IllegalStateException("boom");
+	});
+	tasks.put("OPS", left -> "ops");
+
+	long started = System.nanoTime();
+	SearchFanout.Outcome<String> outcome = fanout.run(tasks);
+	long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+	assertThat(outcome.completed()).containsExactly(Map.entry("ENG", "eng"), Map.entry("OPS", "ops"));
+	assertThat(outcome.incomplete()).containsExactlyInAnyOrder("SLOW", "BROKEN");
+	assertThat(elapsedMs).isLessThan(2_000);
+    }
+
+    @Test
+    void tasks_beyond_the_queue_are_left_out_and_the_rest_get_the_time_left() {
+	SearchFanout single = new SearchFanout(new GlobalSearchProperties(1, Duration.ofSeconds(2), 1));
+	Map<String, Function<Duration, Duration>> tasks = new LinkedHashMap<>();
+	tasks.put("BUSY", left -> {
+	    sleep(100);
+	    return left;
+	});
+	tasks.put("QUEUED", left -> left);
+	tasks.put("REJECTED", left -> left);
+	try {
+	    SearchFanout.Outcome<Duration> outcome = single.run(tasks);
+
+	    assertThat(outcome.completed()).containsOnlyKeys("BUSY", "QUEUED");
+	    assertThat(outcome.completed().get("QUEUED")).isPositive().isLessThan(Duration.ofMillis(1_950));
+	    assertThat(outcome.incomplete()).containsExactly("REJECTED");
+	} finally {
+	    single.destroy();
+	}
+    }
+
+    private static void sleep(long ms) {
+	try {
+	    Thread.sleep(ms);
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	}
+    }
+}
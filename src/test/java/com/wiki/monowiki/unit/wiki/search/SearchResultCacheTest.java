@@ -0,0 +1,68 @@
+package com.wiki.monowiki.unit.wiki.search;
+
+import com.wiki.monowiki.wiki.dto.SearchDtos.SearchResult;
+import com.wiki.monowiki.wiki.model.SearchMode;
+import com.wiki.monowiki.wiki.model.SearchSort;
+import com.wiki.monowiki.wiki.repository.ArticleSearchQueries.Visibility;
+import com.wiki.monowiki.wiki.search.SearchCacheProperties;
+import com.wiki.monowiki.wiki.search.SearchResultCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchResultCacheTest {
+
+    private final SearchResultCache cache = new SearchResultCache(new SearchCacheProperties(true, 1 << 20, Duration.ofMinutes(5)));
+
+    @Test
+    void invalidation_only_drops_the_events_space() {
+	AtomicInteger loads = new AtomicInteger();
+	cache.get(key("ENG", "vpn", Visibility.PUBLISHED_ONLY), () -> load(loads));
+	cache.get(key("OPS", "vpn", Visibility.PUBLISHED_ONLY), () -> load(loads));
+
+	cache.invalidate("ENG");
+	cache.get(key("ENG", "vpn", Visibility.PUBLISHED_ONLY), () -> load(loads));
+	cache.get(key("OPS", "vpn", Visibility.PUBLISHED_ONLY), () -> load(loads));
+
+	assertThat(loads).hasValue(3);
+	assertThat(cache.stats().hits()).isEqualTo(1);
+    }
+
+    @Test
+    void visibility_is_part_of_the_key() {
+	AtomicInteger loads = new AtomicInteger();
+	cache.get(key("ENG", "vpn", Visibility.PUBLISHED_ONLY), () -> load(loads));
+	cache.get(key("ENG", "vpn", Visibility.NON_ARCHIVED), () -> load(loads));
+
+	assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void page_loaded_across_an_invalidation_is_not_cached() {
+	AtomicInteger loads = new AtomicInteger();
+	SearchResultCache.Key before = key("ENG", "vpn", Visibility.PUBLISHED_ONLY);
+
+	cache.get(before, () -> {
+	    cache.invalidate("ENG"); // a change commits while the search is running
+	    return load(loads);
+	});
+	cache.get(key("ENG", "vpn", Visibility.PUBLISHED_ONLY), () -> load(loads));
+
+	assertThat(loads).hasValue(2);
+    }
+
+    private SearchResultCache.Key key(String spaceKey, String q, Visibility visibility) {
+	return cache.key(spaceKey, q, SearchMode.FULLTEXT, SearchSort.RELEVANCE, 0.3, List.of(), visibility, false, 0, 10);
+    }
+
+    private SearchResult load(AtomicInteger loads) {
+	loads.incrementAndGet();
+	return new SearchResult(Page.empty(PageRequest.of(0, 10)), List.of());
+    }
+}
@@ -0,0 +1,30 @@
+package com.wiki.monowiki.unit.wiki.search;
+
+import com.wiki.monowiki.wiki.dto.SearchDtos.Highlight;
+import com.wiki.monowiki.wiki.search.Snippets;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnippetsTest {
+
+    @Test
+    void marked_headline_becomes_plain_text_with_offsets() {
+	var s = Snippets.fromMarked("\u0002VPN\u0003 client fails, reinstall \u0002vpn\u0003");
+
+	assertThat(s.text()).isEqualTo("VPN client fails, reinstall vpn");
+	assertThat(s.highlights()).containsExactly(new Highlight(0, 3), new Highlight(28, 3));
+    }
+
+    @Test
+    void window_highlights_case_insensitive_occurrences_and_is_bounded() {
+	String window = "Use the Wiki. ".repeat(40);
+
+	var s = Snippets.fromWindow(window, "wiki");
+
+	assertThat(s.text()).hasSize(Snippets.MAX_LENGTH);
+	assertThat(s.highlights()).first().isEqualTo(new Highlight(8, 4));
+	assertThat(s.highlights()).allMatch(h -> h.start() + h.length() <= Snippets.MAX_LENGTH);
+	assertThat(s.highlights()).allMatch(h -> s.text().substring(h.start(), h.start() + h.length()).equalsIgnoreCase("wiki"));
+    }
+}
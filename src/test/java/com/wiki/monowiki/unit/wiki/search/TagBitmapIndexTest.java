@@ -0,0 +1,43 @@
+package com.wiki.monowiki.unit.wiki.search;
+
+import com.wiki.monowiki.wiki.search.TagBitmapIndex;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TagBitmapIndexTest {
+
+    private final TagBitmapIndex index = new TagBitmapIndex();
+
+    @Test
+    void counts_and_all_tags_filter() {
+	index.beginRebuild();
+	index.replaceAll(Map.of());
+	index.add(1L, 10L);
+	index.add(1L, 11L);
+	index.add(2L, 11L);
+	index.add(2L, 12L);
+	index.remove(2L, 12L);
+
+	assertThat(index.counts(RoaringBitmap.bitmapOf(10, 11, 12))).containsExactlyInAnyOrderEntriesOf(Map.of(1L, 2, 2L, 1));
+	assertThat(index.articlesWithAll(List.of(1L, 2L)).toArray()).containsExactly(11);
+	assertThat(index.articlesWithAll(List.of(1L, 3L)).isEmpty()).isTrue();
+    }
+
+    @Test
+    void changes_during_rebuild_are_replayed_onto_rebuilt_bitmaps() {
+	index.beginRebuild();
+	index.add(1L, 20L);
+	index.remove(1L, 10L);
+	assertThat(index.isReady()).isFalse();
+
+	index.replaceAll(Map.of(1L, RoaringBitmap.bitmapOf(10, 11)));
+
+	assertThat(index.isReady()).isTrue();
+	assertThat(index.articlesWithAll(List.of(1L)).toArray()).containsExactly(11, 20);
+    }
+}
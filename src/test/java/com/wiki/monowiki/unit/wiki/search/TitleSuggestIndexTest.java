@@ -0,0 +1,73 @@
+package com.wiki.monowiki.unit.wiki.search;
+
+import com.wiki.monowiki.wiki.model.ArticleStatus;
+import com.wiki.monowiki.wiki.search.TitleSuggestIndex;
+import com.wiki.monowiki.wiki.search.TitleSuggestIndex.Suggestion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TitleSuggestIndexTest {
+
+    private TitleSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+	index = new TitleSuggestIndex();
+	index.put("ENG", draft(1L, "VPN Troubleshooting"));
+	index.put("ENG", draft(2L, "Network Topology"));
+	index.put("ENG", draft(3L, "Café network setup"));
+	index.put("OPS", draft(4L, "Network runbook"));
+    }
+
+    @Test
+    void matches_title_start_before_other_words() {
+	assertThat(ids("netw")).containsExactly(2L, 3L);
+	assertThat(ids("TROUBLE")).containsExactly(1L);
+	assertThat(ids("cafe net")).containsExactly(3L);
+	assertThat(ids("x")).isEmpty();
+	assertThat(ids("  ")).isEmpty();
+    }
+
+    @Test
+    void title_update_rekeys_and_remove_drops() {
+	index.put("ENG", draft(2L, "Routing overview"));
+	index.remove(1L);
+
+	assertThat(ids("netw")).containsExactly(3L);
+	assertThat(ids("rout")).containsExactly(2L);
+	assertThat(ids("vpn")).isEmpty();
+    }
+
+    @Test
+    void respects_limit_and_visibility() {
+	assertThat(index.suggest("ENG", "n", 1, s -> true)).hasSize(1);
+	assertThat(index.suggest("ENG", "n", 10, s -> s.articleId() != 2L))
+		.extracting(Suggestion::articleId).containsExactly(3L);
+    }
+
+    @Test
+    void rebuild_replaces_spaces_and_reports_concurrent_changes() {
+	index.beginRebuild();
+	index.put("ENG", draft(5L, "New during rebuild"));
+
+	Set<Long> changed = index.replaceAll(Map.of("ENG", List.of(draft(6L, "Network basics"))));
+
+	assertThat(changed).containsExactly(5L);
+	assertThat(ids("netw")).containsExactly(6L);
+	assertThat(index.suggest("OPS", "netw", 10, s -> true)).isEmpty();
+    }
+
+    private List<Long> ids(String prefix) {
+	return index.suggest("ENG", prefix, 10, s -> true).stream().map(Suggestion::articleId).toList();
+    }
+
+    private static Suggestion draft(Long id, String title) {
+	return new Suggestion(id, "a-" + id, title, ArticleStatus.DRAFT);
+    }
+}
@@ -0,0 +1,36 @@
+package com.wiki.monowiki.unit.wiki.search;
+
+import com.wiki.monowiki.wiki.search.Tokenizer;
+import com.wiki.monowiki.wiki.search.Tokenizer.Token;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenizerTest {
+
+    @Test
+    void stems_like_the_snowball_english_stemmer() {
+	assertThat(terms("running runs ran")).containsExactly("run", "run", "ran");
+	assertThat(terms("generously generalization")).containsExactly("generous", "general");
+	assertThat(terms("ponies caresses cries ties")).containsExactly("poni", "caress", "cri", "tie");
+	assertThat(terms("hopping hoping controlled relational")).containsExactly("hop", "hope", "control", "relat");
+	assertThat(terms("skies dying news")).containsExactly("sky", "die", "news");
+    }
+
+    @Test
+    void drops_english_stop_words_but_keeps_their_positions() {
+	assertThat(Tokenizer.tokens("How do I reset my VPN client?"))
+		.containsExactly(new Token("reset", 3), new Token("vpn", 5), new Token("client", 6));
+    }
+
+    @Test
+    void keeps_words_with_digits_and_accents_verbatim() {
+	assertThat(terms("S3 buckets running2 café")).containsExactly("s3", "bucket", "running2", "café");
+    }
+
+    private static List<String> terms(String text) {
+	return Tokenizer.tokens(text).stream().map(Token::term).toList();
+    }
+}
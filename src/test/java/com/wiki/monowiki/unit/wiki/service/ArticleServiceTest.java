@@ -3,28 +3,44 @@ package com.wiki.monowiki.unit.wiki.service;
 import com.wiki.monowiki.audit.model.AuditEventType;
 import com.wiki.monowiki.audit.service.WikiAuditEvent;
 import com.wiki.monowiki.unit.util.TestAuth;
+import com.wiki.monowiki.wiki.dto.ArticleDtos.ArticleResponse;
+import com.wiki.monowiki.wiki.dto.ArticleDtos.ArticleSummaryResponse;
 import com.wiki.monowiki.wiki.dto.ArticleDtos.CreateArticleRequest;
 import com.wiki.monowiki.wiki.model.Article;
 import com.wiki.monowiki.wiki.model.ArticleStatus;
 import com.wiki.monowiki.wiki.model.ArticleVersion;
 import com.wiki.monowiki.wiki.model.Space;
 import com.wiki.monowiki.wiki.repository.*;
+import com.wiki.monowiki.wiki.repository.ArticleRepository.SummaryRow;
+import com.wiki.monowiki.wiki.search.TitleSuggestIndex;
+import com.wiki.monowiki.wiki.search.TitleSuggestIndex.Suggestion;
+import com.wiki.monowiki.wiki.service.ArticleResponseAssembler;
 import com.wiki.monowiki.wiki.service.ArticleService;
+import com.wiki.monowiki.wiki.service.SearchDocumentService;
 import com.wiki.monowiki.wiki.service.SlugUtil;
+import com.wiki.monowiki.wiki.service.SpaceDirectory;
+import com.wiki.monowiki.wiki.service.SpaceDirectoryProperties;
+import com.wiki.monowiki.wiki.service.VersionContents;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -38,24 +54,63 @@ class ArticleServiceTest {
     @Mock private ArticleRepository articles;
     @Mock private SpaceRepository spaces;
     @Mock private ArticleVersionRepository versions;
+    @Mock private VersionContents versionContents;
     @Mock private ArticleTagRepository articleTags;
-    @Mock private VersionCommentRepository comments;
+    @Mock private VersionCommentCountRepository commentCounts;
+    @Mock private SearchDocumentService searchDocuments;
+    @Spy private TitleSuggestIndex titleSuggestions = new TitleSuggestIndex();
     @Mock private ApplicationEventPublisher publisher;
 
-    @InjectMocks
     private ArticleService service;
 
+    @BeforeEach
+    void setUp() {
+	SpaceDirectory spaceDirectory = new SpaceDirectory(spaces, new SpaceDirectoryProperties(Duration.ofMinutes(5), Duration.ofSeconds(30)));
+	ArticleResponseAssembler responses = new ArticleResponseAssembler(versions, articleTags, commentCounts, spaceDirectory);
+	service = new ArticleService(articles, spaces, spaceDirectory, versions, versionContents, responses, searchDocuments, titleSuggestions, publisher);
+    }
+
     @AfterEach
     void tearDown() {
 	TestAuth.clear();
     }
 
+    @Test
+    void suggest_hides_unpublished_titles_from_viewers() {
+	titleSuggestions.put("ENG", new Suggestion(1L, "onboarding-guide", "Onboarding Guide", ArticleStatus.PUBLISHED));
+	titleSuggestions.put("ENG", new Suggestion(2L, "oncall-runbook", "Oncall Runbook", ArticleStatus.DRAFT));
+
+	TestAuth.setAuth("viewer1", "VIEWER");
+	assertThat(service.suggest("ENG", "on", 10)).extracting("id").containsExactly(1L);
+
+	TestAuth.setAuth("editor1", "EDITOR");
+	assertThat(service.suggest("ENG", "on", 10)).extracting("id").containsExactly(1L, 2L);
+	assertThatThrownBy(() -> service.suggest("ENG", "on", 0)).isInstanceOf(IllegalArgumentException.class);
+	verifyNoInteractions(articles, spaces);
+    }
+
+    @Test
+    void create_does_not_use_reserved_slug() {
+	TestAuth.setAuth("editor1", "EDITOR");
+
+	Space space = Space.builder().id(1L).spaceKey("ENG").name("Engineering").build();
+	when(spaces.findBySpaceKey("ENG")).thenReturn(Optional.of(space));
+	when(spaces.getReferenceById(1L)).thenReturn(space);
+	when(articles.existsBySpaceAndSlug(space, "suggest-2")).thenReturn(false);
+	when(articles.save(any(Article.class))).thenAnswer(inv -> inv.getArgument(0));
+
+	var res = service.create("ENG", new CreateArticleRequest("Suggest", "content"));
+
+	assertThat(res.slug()).isEqualTo("suggest-2");
+    }
+
     @Test
     void create_creates_article_v1_and_emits_audit_event() {
 	TestAuth.setAuth("editor1", "EDITOR");
 
 	Space space = Space.builder().id(1L).spaceKey("ENG").name("Engineering").build();
 	when(spaces.findBySpaceKey("ENG")).thenReturn(Optional.of(space));
+	when(spaces.getReferenceById(1L)).thenReturn(space);
 	when(articles.existsBySpaceAndSlug(eq(space), anyString())).thenReturn(false);
 	when(articles.save(any(Article.class))).thenAnswer(inv -> {
 	    Article a = inv.getArgument(0);
@@ -67,8 +122,6 @@ class ArticleServiceTest {
 	    v.setId(100L);
 	    return v;
 	});
-	when(articleTags.findByArticle(any())).thenReturn(List.of());
-	when(comments.countByArticleAndVersionNo(any(), anyInt())).thenReturn(0L);
 
 	var req = new CreateArticleRequest("Onboarding Guide", "v1 content");
 	var res = service.create("ENG", req);
@@ -95,6 +148,7 @@ class ArticleServiceTest {
 
 	Space space = Space.builder().id(1L).spaceKey("ENG").name("Engineering").build();
 	when(spaces.findBySpaceKey("ENG")).thenReturn(Optional.of(space));
+	when(spaces.getReferenceById(1L)).thenReturn(space);
 
 	Article draft = Article.builder()
 		.id(10L)
@@ -116,6 +170,7 @@ class ArticleServiceTest {
 
 	Space space = Space.builder().id(1L).spaceKey("ENG").name("Engineering").build();
 	when(spaces.findBySpaceKey("ENG")).thenReturn(Optional.of(space));
+	when(spaces.getReferenceById(1L)).thenReturn(space);
 
 	Article published = Article.builder()
 		.id(10L)
@@ -129,15 +184,60 @@ class ArticleServiceTest {
 	when(articles.findBySpaceAndStatus(eq(space), eq(ArticleStatus.PUBLISHED), any(Pageable.class)))
 		.thenReturn(new PageImpl<>(List.of(published)));
 
-	when(versions.findByArticleAndVersionNo(published, 1))
-		.thenReturn(Optional.of(ArticleVersion.builder().id(100L).article(published).versionNo(1).content("latest").build()));
-	when(articleTags.findByArticle(published)).thenReturn(List.of());
-	when(comments.countByArticleAndVersionNo(published, 1)).thenReturn(0L);
-
-	Page<?> page = service.list("ENG", false,PageRequest.of(0, 10));
-	assertThat(page.getTotalElements()).isEqualTo(1);
+	Slice<ArticleResponse> page = service.list("ENG", false, true, PageRequest.of(0, 10));
+	assertThat(page).isInstanceOfSatisfying(Page.class, p -> assertThat(p.getTotalElements()).isEqualTo(1));
 
 	verify(articles).findBySpaceAndStatus(eq(space), eq(ArticleStatus.PUBLISHED), any(Pageable.class));
 	verify(articles, never()).findBySpace(eq(space), any(Pageable.class));
     }
+
+    @Test
+    void list_without_total_uses_slice_query_and_skips_count() {
+	TestAuth.setAuth("editor1", "EDITOR");
+
+	Space space = Space.builder().id(1L).spaceKey("ENG").name("Engineering").build();
+	when(spaces.findBySpaceKey("ENG")).thenReturn(Optional.of(space));
+	when(spaces.getReferenceById(1L)).thenReturn(space);
+
+	Article draft = Article.builder().id(10L).space(space).title("Draft").slug("draft").currentVersionNo(1).build();
+	when(articles.findSliceBySpaceAndStatusNot(eq(space), eq(ArticleStatus.ARCHIVED), any(Pageable.class)))
+		.thenReturn(new SliceImpl<>(List.of(draft), PageRequest.of(0, 1), true));
+
+	Slice<ArticleResponse> page = service.list("ENG", false, false, PageRequest.of(0, 1));
+
+	assertThat(page).isNotInstanceOf(Page.class);
+	assertThat(page.hasNext()).isTrue();
+	assertThat(page.getContent()).extracting("id").containsExactly(10L);
+	verify(articles, never()).findBySpaceAndStatusNot(any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    void listSummaries_uses_projection_and_never_loads_content() {
+	TestAuth.setAuth("editor1", "EDITOR");
+
+	Space space = Space.builder().id(1L).spaceKey("ENG").name("Engineering").build();
+	when(spaces.findBySpaceKey("ENG")).thenReturn(Optional.of(space));
+	when(spaces.getReferenceById(1L)).thenReturn(space);
+
+	SummaryRow row = new SpelAwareProxyProjectionFactory().createProjection(SummaryRow.class, Map.of(
+		"id", 10L,
+		"slug", "vpn-setup",
+		"title", "VPN setup",
+		"status", ArticleStatus.DRAFT,
+		"currentVersionNo", 3,
+		"excerpt", "Install the client first"
+	));
+	when(articles.findSummaryBySpaceAndStatusNot(eq(space), eq(ArticleStatus.ARCHIVED), any(Pageable.class)))
+		.thenReturn(new PageImpl<>(List.of(row)));
+
+	Slice<ArticleSummaryResponse> page = service.listSummaries("ENG", false, true, PageRequest.of(0, 10));
+
+	assertThat(page.getContent()).singleElement().satisfies(a -> {
+	    assertThat(a.spaceKey()).isEqualTo("ENG");
+	    assertThat(a.excerpt()).isEqualTo("Install the client first");
+	    assertThat(a.tags()).isEmpty();
+	});
+	verify(articleTags).findTagsByArticleIdIn(List.of(10L));
+	verifyNoInteractions(versions, commentCounts);
+    }
 }
@@ -0,0 +1,34 @@
+package com.wiki.monowiki.unit.wiki.service;
+
+import com.wiki.monowiki.wiki.repository.VersionCommentCountRepository;
+import com.wiki.monowiki.wiki.service.CommentCountReconciler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CommentCountReconcilerTest {
+
+    @Mock private VersionCommentCountRepository counts;
+
+    @InjectMocks
+    private CommentCountReconciler reconciler;
+
+    @Test
+    void reconcile_recounts_then_drops_counters_without_comments() {
+	when(counts.reconcileCounted()).thenReturn(2);
+	when(counts.deleteUncounted()).thenReturn(1);
+
+	reconciler.reconcile();
+
+	InOrder order = inOrder(counts);
+	order.verify(counts).reconcileCounted();
+	order.verify(counts).deleteUncounted();
+    }
+}
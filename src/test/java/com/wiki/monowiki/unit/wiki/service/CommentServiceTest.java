@@ -6,9 +6,12 @@ import com.wiki.monowiki.unit.util.TestAuth;
 import com.wiki.monowiki.wiki.dto.CommentDtos.CreateCommentRequest;
 import com.wiki.monowiki.wiki.model.*;
 import com.wiki.monowiki.wiki.repository.ArticleRepository;
+import com.wiki.monowiki.wiki.repository.ArticleRepository.CommentListState;
 import com.wiki.monowiki.wiki.repository.ArticleVersionRepository;
+import com.wiki.monowiki.wiki.repository.VersionCommentCountRepository;
 import com.wiki.monowiki.wiki.repository.VersionCommentRepository;
 import com.wiki.monowiki.wiki.service.CommentService;
+import com.wiki.monowiki.wiki.service.SpaceDirectory;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -33,6 +36,8 @@ class CommentServiceTest {
     @Mock private ArticleRepository articles;
     @Mock private ArticleVersionRepository versions;
     @Mock private VersionCommentRepository comments;
+    @Mock private VersionCommentCountRepository commentCounts;
+    @Mock private SpaceDirectory spaceDirectory;
     @Mock private ApplicationEventPublisher publisher;
 
     @InjectMocks
@@ -52,23 +57,27 @@ class CommentServiceTest {
 
 	when(articles.findById(10L)).thenReturn(Optional.of(a));
 	when(versions.findByArticleAndVersionNo(a, 2))
-		.thenReturn(Optional.of(ArticleVersion.builder().id(100L).article(a).versionNo(2).content("x").build()));
+		.thenReturn(Optional.of(ArticleVersion.builder().id(100L).article(a).versionNo(2).build()));
 	when(comments.save(any(VersionComment.class))).thenAnswer(inv -> {
 	    VersionComment c = inv.getArgument(0);
 	    c.setId(1000L);
 	    return c;
 	});
 
+	when(spaceDirectory.keyOf(a)).thenReturn("ENG");
+
 	var res = service.create(10L, 2, new CreateCommentRequest("  LGTM  "));
 
 	assertThat(res.id()).isEqualTo(1000L);
 	assertThat(res.articleId()).isEqualTo(10L);
 	assertThat(res.versionNo()).isEqualTo(2);
 	assertThat(res.body()).isEqualTo("LGTM");
+	verify(commentCounts).increment(10L, 2);
 
 	ArgumentCaptor<WikiAuditEvent> captor = ArgumentCaptor.forClass(WikiAuditEvent.class);
 	verify(publisher).publishEvent(captor.capture());
 	assertThat(captor.getValue().eventType()).isEqualTo(AuditEventType.COMMENT_ADDED);
+	assertThat(captor.getValue().spaceKey()).isEqualTo("ENG");
 	assertThat(captor.getValue().publicEvent()).isTrue();
     }
 
@@ -79,7 +88,32 @@ class CommentServiceTest {
 	Article a = Article.builder().id(10L).status(ArticleStatus.DRAFT).build();
 	when(articles.findById(10L)).thenReturn(Optional.of(a));
 
-	assertThatThrownBy(() -> service.list(10L, 1, PageRequest.of(0, 10)))
+	assertThatThrownBy(() -> service.list(10L, 1, true, PageRequest.of(0, 10)))
 		.isInstanceOf(CommentService.NotFoundException.class);
     }
+
+    @Test
+    void list_etag_follows_the_comments_not_the_counter() {
+	TestAuth.setAuth("viewer1", "VIEWER");
+	when(articles.findCommentState(10L, 2)).thenReturn(
+		Optional.of(commentState(ArticleStatus.PUBLISHED, 3, 4, 1004L)),
+		Optional.of(commentState(ArticleStatus.PUBLISHED, 3, 4, 1005L)));
+	when(articles.findCommentState(10L, 4)).thenReturn(Optional.of(commentState(ArticleStatus.PUBLISHED, 3, 0, 0L)));
+	when(articles.findCommentState(20L, 1)).thenReturn(Optional.of(commentState(ArticleStatus.DRAFT, 1, 0, 0L)));
+
+	// same count, but one comment replaced by a newer one
+	assertThat(service.listETag(10L, 2)).contains("\"10-v2-c4-m1004\"");
+	assertThat(service.listETag(10L, 2)).contains("\"10-v2-c4-m1005\"");
+	assertThat(service.listETag(10L, 4)).isEmpty();
+	assertThat(service.listETag(20L, 1)).isEmpty();
+    }
+
+    private static CommentListState commentState(ArticleStatus status, int currentVersionNo, long count, long lastId) {
+	return new CommentListState() {
+	    @Override public ArticleStatus getStatus() { return status; }
+	    @Override public Integer getCurrentVersionNo() { return currentVersionNo; }
+	    @Override public Long getCommentCount() { return count; }
+	    @Override public Long getLastCommentId() { return lastId; }
+	};
+    }
 }
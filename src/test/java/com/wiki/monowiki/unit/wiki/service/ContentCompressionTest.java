@@ -0,0 +1,96 @@
+package com.wiki.monowiki.unit.wiki.service;
+
+import com.wiki.monowiki.wiki.service.ContentCompression;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ContentCompressionTest {
+
+    private static final String RUNBOOK = """
+	    ## Overview
+	    Restart the ingest workers when the queue backs up.
+
+	    ### Steps
+	    1. Check the pods:
+	    ```bash
+	    kubectl get pods -n ingest
+	    ```
+	    2. Restart them:
+	    ```bash
+	    kubectl rollout restart deployment/ingest-worker -n ingest
+	    ```
+	    - [ ] Confirm the queue drains
+	    """;
+
+    @Test
+    void round_trips_markdown_unicode_and_empty_content() {
+	for (String s : new String[]{RUNBOOK, RUNBOOK.repeat(20), "Zürich — 東京 🚀\n", ""}) {
+	    assertThat(ContentCompression.decompress(ContentCompression.compress(s))).isEqualTo(s);
+	}
+    }
+
+    @Test
+    void decodes_format_1_bodies_written_by_earlier_releases() {
+	// written with the format 1 dictionary; its zlib header carries the dictionary's Adler-32, so any edit to
+	// MARKDOWN_V1 makes this fail instead of silently misreading stored rows
+	byte[] stored = Base64.getDecoder().decode(
+		"AXi734ivUEM2NygVGJPAYAcZBTQUyFMozy8ChmCxQnlGah5YvLA0tTRVIQkYjcUKpQV6XHCfYAt/iCFInnTOz0vLLMpFMimlKDEzr5gLAI48Lq0=");
+
+	assertThat(ContentCompression.decompress(stored)).isEqualTo("""
+		## Overview
+		Restart the ingest workers when the queue backs up.
+
+		```bash
+		kubectl get pods -n ingest
+		```
+		- [ ] Confirm the queue drains
+		""");
+    }
+
+    @Test
+    void round_trips_incompressible_content() {
+	Random random = new Random(7);
+	StringBuilder sb = new StringBuilder();
+	for (int i = 0; i < 5_000; i++) sb.appendCodePoint(0x20 + random.nextInt(0x3000));
+	String noise = sb.toString();
+
+	assertThat(ContentCompression.decompress(ContentCompression.compress(noise))).isEqualTo(noise);
+    }
+
+    @Test
+    void markdown_compresses_well() {
+	String body = RUNBOOK.repeat(20);
+
+	assertThat(ContentCompression.compress(body).length).isLessThan(body.length() / 10);
+	// short bodies mostly rely on the dictionary
+	assertThat(ContentCompression.compress(RUNBOOK).length).isLessThan(RUNBOOK.length() * 6 / 10);
+    }
+
+    @Test
+    void text_prefers_the_plain_column() {
+	assertThat(ContentCompression.text("plain", null)).isEqualTo("plain");
+	assertThat(ContentCompression.text(null, ContentCompression.compress("packed"))).isEqualTo("packed");
+    }
+
+    @Test
+    void truncated_or_unknown_data_is_rejected() {
+	byte[] data = ContentCompression.compress(RUNBOOK);
+
+	assertThatThrownBy(() -> ContentCompression.decompress(Arrays.copyOf(data, data.length / 2)))
+		.isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void unknown_format_is_rejected() {
+	byte[] data = ContentCompression.compress(RUNBOOK);
+	data[0] = 9;
+
+	assertThatThrownBy(() -> ContentCompression.decompress(data)).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,98 @@
+package com.wiki.monowiki.unit.wiki.service;
+
+import com.wiki.monowiki.common.response.BaseResponse;
+import com.wiki.monowiki.wiki.dto.ArticleDtos.ArticleResponse;
+import com.wiki.monowiki.wiki.model.ArticleStatus;
+import com.wiki.monowiki.wiki.service.PublishedArticleCacheProperties;
+import com.wiki.monowiki.wiki.service.PublishedArticleResponseCache;
+import com.wiki.monowiki.wiki.service.PublishedArticleResponseCache.Entry;
+import com.wiki.monowiki.wiki.service.PublishedArticleResponseCache.Read;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PublishedArticleResponseCacheTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final PublishedArticleResponseCache cache =
+	    new PublishedArticleResponseCache(new PublishedArticleCacheProperties(true, 1_000_000, Duration.ofMinutes(10)), jsonMapper);
+
+    @Test
+    void published_article_is_cached_as_json_and_gzip() throws IOException {
+	BaseResponse<ArticleResponse> response = response(10L, ArticleStatus.PUBLISHED, "lorem ipsum ".repeat(200));
+
+	Entry put = cache.put("ENG", "guide", "\"e\"", response, cache.generation());
+
+	assertThat(cache.get("ENG", "guide")).containsSame(put);
+	assertThat(new String(put.json(), StandardCharsets.UTF_8)).isEqualTo(jsonMapper.writeValueAsString(response));
+	assertThat(put.hasGzip()).isTrue();
+	try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(put.gzip()))) {
+	    assertThat(in.readAllBytes()).isEqualTo(put.json());
+	}
+    }
+
+    @Test
+    void unpublished_article_is_serialized_but_not_cached() {
+	cache.put("ENG", "draft", "\"e\"", response(11L, ArticleStatus.DRAFT, "x"), cache.generation());
+
+	assertThat(cache.get("ENG", "draft")).isEmpty();
+    }
+
+    @Test
+    void change_to_the_article_drops_its_entry_only() {
+	cache.put("ENG", "a", "\"e\"", response(10L, ArticleStatus.PUBLISHED, "a"), cache.generation());
+	cache.put("ENG", "b", "\"e\"", response(20L, ArticleStatus.PUBLISHED, "b"), cache.generation());
+
+	cache.invalidate(10L);
+
+	assertThat(cache.get("ENG", "a")).isEmpty();
+	assertThat(cache.get("ENG", "b")).isPresent();
+    }
+
+    @Test
+    void response_loaded_before_a_change_is_not_cached() {
+	long generation = cache.generation();
+	cache.invalidate(10L);
+
+	cache.put("ENG", "a", "\"e\"", response(10L, ArticleStatus.PUBLISHED, "a"), generation);
+
+	assertThat(cache.get("ENG", "a")).isEmpty();
+    }
+
+    @Test
+    void load_serializes_and_caches_published_articles_only() {
+	Read published = cache.load("ENG", "a", true, () -> "\"10-v1\"", () -> response(10L, ArticleStatus.PUBLISHED, "a"));
+	Read draft = cache.load("ENG", "b", false, () -> "\"20-v1\"", () -> response(20L, ArticleStatus.DRAFT, "b"));
+
+	assertThat(published.serialized()).isNotNull();
+	assertThat(cache.get("ENG", "a")).containsSame(published.serialized());
+	assertThat(published.serialized().etag()).isEqualTo(published.etag()).isEqualTo("\"10-v1\"");
+	assertThat(draft.serialized()).isNull();
+	assertThat(draft.response().getData().id()).isEqualTo(20L);
+	assertThat(cache.stats().loads()).isEqualTo(2);
+    }
+
+    @Test
+    void accepts_gzip_honours_q_zero() {
+	assertThat(PublishedArticleResponseCache.acceptsGzip("gzip, deflate, br")).isTrue();
+	assertThat(PublishedArticleResponseCache.acceptsGzip("br;q=1.0, GZIP;q=0.5")).isTrue();
+	assertThat(PublishedArticleResponseCache.acceptsGzip("gzip;q=0")).isFalse();
+	assertThat(PublishedArticleResponseCache.acceptsGzip("identity")).isFalse();
+	assertThat(PublishedArticleResponseCache.acceptsGzip(null)).isFalse();
+    }
+
+    private static BaseResponse<ArticleResponse> response(Long id, ArticleStatus status, String content) {
+	ArticleResponse a = new ArticleResponse(id, "ENG", "slug-" + id, "Title " + id, status, 1, content, List.of(), 0,
+		"editor1", Instant.parse("2026-01-01T00:00:00Z"), Instant.parse("2026-01-02T00:00:00Z"));
+	return new BaseResponse<>(200, "Article fetched", false, a);
+    }
+}
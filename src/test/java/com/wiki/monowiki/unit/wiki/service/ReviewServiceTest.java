@@ -8,6 +8,9 @@ import com.wiki.monowiki.wiki.model.*;
 import com.wiki.monowiki.wiki.repository.ArticleRepository;
 import com.wiki.monowiki.wiki.repository.ReviewRequestRepository;
 import com.wiki.monowiki.wiki.service.ReviewService;
+import com.wiki.monowiki.wiki.service.SearchDocumentService;
+import com.wiki.monowiki.wiki.service.SpaceDirectory;
+import com.wiki.monowiki.wiki.service.VersionDiffs;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -22,6 +25,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +33,9 @@ class ReviewServiceTest {
 
     @Mock private ArticleRepository articles;
     @Mock private ReviewRequestRepository reviews;
+    @Mock private SearchDocumentService searchDocuments;
+    @Mock private VersionDiffs versionDiffs;
+    @Mock private SpaceDirectory spaceDirectory;
     @Mock private ApplicationEventPublisher publisher;
 
     @InjectMocks
@@ -65,6 +72,29 @@ class ReviewServiceTest {
 	verify(publisher).publishEvent(captor.capture());
 	assertThat(captor.getValue().eventType()).isEqualTo(AuditEventType.REVIEW_SUBMITTED);
 	assertThat(captor.getValue().publicEvent()).isFalse();
+	verifyNoInteractions(versionDiffs);
+    }
+
+    @Test
+    void submit_records_versions_and_prefetches_the_diff_from_the_published_version() {
+	TestAuth.setAuth("editor1", "EDITOR");
+
+	Space space = Space.builder().id(1L).spaceKey("ENG").name("Engineering").build();
+	Article a = Article.builder().id(10L).space(space).slug("onboarding").status(ArticleStatus.DRAFT).currentVersionNo(7).build();
+
+	when(articles.findById(10L)).thenReturn(Optional.of(a));
+	when(reviews.findLastVersionNo(10L, ReviewStatus.APPROVED)).thenReturn(Optional.of(4));
+	when(reviews.save(any(ReviewRequest.class))).thenAnswer(inv -> {
+	    ReviewRequest rr = inv.getArgument(0);
+	    rr.setId(101L);
+	    return rr;
+	});
+
+	var res = service.submit(10L);
+
+	assertThat(res.versionNo()).isEqualTo(7);
+	assertThat(res.baseVersionNo()).isEqualTo(4);
+	verify(versionDiffs).prefetch(10L, 4, 7);
     }
 
     @Test
@@ -87,6 +117,7 @@ class ReviewServiceTest {
 
 	assertThat(rr.getStatus()).isEqualTo(ReviewStatus.APPROVED);
 	assertThat(a.getStatus()).isEqualTo(ArticleStatus.PUBLISHED);
+	verify(searchDocuments).refreshMetadata(a);
 	assertThat(res.status()).isEqualTo(ReviewStatus.APPROVED);
 
 	ArgumentCaptor<WikiAuditEvent> captor = ArgumentCaptor.forClass(WikiAuditEvent.class);
@@ -0,0 +1,45 @@
+package com.wiki.monowiki.unit.wiki.service;
+
+import com.wiki.monowiki.wiki.model.Article;
+import com.wiki.monowiki.wiki.model.ArticleStatus;
+import com.wiki.monowiki.wiki.model.Space;
+import com.wiki.monowiki.wiki.repository.ArticleSearchDocRepository;
+import com.wiki.monowiki.wiki.repository.ArticleTagRepository;
+import com.wiki.monowiki.wiki.service.SearchDocumentService;
+import com.wiki.monowiki.wiki.service.VersionContents;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class SearchDocumentServiceTest {
+
+    @Mock private ArticleSearchDocRepository docs;
+    @Mock private ArticleTagRepository articleTags;
+    @Mock private VersionContents contents;
+
+    @InjectMocks
+    private SearchDocumentService service;
+
+    private final Article article = Article.builder()
+	    .id(10L)
+	    .space(Space.builder().id(1L).spaceKey("ENG").build())
+	    .title("Runbook")
+	    .status(ArticleStatus.PUBLISHED)
+	    .build();
+
+    @Test
+    void tag_changes_are_atomic_updates_without_loading_the_document() {
+	service.addTag(article, 5L);
+	service.removeTag(article, 6L);
+
+	verify(docs).addTag(10L, 5L);
+	verify(docs).removeTag(10L, 6L);
+	verify(docs, never()).findById(10L);
+    }
+}
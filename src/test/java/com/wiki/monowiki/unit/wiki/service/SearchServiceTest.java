@@ -0,0 +1,351 @@
+package com.wiki.monowiki.unit.wiki.service;
+
+import com.wiki.monowiki.unit.util.TestAuth;
+import com.wiki.monowiki.wiki.dto.SearchDtos.Highlight;
+import com.wiki.monowiki.wiki.dto.SearchDtos.TagFacet;
+import com.wiki.monowiki.wiki.model.Article;
+import com.wiki.monowiki.wiki.model.ArticleStatus;
+import com.wiki.monowiki.wiki.model.SearchMode;
+import com.wiki.monowiki.wiki.model.SearchSort;
+import com.wiki.monowiki.wiki.model.Space;
+import com.wiki.monowiki.wiki.model.Tag;
+import com.wiki.monowiki.wiki.repository.*;
+import com.wiki.monowiki.wiki.repository.ArticleSearchQueries.Criteria;
+import com.wiki.monowiki.wiki.repository.ArticleSearchQueries.Hit;
+import com.wiki.monowiki.wiki.repository.ArticleSearchQueries.Visibility;
+import com.wiki.monowiki.wiki.search.GlobalSearchProperties;
+import com.wiki.monowiki.wiki.search.PublishedArticleIndex;
+import com.wiki.monowiki.wiki.search.SearchCacheProperties;
+import com.wiki.monowiki.wiki.search.SearchFanout;
+import com.wiki.monowiki.wiki.search.SearchResultCache;
+import com.wiki.monowiki.wiki.search.TagBitmapIndex;
+import com.wiki.monowiki.wiki.service.ArticleResponseAssembler;
+import com.wiki.monowiki.wiki.service.SearchService;
+import com.wiki.monowiki.wiki.service.SpaceDirectory;
+import com.wiki.monowiki.wiki.service.SpaceDirectoryProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchServiceTest {
+
+    @Mock private SpaceRepository spaces;
+    @Mock private ArticleRepository articles;
+    @Mock private ArticleSearchDocRepository searchDocs;
+    @Mock private ArticleVersionRepository versions;
+    @Mock private ArticleTagRepository articleTags;
+    @Mock private VersionCommentCountRepository commentCounts;
+    @Mock private TagRepository tags;
+    @Mock private PublishedArticleIndex publishedIndex;
+    @Spy private TagBitmapIndex tagBitmaps = new TagBitmapIndex();
+    @Spy private SearchFanout fanout = new SearchFanout(new GlobalSearchProperties(2, Duration.ofSeconds(5), 8));
+    @Spy private SearchResultCache resultCache = new SearchResultCache(new SearchCacheProperties(true, 1 << 20, Duration.ofMinutes(5)));
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private SearchService service;
+
+    @BeforeEach
+    void setUp() {
+	SpaceDirectory spaceDirectory = new SpaceDirectory(spaces, new SpaceDirectoryProperties(Duration.ofMinutes(5), Duration.ofSeconds(30)));
+	ArticleResponseAssembler responses = new ArticleResponseAssembler(versions, articleTags, commentCounts, spaceDirectory);
+	service = new SearchService(spaceDirectory, articles, searchDocs, responses, tags, publishedIndex, tagBitmaps, fanout, resultCache, transactionManager);
+    }
+
+    private final Space space = Space.builder().id(1L).spaceKey("ENG").name("Engineering").build();
+
+    @AfterEach
+    void tearDown() {
+	TestAuth.clear();
+    }
+
+    @Test
+    void viewer_search_only_matches_published_and_keeps_hit_order() {
+	TestAuth.setAuth("viewer1", "VIEWER");
+
+	Article first = published(11L, "VPN setup");
+	Article second = published(10L, "Laptop setup");
+	when(spaces.findBySpaceKey("ENG")).thenReturn(Optional.of(space));
+	when(searchDocs.search(any(Criteria.class), any(Pageable.class)))
+		.thenReturn(new PageImpl<>(List.of(hit(11L, 0.9), hit(10L, 0.2)), PageRequest.of(0, 10), 2));
+	when(articles.findWithSpaceByIdIn(List.of(11L, 10L))).thenReturn(List.of(second, first));
+	when(versions.findCurrentContentByArticleIdIn(any())).thenReturn(List.of(currentContent(11L, "connect to vpn")));
+
+	var page = service.search("ENG", "vpn", SearchMode.FULLTEXT, SearchSort.RELEVANCE, 0.3, List.of(), true, true, PageRequest.of(0, 10)).page();
+
+	assertThat(page.getTotalElements()).isEqualTo(2);
+	assertThat(page.getContent()).extracting("id").containsExactly(11L, 10L);
+	assertThat(page.getContent().getFirst().latestContent()).isEqualTo("connect to vpn");
+
+	ArgumentCaptor<Criteria> captor = ArgumentCaptor.forClass(Criteria.class);
+	verify(searchDocs).search(captor.capture(), any(Pageable.class));
+	assertThat(captor.getValue().visibility()).isEqualTo(Visibility.PUBLISHED_ONLY);
+	assertThat(captor.getValue().spaceId()).isEqualTo(1L);
+    }
+
+    @Test
+    void viewer_fulltext_search_is_answered_by_published_index() {
+	TestAuth.setAuth("viewer1", "VIEWER");
+
+	Article a = published(12L, "VPN troubleshooting");
+	when(spaces.findBySpaceKey("ENG")).thenReturn(Optional.of(space));
+	when(publishedIndex.search(eq(1L), eq("vpn"), eq(SearchSort.RELEVANCE), any(Pageable.class), any()))
+		.thenReturn(Optional.of(new PageImpl<>(List.of(hit(12L, 3.0)), PageRequest.of(0, 10), 1)));
+	when(articles.findWithSpaceByIdIn(List.of(12L))).thenReturn(List.of(a));
+
+	var page = service.search("ENG", "vpn", SearchMode.FULLTEXT, SearchSort.RELEVANCE, 0.3, List.of(), false, false, PageRequest.of(0, 10)).page();
+
+	assertThat(page.getContent()).extracting("id").containsExactly(12L);
+	verify(searchDocs, never()).search(any(Criteria.class), any(Pageable.class));
+    }
+
+    @Test
+    void results_carry_highlighted_snippet_instead_of_content_by_default() {
+	TestAuth.setAuth("editor1", "EDITOR");
+
+	Article a = published(12L, "VPN troubleshooting");
+	when(spaces.findBySpaceKey("ENG")).thenReturn(Optional.of(space));
+	when(searchDocs.search(any(Criteria.class), any(Pageable.class)))
+		.thenReturn(new PageImpl<>(List.of(hit(12L, 0.5)), PageRequest.of(0, 10), 1));
+	when(articles.findWithSpaceByIdIn(List.of(12L))).thenReturn(List.of(a));
+	when(searchDocs.snippets(List.of(12L), "vpn", SearchMode.FULLTEXT))
+		.thenReturn(Map.of(12L, "restart the \u0002vpn\u0003 client"));
+
+	var page = service.search("ENG", "vpn", SearchMode.FULLTEXT, SearchSort.RELEVANCE, 0.3, List.of(), false, false, PageRequest.of(0, 10)).page();
+
+	var result = page.getContent().getFirst();
+	assertThat(result.snippet()).isEqualTo("restart the vpn client");
+	assertThat(result.highlights()).containsExactly(new Highlight(12, 3));
+	assertThat(result.latestContent()).isNull();
+	verifyNoInteractions(versions);
+    }
+
+    @Test
+    void editor_search_excludes_archived_by_default() {
+	TestAuth.setAuth("editor1", "EDITOR");
+
+	when(spaces.findBySpaceKey("ENG")).thenReturn(Optional.of(space));
+	when(searchDocs.search(any(Criteria.class), any(Pageable.class))).thenReturn(new PageImpl<>(List.of()));
+
+	var page = service.search("ENG", "vp", SearchMode.SUBSTRING, SearchSort.RECENT, 0.3, List.of(), false, false, PageRequest.of(0, 10)).page();
+
+	assertThat(page.getContent()).isEmpty();
+	ArgumentCaptor<Criteria> captor = ArgumentCaptor.forClass(Criteria.class);
+	verify(searchDocs).search(captor.capture(), any(Pageable.class));
+	assertThat(captor.getValue().visibility()).isEqualTo(Visibility.NON_ARCHIVED);
+	assertThat(captor.getValue().mode()).isEqualTo(SearchMode.SUBSTRING);
+	verifyNoInteractions(publishedIndex);
+    }
+
+    @Test
+    void fuzzy_search_passes_similarity_and_skips_published_index() {
+	TestAuth.setAuth("viewer1", "VIEWER");
+
+	when(spaces.findBySpaceKey("ENG")).thenReturn(Optional.of(space));
+	when(searchDocs.search(any(Criteria.class), any(Pageable.class))).thenReturn(new PageImpl<>(List.of()));
+
+	service.search("ENG", "onbaording", SearchMode.FUZZY, SearchSort.RELEVANCE, 0.4, List.of(), false, false, PageRequest.of(0, 10));
+
+	ArgumentCaptor<Criteria> captor = ArgumentCaptor.forClass(Criteria.class);
+	verify(searchDocs).search(captor.capture(), any(Pageable.class));
+	assertThat(captor.getValue().mode()).isEqualTo(SearchMode.FUZZY);
+	assertThat(captor.getValue().similarity()).isEqualTo(0.4);
+	verifyNoInteractions(publishedIndex);
+    }
+
+    @Test
+    void similarity_outside_unit_range_is_rejected() {
+	TestAuth.setAuth("editor1", "EDITOR");
+
+	assertThatThrownBy(() -> service.search("ENG", "vpn", SearchMode.FUZZY, SearchSort.RELEVANCE, 1.5, List.of(), false, false, PageRequest.of(0, 10)))
+		.isInstanceOf(IllegalArgumentException.class);
+	verifyNoInteractions(spaces, searchDocs);
+    }
+
+    @Test
+    void all_spaces_search_merges_per_space_rankings() {
+	TestAuth.setAuth("editor1", "EDITOR");
+
+	Space ops = Space.builder().id(2L).spaceKey("OPS").name("Operations").build();
+	when(spaces.findAll()).thenReturn(List.of(space, ops));
+	when(searchDocs.search(any(Criteria.class), any(Pageable.class))).thenAnswer(inv -> {
+	    Criteria c = inv.getArgument(0);
+	    assertThat(c.visibility()).isEqualTo(Visibility.NON_ARCHIVED);
+	    return c.spaceId() == 1L
+		    ? new PageImpl<>(List.of(hit(11L, 0.9), hit(10L, 0.2)), PageRequest.of(0, 2), 2)
+		    : new PageImpl<>(List.of(hit(20L, 0.5)), PageRequest.of(0, 2), 1);
+	});
+	Article a11 = published(11L, "VPN setup");
+	Article a20 = Article.builder().id(20L).space(ops).title("VPN for ops").slug("vpn-ops")
+		.status(ArticleStatus.DRAFT).currentVersionNo(0).build();
+	when(articles.findWithSpaceByIdIn(List.of(11L, 20L))).thenReturn(List.of(a20, a11));
+
+	var result = service.searchAllSpaces("vpn", SearchMode.FULLTEXT, SearchSort.RELEVANCE, 0.3, List.of(), false, false, PageRequest.of(0, 2));
+
+	assertThat(result.incompleteSpaces()).isEmpty();
+	assertThat(result.page().getTotalElements()).isEqualTo(3);
+	assertThat(result.page().getContent()).extracting("id").containsExactly(11L, 20L);
+	assertThat(result.page().getContent()).extracting("spaceKey").containsExactly("ENG", "OPS");
+    }
+
+    @Test
+    void viewer_all_spaces_relevance_search_ranks_in_database_not_per_space_index() {
+	TestAuth.setAuth("viewer1", "VIEWER");
+
+	when(spaces.findAll()).thenReturn(List.of(space));
+	when(searchDocs.search(any(Criteria.class), any(Pageable.class)))
+		.thenReturn(new PageImpl<>(List.of(hit(11L, 0.9)), PageRequest.of(0, 10), 1));
+	when(articles.findWithSpaceByIdIn(List.of(11L))).thenReturn(List.of(published(11L, "VPN setup")));
+
+	var result = service.searchAllSpaces("vpn", SearchMode.FULLTEXT, SearchSort.RELEVANCE, 0.3, List.of(), false, false, PageRequest.of(0, 10));
+
+	assertThat(result.page().getContent()).extracting("id").containsExactly(11L);
+	verifyNoInteractions(publishedIndex);
+    }
+
+    @Test
+    void repeated_search_is_served_from_cache_until_space_is_invalidated() {
+	TestAuth.setAuth("viewer1", "VIEWER");
+
+	when(spaces.findBySpaceKey("ENG")).thenReturn(Optional.of(space));
+	when(searchDocs.search(any(Criteria.class), any(Pageable.class))).thenReturn(new PageImpl<>(List.of()));
+
+	service.search("ENG", "VPN  setup", SearchMode.FUZZY, SearchSort.RELEVANCE, 0.3, List.of(), false, false, PageRequest.of(0, 10));
+	service.search("ENG", "vpn setup ", SearchMode.FUZZY, SearchSort.RELEVANCE, 0.3, List.of(), false, false, PageRequest.of(0, 10));
+	verify(searchDocs, times(1)).search(any(Criteria.class), any(Pageable.class));
+
+	resultCache.invalidate("ENG");
+	service.search("ENG", "vpn setup", SearchMode.FUZZY, SearchSort.RELEVANCE, 0.3, List.of(), false, false, PageRequest.of(0, 10));
+
+	verify(searchDocs, times(2)).search(any(Criteria.class), any(Pageable.class));
+	assertThat(service.cacheStats().hits()).isEqualTo(1);
+	assertThat(service.cacheStats().misses()).isEqualTo(2);
+    }
+
+    @Test
+    void tag_filter_reaches_query_and_facets_count_every_match() {
+	TestAuth.setAuth("editor1", "EDITOR");
+	tagBitmaps.beginRebuild();
+	tagBitmaps.replaceAll(Map.of(
+		1L, RoaringBitmap.bitmapOf(10, 11, 12),
+		2L, RoaringBitmap.bitmapOf(11),
+		3L, RoaringBitmap.bitmapOf(99)));
+
+	when(spaces.findBySpaceKey("ENG")).thenReturn(Optional.of(space));
+	when(searchDocs.search(any(Criteria.class), any(Pageable.class)))
+		.thenReturn(new PageImpl<>(List.of(hit(11L, 0.5)), PageRequest.of(0, 1), 2));
+	when(searchDocs.matchingIds(any(Criteria.class))).thenReturn(RoaringBitmap.bitmapOf(11, 12));
+	when(articles.findWithSpaceByIdIn(List.of(11L))).thenReturn(List.of(published(11L, "VPN setup")));
+	when(tags.findAllById(any())).thenReturn(List.of(
+		Tag.builder().id(1L).name("network").build(),
+		Tag.builder().id(2L).name("howto").build()));
+
+	var result = service.search("ENG", "vpn", SearchMode.FULLTEXT, SearchSort.RELEVANCE, 0.3, List.of(1L, 1L), false, false, PageRequest.of(0, 1));
+
+	assertThat(result.facets()).containsExactly(new TagFacet(1L, "network", 2), new TagFacet(2L, "howto", 1));
+	ArgumentCaptor<Criteria> captor = ArgumentCaptor.forClass(Criteria.class);
+	verify(searchDocs).search(captor.capture(), any(Pageable.class));
+	assertThat(captor.getValue().tagIds()).containsExactly(1L);
+    }
+
+    @Test
+    void cursor_search_returns_next_cursor_after_last_hit_and_continues_from_it() {
+	TestAuth.setAuth("editor1", "EDITOR");
+
+	Hit newest = hit(11L, 0);
+	Hit older = new Hit(10L, 0, Instant.parse("2025-12-31T00:00:00Z"));
+	when(spaces.findBySpaceKey("ENG")).thenReturn(Optional.of(space));
+	when(searchDocs.searchAfter(any(Criteria.class), any(), eq(2)))
+		.thenReturn(List.of(newest, older), List.of());
+	when(articles.findWithSpaceByIdIn(List.of(11L))).thenReturn(List.of(published(11L, "VPN setup")));
+
+	var first = service.searchByCursor("ENG", "vpn", SearchMode.FULLTEXT, SearchSort.RECENT, 0.3, List.of(), false, false, "", 1).page();
+
+	assertThat(first.content()).extracting("id").containsExactly(11L);
+	assertThat(first.hasNext()).isTrue();
+
+	service.searchByCursor("ENG", "vpn", SearchMode.FULLTEXT, SearchSort.RECENT, 0.3, List.of(), false, false, first.nextCursor(), 1);
+
+	ArgumentCaptor<Hit> after = ArgumentCaptor.forClass(Hit.class);
+	verify(searchDocs, times(2)).searchAfter(any(Criteria.class), after.capture(), eq(2));
+	assertThat(after.getAllValues().getFirst()).isNull();
+	assertThat(after.getAllValues().getLast().articleId()).isEqualTo(11L);
+	assertThat(after.getAllValues().getLast().updatedAt()).isEqualTo(newest.updatedAt());
+	verify(searchDocs, never()).search(any(Criteria.class), any(Pageable.class));
+    }
+
+    @Test
+    void cursor_search_rejects_relevance_order() {
+	TestAuth.setAuth("viewer1", "VIEWER");
+
+	assertThatThrownBy(() -> service.searchByCursor("ENG", "vpn", SearchMode.FULLTEXT, SearchSort.RELEVANCE, 0.3, List.of(), false, false, "", 10))
+		.isInstanceOf(IllegalArgumentException.class)
+		.hasMessageContaining("sort=recent");
+    }
+
+    @Test
+    void unknown_space_returns_empty_page_without_searching() {
+	TestAuth.setAuth("editor1", "EDITOR");
+	when(spaces.findBySpaceKey("NOPE")).thenReturn(Optional.empty());
+
+	var page = service.search("NOPE", "vpn", SearchMode.FULLTEXT, SearchSort.RELEVANCE, 0.3, List.of(), false, false, PageRequest.of(0, 10)).page();
+
+	assertThat(page.getContent()).isEmpty();
+	verifyNoInteractions(searchDocs);
+    }
+
+    private Article published(Long id, String title) {
+	return Article.builder()
+		.id(id)
+		.space(space)
+		.title(title)
+		.slug("a-" + id)
+		.status(ArticleStatus.PUBLISHED)
+		.currentVersionNo(1)
+		.build();
+    }
+
+    private static ArticleVersionRepository.CurrentContent currentContent(Long articleId, String content) {
+	return new ArticleVersionRepository.CurrentContent() {
+	    @Override
+	    public Long getArticleId() {
+		return articleId;
+	    }
+
+	    @Override
+	    public String getContent() {
+		return content;
+	    }
+
+	    @Override
+	    public byte[] getCompressed() {
+		return null;
+	    }
+	};
+    }
+
+    private Hit hit(Long articleId, double score) {
+	return new Hit(articleId, score, Instant.parse("2026-01-01T00:00:00Z"));
+    }
+}
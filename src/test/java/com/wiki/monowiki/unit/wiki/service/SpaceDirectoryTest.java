@@ -0,0 +1,96 @@
+package com.wiki.monowiki.unit.wiki.service;
+
+import com.wiki.monowiki.audit.model.AuditEntityType;
+import com.wiki.monowiki.audit.model.AuditEventType;
+import com.wiki.monowiki.audit.service.WikiAuditEvent;
+import com.wiki.monowiki.wiki.model.Article;
+import com.wiki.monowiki.wiki.model.Space;
+import com.wiki.monowiki.wiki.repository.SpaceRepository;
+import com.wiki.monowiki.wiki.service.SpaceDirectory;
+import com.wiki.monowiki.wiki.service.SpaceDirectory.SpaceRef;
+import com.wiki.monowiki.wiki.service.SpaceDirectoryProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SpaceDirectoryTest {
+
+    @Mock private SpaceRepository spaces;
+
+    private SpaceDirectory directory;
+
+    private final Space eng = Space.builder().id(1L).spaceKey("ENG").name("Engineering").build();
+    private final Space ops = Space.builder().id(2L).spaceKey("OPS").name("Operations").build();
+
+    @BeforeEach
+    void setUp() {
+	directory = new SpaceDirectory(spaces, new SpaceDirectoryProperties(Duration.ofMinutes(5), Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void lookups_are_served_from_one_load() {
+	when(spaces.findAll()).thenReturn(List.of(eng, ops));
+
+	assertThat(directory.find("ENG")).contains(new SpaceRef(1L, "ENG", "Engineering"));
+	assertThat(directory.findById(2L)).contains(new SpaceRef(2L, "OPS", "Operations"));
+	assertThat(directory.all()).extracting(SpaceRef::spaceKey).containsExactly("ENG", "OPS");
+
+	verify(spaces, times(1)).findAll();
+	verifyNoMoreInteractions(spaces);
+    }
+
+    @Test
+    void unknown_key_asks_the_database_once() {
+	when(spaces.findAll()).thenReturn(List.of(eng));
+	when(spaces.findBySpaceKey("NOPE")).thenReturn(Optional.empty());
+
+	assertThat(directory.find("NOPE")).isEmpty();
+	assertThat(directory.find("NOPE")).isEmpty();
+
+	verify(spaces, times(1)).findBySpaceKey("NOPE");
+    }
+
+    @Test
+    void space_created_elsewhere_is_found_on_miss_and_kept() {
+	when(spaces.findAll()).thenReturn(List.of(eng));
+	when(spaces.findBySpaceKey("OPS")).thenReturn(Optional.of(ops));
+
+	assertThat(directory.find("OPS")).map(SpaceRef::id).contains(2L);
+	assertThat(directory.find("OPS")).map(SpaceRef::id).contains(2L);
+
+	verify(spaces, times(1)).findBySpaceKey("OPS");
+    }
+
+    @Test
+    void committed_space_create_drops_the_negative_entry() {
+	when(spaces.findAll()).thenReturn(List.of(eng)).thenReturn(List.of(eng, ops));
+	when(spaces.findBySpaceKey("OPS")).thenReturn(Optional.empty());
+	assertThat(directory.find("OPS")).isEmpty();
+
+	directory.onEvent(new WikiAuditEvent(AuditEventType.SPACE_CREATED, AuditEntityType.SPACE, 2L, "OPS", null,
+		null, "Created space: Operations", true, Map.of()));
+
+	assertThat(directory.find("OPS")).map(SpaceRef::id).contains(2L);
+    }
+
+    @Test
+    void key_of_article_reads_only_the_space_id() {
+	when(spaces.findAll()).thenReturn(List.of(eng));
+	Space proxy = mock(Space.class);
+	when(proxy.getId()).thenReturn(1L);
+
+	assertThat(directory.keyOf(Article.builder().id(10L).space(proxy).build())).isEqualTo("ENG");
+	verify(proxy, never()).getSpaceKey();
+    }
+}
@@ -7,6 +7,7 @@ import com.wiki.monowiki.unit.util.TestAuth;
 import com.wiki.monowiki.wiki.dto.SpaceDtos.CreateSpaceRequest;
 import com.wiki.monowiki.wiki.model.Space;
 import com.wiki.monowiki.wiki.repository.SpaceRepository;
+import com.wiki.monowiki.wiki.service.SpaceDirectory;
 import com.wiki.monowiki.wiki.service.SpaceService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
@@ -29,6 +30,9 @@ class SpaceServiceTest {
     @Mock
     private SpaceRepository repo;
 
+    @Mock
+    private SpaceDirectory directory;
+
     @Mock
     private ApplicationEventPublisher publisher;
 
@@ -8,6 +8,8 @@ import com.wiki.monowiki.wiki.model.*;
 import com.wiki.monowiki.wiki.repository.ArticleRepository;
 import com.wiki.monowiki.wiki.repository.ArticleTagRepository;
 import com.wiki.monowiki.wiki.repository.TagRepository;
+import com.wiki.monowiki.wiki.service.SearchDocumentService;
+import com.wiki.monowiki.wiki.service.SpaceDirectory;
 import com.wiki.monowiki.wiki.service.TagService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
@@ -22,7 +24,10 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +36,8 @@ class TagServiceTest {
     @Mock private TagRepository tags;
     @Mock private ArticleRepository articles;
     @Mock private ArticleTagRepository articleTags;
+    @Mock private SearchDocumentService searchDocuments;
+    @Mock private SpaceDirectory spaceDirectory;
     @Mock private ApplicationEventPublisher publisher;
 
     @InjectMocks
@@ -71,6 +78,7 @@ class TagServiceTest {
 	service.addTagToArticle(10L, 2L);
 
 	verify(articleTags).save(any(ArticleTag.class));
+	verify(articles).bumpTagsVersion(10L);
 
 	ArgumentCaptor<WikiAuditEvent> captor = ArgumentCaptor.forClass(WikiAuditEvent.class);
 	verify(publisher).publishEvent(captor.capture());
@@ -88,14 +96,39 @@ class TagServiceTest {
 
 	when(articles.findById(10L)).thenReturn(Optional.of(a));
 	when(tags.findById(2L)).thenReturn(Optional.of(t));
+	when(articleTags.deleteByArticleAndTag(a, t)).thenReturn(1L);
 
 	service.removeTagFromArticle(10L, 2L);
 
 	verify(articleTags).deleteByArticleAndTag(a, t);
+	verify(articles).bumpTagsVersion(10L);
+	verify(searchDocuments).removeTag(a, 2L);
 
 	ArgumentCaptor<WikiAuditEvent> captor = ArgumentCaptor.forClass(WikiAuditEvent.class);
 	verify(publisher).publishEvent(captor.capture());
 	assertThat(captor.getValue().eventType()).isEqualTo(AuditEventType.TAG_REMOVED_FROM_ARTICLE);
 	assertThat(captor.getValue().publicEvent()).isFalse();
     }
+
+    @Test
+    void tag_add_and_remove_that_change_nothing_skip_search_doc_and_version_bump_but_are_still_audited() {
+	TestAuth.setAuth("editor1", "EDITOR");
+
+	Space space = Space.builder().id(1L).spaceKey("ENG").name("Engineering").build();
+	Article a = Article.builder().id(10L).space(space).status(ArticleStatus.PUBLISHED).build();
+	Tag t = Tag.builder().id(2L).name("howto").build();
+
+	when(articles.findById(10L)).thenReturn(Optional.of(a));
+	when(tags.findById(2L)).thenReturn(Optional.of(t));
+	when(articleTags.existsByArticleAndTag(a, t)).thenReturn(true);
+	when(articleTags.deleteByArticleAndTag(a, t)).thenReturn(0L);
+
+	service.addTagToArticle(10L, 2L);
+	service.removeTagFromArticle(10L, 2L);
+
+	verify(articleTags, never()).save(any(ArticleTag.class));
+	verify(articles, never()).bumpTagsVersion(any());
+	verifyNoInteractions(searchDocuments);
+	verify(publisher, times(2)).publishEvent(any(WikiAuditEvent.class));
+    }
 }
@@ -0,0 +1,129 @@
+package com.wiki.monowiki.unit.wiki.service;
+
+import com.wiki.monowiki.wiki.model.Article;
+import com.wiki.monowiki.wiki.model.ArticleVersion;
+import com.wiki.monowiki.wiki.model.ContentBlob;
+import com.wiki.monowiki.wiki.repository.ArticleVersionRepository;
+import com.wiki.monowiki.wiki.repository.ContentBlobRepository;
+import com.wiki.monowiki.wiki.service.VersionContents;
+import com.wiki.monowiki.wiki.service.VersionStorageProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class VersionContentsTest {
+
+    @Mock private ArticleVersionRepository repository;
+    @Mock private ContentBlobRepository blobs;
+
+    private final Article article = Article.builder().id(10L).build();
+    private final List<ArticleVersion> stored = new ArrayList<>();
+    private final List<String> written = new ArrayList<>();
+    private VersionContents contents;
+
+    @BeforeEach
+    void setUp() {
+	Map<String, String> bodies = new HashMap<>();
+	lenient().doAnswer(inv -> bodies.put(inv.getArgument(0), inv.getArgument(1))).when(blobs).retain(anyString(), anyString());
+	lenient().when(blobs.getReferenceById(anyString()))
+		.thenAnswer(inv -> ContentBlob.builder().hash(inv.getArgument(0)).content(bodies.get(inv.<String>getArgument(0))).build());
+
+	contents = new VersionContents(repository, blobs, new VersionStorageProperties(true, 3, 1_000_000, false, 512, 200));
+	// versions 1..5 added one after the other
+	for (int no = 1; no <= 5; no++) {
+	    String content = "# Runbook\n" + "step\n".repeat(50) + "revision " + no + "\n";
+	    ArticleVersion v = ArticleVersion.builder().article(article).versionNo(no).build();
+	    contents.store(v, content);
+	    contents.compact(stored.isEmpty() ? null : stored.getLast(), content);
+	    stored.add(v);
+	    written.add(content);
+	}
+    }
+
+    @Test
+    void only_the_latest_and_snapshot_versions_keep_a_blob() {
+	assertThat(stored).extracting(v -> v.getBlob() == null ? null : v.getBlob().getContent())
+		.containsExactly(null, null, written.get(2), null, written.get(4));
+	assertThat(stored).extracting(ArticleVersion::getContentHash)
+		.containsExactlyElementsOf(written.stream().map(VersionContents::hash).toList());
+	assertThat(stored.getFirst().getDelta()).hasSizeLessThan(40);
+	// the compacted versions gave their blob up
+	verify(blobs).release(VersionContents.hash(written.get(0)));
+	verify(blobs).deleteIfUnreferenced(VersionContents.hash(written.get(3)));
+	verify(blobs, never()).release(VersionContents.hash(written.get(2)));
+    }
+
+    @Test
+    void hash_is_sha256_hex_of_the_utf8_content() {
+	assertThat(VersionContents.hash("abc")).isEqualTo("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+    }
+
+    @Test
+    void delta_versions_are_rebuilt_from_the_next_full_one_and_cached() {
+	when(repository.findByArticleAndVersionNoGreaterThanOrderByVersionNoAsc(any(), anyInt(), any())).thenAnswer(inv -> {
+	    int after = inv.getArgument(1);
+	    Limit limit = inv.getArgument(2);
+	    return stored.subList(after, Math.min(stored.size(), after + limit.max()));
+	});
+
+	for (int i = 0; i < stored.size(); i++) {
+	    assertThat(contents.content(stored.get(i))).isEqualTo(written.get(i));
+	}
+	assertThat(contents.content(stored.get(1))).isEqualTo(written.get(1));
+
+	// version 1 walked up to snapshot 3 and cached version 2 on the way; version 4 read the latest
+	verify(repository, times(2)).findByArticleAndVersionNoGreaterThanOrderByVersionNoAsc(any(), anyInt(), any());
+    }
+
+    @Test
+    void nothing_is_compacted_with_the_mode_off() {
+	VersionContents off = new VersionContents(repository, blobs, new VersionStorageProperties(false, 3, 1_000_000, false, 512, 200));
+	ArticleVersion previous = ArticleVersion.builder().article(article).versionNo(1).build();
+	off.store(previous, written.get(0));
+
+	off.compact(previous, written.get(1));
+
+	assertThat(previous.getBlob().getContent()).isEqualTo(written.get(0));
+	assertThat(previous.getDelta()).isNull();
+    }
+
+    @Test
+    void long_bodies_are_stored_compressed_and_read_back() {
+	VersionContents compressing = new VersionContents(repository, blobs, new VersionStorageProperties(false, 3, 1_000_000, true, 100, 200));
+	ArgumentCaptor<byte[]> compressed = ArgumentCaptor.forClass(byte[].class);
+	String content = written.get(0);
+
+	ArticleVersion v = ArticleVersion.builder().article(article).versionNo(6).build();
+	compressing.store(v, content);
+
+	verify(blobs).retainCompressed(eq(VersionContents.hash(content)), compressed.capture());
+	assertThat(compressed.getValue().length).isLessThan(content.length() / 5);
+	v.setBlob(ContentBlob.builder().hash(v.getContentHash()).compressed(compressed.getValue()).build());
+	assertThat(compressing.content(v)).isEqualTo(content);
+
+	// short bodies stay text
+	compressing.store(ArticleVersion.builder().article(article).versionNo(7).build(), "short");
+	verify(blobs).retain(VersionContents.hash("short"), "short");
+    }
+}
@@ -4,12 +4,20 @@ import com.wiki.monowiki.audit.model.AuditEventType;
 import com.wiki.monowiki.audit.service.WikiAuditEvent;
 import com.wiki.monowiki.unit.util.TestAuth;
 import com.wiki.monowiki.wiki.dto.VersionDtos.CreateVersionRequest;
+import com.wiki.monowiki.wiki.dto.VersionDtos.VersionDiffResponse;
 import com.wiki.monowiki.wiki.model.Article;
 import com.wiki.monowiki.wiki.model.ArticleStatus;
 import com.wiki.monowiki.wiki.model.ArticleVersion;
 import com.wiki.monowiki.wiki.model.Space;
 import com.wiki.monowiki.wiki.repository.ArticleRepository;
+import com.wiki.monowiki.wiki.repository.ArticleRepository.CommentState;
+import com.wiki.monowiki.wiki.repository.ArticleRepository.VersionState;
 import com.wiki.monowiki.wiki.repository.ArticleVersionRepository;
+import com.wiki.monowiki.wiki.repository.ArticleVersionRepository.VersionSummaryRow;
+import com.wiki.monowiki.wiki.service.SearchDocumentService;
+import com.wiki.monowiki.wiki.service.SpaceDirectory;
+import com.wiki.monowiki.wiki.service.VersionContents;
+import com.wiki.monowiki.wiki.service.VersionDiffs;
 import com.wiki.monowiki.wiki.service.VersionService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
@@ -20,13 +28,18 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +47,10 @@ class VersionServiceTest {
 
     @Mock private ArticleRepository articles;
     @Mock private ArticleVersionRepository versions;
+    @Mock private VersionContents contents;
+    @Mock private VersionDiffs diffs;
+    @Mock private SearchDocumentService searchDocuments;
+    @Mock private SpaceDirectory spaceDirectory;
     @Mock private ApplicationEventPublisher publisher;
 
     @InjectMocks
@@ -52,8 +69,8 @@ class VersionServiceTest {
 	Article a = Article.builder().id(10L).space(space).status(ArticleStatus.DRAFT).build();
 
 	when(articles.findById(10L)).thenReturn(Optional.of(a));
-	when(versions.findTopByArticleOrderByVersionNoDesc(a))
-		.thenReturn(Optional.of(ArticleVersion.builder().versionNo(1).build()));
+	ArticleVersion previous = ArticleVersion.builder().article(a).versionNo(1).contentHash(VersionContents.hash("v1 content")).build();
+	when(versions.findTopByArticleOrderByVersionNoDesc(a)).thenReturn(Optional.of(previous));
 	when(versions.save(any(ArticleVersion.class))).thenAnswer(inv -> {
 	    ArticleVersion v = inv.getArgument(0);
 	    v.setId(100L);
@@ -66,6 +83,10 @@ class VersionServiceTest {
 	assertThat(res.versionNo()).isEqualTo(2);
 	assertThat(res.content()).isEqualTo("v2 content");
 	assertThat(a.getCurrentVersionNo()).isEqualTo(2);
+	assertThat(a.getCurrentVersion().getId()).isEqualTo(100L);
+	verify(contents).store(a.getCurrentVersion(), "v2 content");
+	verify(contents).compact(previous, "v2 content");
+	verify(searchDocuments).refresh(a, "v2 content");
 
 	ArgumentCaptor<WikiAuditEvent> captor = ArgumentCaptor.forClass(WikiAuditEvent.class);
 	verify(publisher).publishEvent(captor.capture());
@@ -89,10 +110,111 @@ class VersionServiceTest {
     void list_for_viewer_on_non_published_article_throws_notFound() {
 	TestAuth.setAuth("viewer1", "VIEWER");
 
-	Article a = Article.builder().id(10L).status(ArticleStatus.DRAFT).build();
-	when(articles.findById(10L)).thenReturn(Optional.of(a));
+	when(articles.findVersionStateById(10L)).thenReturn(Optional.of(state(ArticleStatus.DRAFT, 3)));
 
-	assertThatThrownBy(() -> service.list(10L, PageRequest.of(0, 10)))
+	assertThatThrownBy(() -> service.list(10L, true, PageRequest.of(0, 10)))
 		.isInstanceOf(VersionService.NotFoundException.class);
     }
+
+    @Test
+    void list_returns_metadata_without_loading_content() {
+	TestAuth.setAuth("editor1", "EDITOR");
+	PageRequest pageable = PageRequest.of(0, 10);
+	when(articles.findVersionStateById(10L)).thenReturn(Optional.of(state(ArticleStatus.DRAFT, 1)));
+	when(versions.findSummarySliceByArticleId(10L, pageable)).thenReturn(new SliceImpl<>(List.of(row(1, 42, 2L)), pageable, false));
+
+	var page = service.list(10L, false, pageable);
+
+	assertThat(page.getContent()).singleElement().satisfies(v -> {
+	    assertThat(v.articleId()).isEqualTo(10L);
+	    assertThat(v.versionNo()).isEqualTo(1);
+	    assertThat(v.contentLength()).isEqualTo(42);
+	    assertThat(v.contentHash()).isEqualTo("h1");
+	    assertThat(v.commentCount()).isEqualTo(2L);
+	});
+	verify(versions, never()).findSummariesByArticleId(any(), any());
+	verifyNoInteractions(contents);
+    }
+
+    @Test
+    void cached_diff_is_returned_without_loading_versions() {
+	TestAuth.setAuth("viewer1", "VIEWER");
+
+	Article a = Article.builder().id(10L).status(ArticleStatus.PUBLISHED).currentVersionNo(3).build();
+	VersionDiffResponse diff = new VersionDiffResponse(10L, 1, 3, 2, 1, false, List.of());
+	when(articles.findById(10L)).thenReturn(Optional.of(a));
+	when(diffs.cached(10L, 1, 3)).thenReturn(Optional.of(diff));
+
+	assertThat(service.diff(10L, 1, 3)).isSameAs(diff);
+	verifyNoInteractions(versions);
+
+	when(articles.findVersionStateById(10L)).thenReturn(Optional.of(state(ArticleStatus.PUBLISHED, 3)));
+	assertThat(service.diffETag(10L, 1, 3)).contains("\"10-d1-3\"");
+	assertThat(service.diffETag(10L, 3, 4)).isEmpty();
+    }
+
+    @Test
+    void create_with_unchanged_content_adds_no_version() {
+	TestAuth.setAuth("editor1", "EDITOR");
+
+	Article a = Article.builder().id(10L).status(ArticleStatus.DRAFT).currentVersionNo(3).build();
+	ArticleVersion current = ArticleVersion.builder().id(103L).article(a).versionNo(3).contentHash(VersionContents.hash("same")).build();
+	when(articles.findById(10L)).thenReturn(Optional.of(a));
+	when(versions.findTopByArticleOrderByVersionNoDesc(a)).thenReturn(Optional.of(current));
+
+	var res = service.create(10L, new CreateVersionRequest("same"));
+
+	assertThat(res.versionNo()).isEqualTo(3);
+	assertThat(res.id()).isEqualTo(103L);
+	verify(versions, never()).save(any());
+	verifyNoInteractions(contents, searchDocuments, publisher);
+    }
+
+    @Test
+    void version_etag_only_for_existing_versions_the_caller_may_see() {
+	TestAuth.setAuth("viewer1", "VIEWER");
+	when(articles.findVersionStateById(10L)).thenReturn(Optional.of(state(ArticleStatus.PUBLISHED, 3)));
+	when(articles.findVersionStateById(20L)).thenReturn(Optional.of(state(ArticleStatus.DRAFT, 3)));
+
+	assertThat(service.versionETag(10L, 2)).contains("\"10-v2\"");
+	assertThat(service.versionETag(10L, 4)).isEmpty();
+	assertThat(service.versionETag(20L, 1)).isEmpty();
+    }
+
+    @Test
+    void list_etag_changes_with_versions_and_comments() {
+	TestAuth.setAuth("viewer1", "VIEWER");
+	when(articles.findHistoryState(10L)).thenReturn(Optional.of(historyState(ArticleStatus.PUBLISHED, 3, 5)));
+	when(articles.findHistoryState(20L)).thenReturn(Optional.of(historyState(ArticleStatus.DRAFT, 3, 0)));
+
+	assertThat(service.listETag(10L)).contains("\"10-n3-c5\"");
+	assertThat(service.listETag(20L)).isEmpty();
+    }
+
+    private static VersionState state(ArticleStatus status, int currentVersionNo) {
+	return new VersionState() {
+	    @Override public ArticleStatus getStatus() { return status; }
+	    @Override public Integer getCurrentVersionNo() { return currentVersionNo; }
+	};
+    }
+
+    private static CommentState historyState(ArticleStatus status, int currentVersionNo, long commentCount) {
+	return new CommentState() {
+	    @Override public ArticleStatus getStatus() { return status; }
+	    @Override public Integer getCurrentVersionNo() { return currentVersionNo; }
+	    @Override public Long getCommentCount() { return commentCount; }
+	};
+    }
+
+    private static VersionSummaryRow row(int versionNo, int contentLength, long commentCount) {
+	return new VersionSummaryRow() {
+	    @Override public Long getId() { return 100L + versionNo; }
+	    @Override public Integer getVersionNo() { return versionNo; }
+	    @Override public String getCreatedBy() { return "editor1"; }
+	    @Override public Instant getCreatedAt() { return Instant.EPOCH; }
+	    @Override public Integer getContentLength() { return contentLength; }
+	    @Override public String getContentHash() { return "h" + versionNo; }
+	    @Override public Long getCommentCount() { return commentCount; }
+	};
+    }
 }